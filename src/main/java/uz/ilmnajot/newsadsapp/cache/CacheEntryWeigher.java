@@ -0,0 +1,32 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+
+import java.util.Collection;
+import java.util.Map;
+
+// Cheap size estimate for L1 entries: one unit per object plus one per element of a listed payload
+// or per KB of a pre-rendered detail body
+final class CacheEntryWeigher {
+
+    private CacheEntryWeigher() {
+    }
+
+    static int weigh(String key, Object value) {
+        Object payload = value instanceof CacheEnvelope envelope ? envelope.getValue() : value;
+        if (payload instanceof ApiResponse response) {
+            payload = response.getData();
+        }
+        if (payload instanceof NewsDetailBlob blob) {
+            return 1 + (blob.json().length + blob.gzip().length) / 1024;
+        }
+        if (payload instanceof Collection<?> collection) {
+            return 1 + collection.size();
+        }
+        if (payload instanceof Map<?, ?> map) {
+            return 1 + map.size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,18 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Value of a stale-while-revalidate cache entry with the data needed for early (XFetch) refresh
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope {
+
+    private Object value;
+    // epoch millis after which the value is stale (the Redis TTL adds the stale window on top)
+    private long refreshAt;
+    // how long the last load took; slow loads start refreshing earlier
+    private long computeMillis;
+}
@@ -0,0 +1,46 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts L1 invalidations over Redis pub/sub.
+ * <p>
+ * Message format: {@code <nodeId>|<cacheName>|<key>}; an empty key means "clear the whole cache".
+ * Messages from this node are ignored by {@link TwoLevelCacheManager#onInvalidation}.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    public static final String CHANNEL = "cache:invalidate";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        send(nodeId + "|" + cacheName + "|" + key);
+    }
+
+    public void publishClear(String cacheName) {
+        send(nodeId + "|" + cacheName + "|");
+    }
+
+    private void send(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            // Other nodes fall back to their (short) L1 TTL
+            log.warn("Cache invalidation broadcast failed: {}", e.getMessage());
+        }
+    }
+}
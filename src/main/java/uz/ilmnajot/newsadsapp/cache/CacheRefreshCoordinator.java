@@ -0,0 +1,98 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs background refreshes of stale-while-revalidate entries.
+ * <p>
+ * At most one refresh per key runs cluster-wide: a node first dedups locally, then takes the
+ * Redis lock {@code cache:refresh:<cache>:<key>} with SET NX PX. Nodes that do not get the lock
+ * keep serving the stale value. The lock is released only by its owner (compare-and-delete), so a refresh
+ * that outlives the lock TTL cannot free a lock another node has taken since. The pool and its queue are bounded; refreshes that do not fit are
+ * skipped and triggered again by a later reader.
+ */
+@Slf4j
+public class CacheRefreshCoordinator {
+
+    private static final String LOCK_PREFIX = "cache:refresh:";
+
+    // KEYS[1] = lock, ARGV[1] = owner; deletes the lock only if the owner still holds it
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId;
+    private final Duration lockTtl;
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+
+    public CacheRefreshCoordinator(StringRedisTemplate redisTemplate, String nodeId, Duration lockTtl, int threads) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+        this.lockTtl = lockTtl;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Schedule the refresh unless one is already running for this key
+    void refreshAsync(String cacheName, String key, Runnable refresh) {
+        String lockKey = LOCK_PREFIX + cacheName + ":" + key;
+        if (!inProgress.add(lockKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (tryLock(lockKey)) {
+                        try {
+                            refresh.run();
+                        } finally {
+                            unlock(lockKey);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.warn("Background refresh of {}::{} failed: {}", cacheName, key, e.getMessage());
+                } finally {
+                    inProgress.remove(lockKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool busy: a later reader triggers it again
+            inProgress.remove(lockKey);
+        }
+    }
+
+    private boolean tryLock(String lockKey) {
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, nodeId, lockTtl);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    private void unlock(String lockKey) {
+        redisTemplate.execute(UNLOCK, List.of(lockKey), nodeId);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
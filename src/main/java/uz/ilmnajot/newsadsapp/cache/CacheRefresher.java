@@ -0,0 +1,14 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+/**
+ * Reloads one entry of a stale-while-revalidate cache by calling the {@code @Cacheable} method for
+ * the key again through the bean proxy, so the reload gets its own invocation with the transaction
+ * and the other advice of a normal call. {@link TwoLevelCache} recognizes the call and loads instead
+ * of returning the stale value.
+ */
+@FunctionalInterface
+public interface CacheRefresher {
+
+    // key: the string form of the cache key
+    void reload(String key);
+}
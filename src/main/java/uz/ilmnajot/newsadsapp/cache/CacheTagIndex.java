@@ -0,0 +1,82 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Tags cache keys so that a group of entries can be evicted without knowing every key.
+ * <p>
+ * For every tagged cache a function maps the key to its tag (e.g. a news list page key to its
+ * lang/category/tag filter without the page number). Stored keys are added to the Redis set
+ * {@code cache:tags:<cache>:<tag>}; {@link #drain} returns and removes the members of a set in one script,
+ * so a key tagged concurrently is either returned or stays in the set for the next drain.
+ */
+@Slf4j
+public class CacheTagIndex {
+
+    private static final String PREFIX = "cache:tags:";
+
+    // KEYS[1] = tag set; returns its members and deletes it
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN = new DefaultRedisScript<>("""
+            local keys = redis.call('SMEMBERS', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            return keys
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, Function<String, String>> taggers;
+    private final Duration ttl;
+
+    public CacheTagIndex(StringRedisTemplate redisTemplate, Map<String, Function<String, String>> taggers, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.taggers = Map.copyOf(taggers);
+        this.ttl = ttl;
+    }
+
+    // Called after a key was stored in L2
+    void register(String cacheName, String key) {
+        Function<String, String> tagger = taggers.get(cacheName);
+        if (tagger == null) {
+            return;
+        }
+        String tag = tagger.apply(key);
+        if (tag == null) {
+            return;
+        }
+        try {
+            String setKey = setKey(cacheName, tag);
+            redisTemplate.opsForSet().add(setKey, key);
+            redisTemplate.expire(setKey, ttl);
+        } catch (Exception e) {
+            // Entry is still bounded by its TTL
+            log.warn("Failed to tag cache key {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    // Keys stored under the tag; the tag set is removed
+    Set<String> drain(String cacheName, String tag) {
+        List<?> keys = redisTemplate.execute(DRAIN, List.of(setKey(cacheName, tag)));
+        if (keys == null) {
+            return Set.of();
+        }
+        Set<String> drained = new HashSet<>();
+        for (Object key : keys) {
+            drained.add((String) key);
+        }
+        return drained;
+    }
+
+    private static String setKey(String cacheName, String tag) {
+        return PREFIX + cacheName + ":" + tag;
+    }
+}
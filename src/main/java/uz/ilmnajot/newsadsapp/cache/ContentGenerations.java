@@ -0,0 +1,103 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Version counters of the public content, shared by all nodes in Redis. The public controllers
+ * build their ETags from them, so a matching If-None-Match is answered with 304 after one
+ * {@code MGET}, before the cache or the database is touched.
+ * <p>
+ * {@link PublicCacheInvalidator} bumps a scope after it evicted the matching cache entries (and
+ * again after its second pass), so a client can never keep a version that was paired with a body
+ * loaded before the eviction.
+ * <p>
+ * A bump moves the counter to {@code max(current + 1, now in millis)}: a key that expired or was lost
+ * with Redis comes back with a larger value than any it had, and old ETags never match again.
+ * Scopes without a counter yet (or Redis not reachable) give no version; callers then serve the full
+ * response.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentGenerations {
+
+    // Every public news list page
+    public static final String NEWS = "news";
+    // Category titles and tag codes embedded in every news response
+    public static final String NEWS_META = "news-meta";
+    public static final String CATEGORIES = "categories";
+    public static final String TAGS = "tags";
+
+    private static final String KEY_PREFIX = "gen:";
+    private static final Duration KEY_TTL = Duration.ofDays(7);
+
+    private static final RedisScript<Long> BUMP = new DefaultRedisScript<>("""
+            for _, key in ipairs(KEYS) do
+              local current = tonumber(redis.call('GET', key) or '0')
+              local target = tonumber(ARGV[1])
+              if current < target then
+                redis.call('INCRBY', key, target - current)
+              else
+                redis.call('INCR', key)
+              end
+              redis.call('EXPIRE', key, ARGV[2])
+            end
+            return #KEYS
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Scope of one article detail
+    public static String detail(String lang, String slug) {
+        return "news:" + lang + ":" + slug;
+    }
+
+    // Current version of the scopes joined with '.', null when one of them has none
+    public String current(String... scopes) {
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys(List.of(scopes)));
+            if (values == null || values.contains(null)) {
+                return null;
+            }
+            return String.join(".", values);
+        } catch (DataAccessException e) {
+            log.debug("Content generations not available: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Start counting scopes that have no version yet; only called for content that exists
+    public void initialise(String... scopes) {
+        try {
+            String now = Long.toString(System.currentTimeMillis());
+            for (String key : keys(List.of(scopes))) {
+                redisTemplate.opsForValue().setIfAbsent(key, now, KEY_TTL);
+            }
+        } catch (DataAccessException e) {
+            log.debug("Content generations not initialised: {}", e.getMessage());
+        }
+    }
+
+    // bump
+    public void bump(Collection<String> scopes) {
+        if (scopes.isEmpty()) {
+            return;
+        }
+        redisTemplate.execute(BUMP, keys(scopes),
+                Long.toString(System.currentTimeMillis()), Long.toString(KEY_TTL.toSeconds()));
+    }
+
+    private static List<String> keys(Collection<String> scopes) {
+        return scopes.stream().map(scope -> KEY_PREFIX + scope).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Redis value serializer of the newsDetail cache: writes the {@link NewsDetailBlob} byte arrays as they are.
+ * <p>
+ * Through the JSON serializer the pre-rendered body would be stored as base64 (a third larger) and decoded
+ * into new arrays on every L2 hit. Layout: format byte, refreshAt and computeMillis of the
+ * {@link CacheEnvelope} (0 without one), then etag, surrogate key, json and gzip, each length-prefixed.
+ */
+public class NewsDetailBlobSerializer implements RedisSerializer<Object> {
+
+    private static final byte BLOB = 1;
+    private static final byte ENVELOPE = 2;
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        CacheEnvelope envelope = value instanceof CacheEnvelope e ? e : null;
+        if (!((envelope != null ? envelope.getValue() : value) instanceof NewsDetailBlob blob)) {
+            throw new SerializationException("Not a news detail blob: " + value.getClass().getName());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(blob.json().length + blob.gzip().length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(envelope != null ? ENVELOPE : BLOB);
+            out.writeLong(envelope != null ? envelope.getRefreshAt() : 0);
+            out.writeLong(envelope != null ? envelope.getComputeMillis() : 0);
+            write(out, blob.etag().getBytes(StandardCharsets.UTF_8));
+            write(out, blob.surrogateKey().getBytes(StandardCharsets.UTF_8));
+            write(out, blob.json());
+            write(out, blob.gzip());
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize news detail blob", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte format = in.readByte();
+            if (format != BLOB && format != ENVELOPE) {
+                return null; // written by the JSON serializer before: a miss, reloaded and stored in this format
+            }
+            long refreshAt = in.readLong();
+            long computeMillis = in.readLong();
+            NewsDetailBlob blob = new NewsDetailBlob(new String(read(in), StandardCharsets.UTF_8),
+                    new String(read(in), StandardCharsets.UTF_8), read(in), read(in));
+            return format == ENVELOPE ? new CacheEnvelope(blob, refreshAt, computeMillis) : blob;
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize news detail blob", e);
+        }
+    }
+
+    private static void write(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] read(DataInputStream in) throws IOException {
+        byte[] value = new byte[in.readInt()];
+        in.readFully(value);
+        return value;
+    }
+}
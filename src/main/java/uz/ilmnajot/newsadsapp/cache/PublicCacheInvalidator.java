@@ -0,0 +1,150 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uz.ilmnajot.newsadsapp.event.CategoryChangedEvent;
+import uz.ilmnajot.newsadsapp.event.NewsChangedEvent;
+import uz.ilmnajot.newsadsapp.event.TagChangedEvent;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts public caches after the changing transaction committed.
+ * <p>
+ * A news change evicts its detail entries (slug + lang) and only the list pages whose
+ * lang/category/tag filter can contain the article. Category and tag changes rename what is
+ * embedded in every article response, so they clear the news caches; they are rare.
+ * <p>
+ * Every eviction is repeated after {@code app.cache.invalidation.second-pass-ms}: a page that was
+ * being loaded from the old data while the first pass ran is stored after it and must go as well.
+ * Each pass ends by bumping the {@link ContentGenerations} of what it evicted, which changes the
+ * public ETags.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PublicCacheInvalidator {
+
+    private static final String ALL = "all";
+
+    private final CacheManager cacheManager;
+    private final ContentGenerations contentGenerations;
+
+    @Value("${app.cache.invalidation.second-pass-ms:2000}")
+    private long secondPassMillis;
+
+    private final ScheduledExecutorService secondPass = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        secondPass.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        twice(() -> evictNews(event));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        twice(() -> {
+            clear("categories");
+            if (event.isAffectsNews()) {
+                clear("newsList");
+                clear("newsDetail");
+                contentGenerations.bump(List.of(ContentGenerations.CATEGORIES,
+                        ContentGenerations.NEWS, ContentGenerations.NEWS_META));
+            } else {
+                contentGenerations.bump(List.of(ContentGenerations.CATEGORIES));
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        twice(() -> {
+            clear("tags");
+            if (event.isAffectsNews()) {
+                clear("newsList");
+                clear("newsDetail");
+                contentGenerations.bump(List.of(ContentGenerations.TAGS,
+                        ContentGenerations.NEWS, ContentGenerations.NEWS_META));
+            } else {
+                contentGenerations.bump(List.of(ContentGenerations.TAGS));
+            }
+        });
+    }
+
+    private void evictNews(NewsChangedEvent event) {
+        Cache detail = cacheManager.getCache("newsDetail");
+        if (detail != null) {
+            event.getSlugsByLang().forEach((lang, slug) -> detail.evict("slug:" + slug + ":lang:" + lang));
+        }
+
+        if (cacheManager instanceof TwoLevelCacheManager twoLevel) {
+            int evicted = twoLevel.evictTagged("newsList", listTags(event));
+            log.debug("News {} changed, evicted {} list pages", event.getNewsId(), evicted);
+        } else {
+            clear("newsList");
+        }
+
+        List<String> scopes = new ArrayList<>();
+        scopes.add(ContentGenerations.NEWS);
+        event.getSlugsByLang().forEach((lang, slug) -> scopes.add(ContentGenerations.detail(lang, slug)));
+        contentGenerations.bump(scopes);
+    }
+
+    // Tags of every list page the article can appear on (see PublicNewsServiceImpl#getPublicNews key)
+    static List<String> listTags(NewsChangedEvent event) {
+        List<String> categories = event.getCategoryId() != null
+                ? List.of(event.getCategoryId().toString(), ALL)
+                : List.of(ALL);
+        List<String> tags = new ArrayList<>(event.getTagCodes());
+        tags.add(ALL);
+
+        List<String> result = new ArrayList<>();
+        for (String lang : event.getSlugsByLang().keySet()) {
+            for (String category : categories) {
+                for (String tag : tags) {
+                    result.add("lang:" + lang + ":cat:" + category + ":tag:" + tag);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void twice(Runnable eviction) {
+        run(eviction);
+        secondPass.schedule(() -> run(eviction), secondPassMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Runnable eviction) {
+        try {
+            eviction.run();
+        } catch (Exception e) {
+            // Entries still expire by TTL
+            log.error("Cache invalidation failed", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.service.PublicNewsService;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link CacheRefresher}s of the stale-while-revalidate public caches: they turn a cache key back
+ * into the arguments of the {@code @Cacheable} method of {@link PublicNewsService} (see the key
+ * expressions there) and call it through the proxy, the way PublicNewsController does.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublicCacheRefreshers {
+
+    private static final String ALL = "all";
+    private static final Pattern LIST_KEY = Pattern.compile(
+            "lang:([^:]*):(page|cursor):([^:]*):size:(\\d+):cat:([^:]*):tag:(.*)");
+    private static final Pattern DETAIL_KEY = Pattern.compile("slug:(.*):lang:([^:]*)");
+
+    private final CacheManager cacheManager;
+    private final PublicNewsService publicNewsService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        if (cacheManager instanceof TwoLevelCacheManager twoLevel) {
+            twoLevel.registerRefresher("newsList", this::reloadList);
+            twoLevel.registerRefresher("newsDetail", this::reloadDetail);
+        }
+    }
+
+    void reloadList(String key) {
+        Matcher m = matching(LIST_KEY, key);
+        NewsFilter filter = new NewsFilter();
+        filter.setLang(m.group(1));
+        if (!ALL.equals(m.group(5))) {
+            filter.setCategoryId(Long.valueOf(m.group(5)));
+        }
+        if (!ALL.equals(m.group(6))) {
+            filter.setTag(m.group(6));
+        }
+        int size = Integer.parseInt(m.group(4));
+        if ("page".equals(m.group(2))) {
+            publicNewsService.getPublicNews(filter,
+                    PageRequest.of(Integer.parseInt(m.group(3)), size, Sort.by("publishAt").descending()));
+        } else {
+            publicNewsService.getPublicNewsFeed(filter, m.group(3), size);
+        }
+    }
+
+    void reloadDetail(String key) {
+        Matcher m = matching(DETAIL_KEY, key);
+        publicNewsService.getNewsBySlug(m.group(1), m.group(2));
+    }
+
+    private static Matcher matching(Pattern pattern, String key) {
+        Matcher m = pattern.matcher(key);
+        if (!m.matches()) {
+            throw new IllegalArgumentException("Unexpected cache key " + key);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,297 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cache with an in-heap Caffeine tier (L1) in front of the shared Redis tier (L2).
+ * <p>
+ * Reads go L1 -> L2 -> loader and fill the tiers on the way back, so a warm key costs
+ * no network round-trip and no JSON deserialization. Evictions are applied to both tiers
+ * and broadcast so that other nodes drop their L1 copy. L1 keys are the string form of the
+ * cache key, the same form RedisCache uses for its keys.
+ * <p>
+ * With a {@link TwoLevelCacheManager.RefreshSpec} the cache works in stale-while-revalidate mode:
+ * entries are stored as {@link CacheEnvelope}s and kept in Redis for a stale window past their
+ * refresh time. A {@code sync = true} read that finds an entry due for refresh (XFetch: earlier
+ * for slow loads, randomized so nodes do not all fire at once) returns it immediately and lets
+ * {@link CacheRefreshCoordinator} reload it in the background. The reload calls the cached method
+ * again through its proxy (the {@link CacheRefresher} registered for the cache), never the loader
+ * of the request that found the entry stale; caches without a refresher are not refreshed early.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheTagIndex tagIndex;
+    private final TwoLevelCacheManager.RefreshSpec refreshSpec;
+    private final CacheRefreshCoordinator refreshCoordinator;
+    private volatile CacheRefresher refresher;
+    // Key being reloaded by the refresher on this thread: its read goes straight to the loader
+    private final ThreadLocal<String> reloading = new ThreadLocal<>();
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter staleHits;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         CacheTagIndex tagIndex,
+                         MeterRegistry meterRegistry) {
+        this(name, local, remote, invalidationPublisher, tagIndex, null, null, meterRegistry);
+    }
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         CacheTagIndex tagIndex,
+                         TwoLevelCacheManager.RefreshSpec refreshSpec,
+                         CacheRefreshCoordinator refreshCoordinator,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.tagIndex = tagIndex;
+        this.refreshSpec = refreshCoordinator != null ? refreshSpec : null;
+        this.refreshCoordinator = refreshCoordinator;
+        this.l1Hits = counter(meterRegistry, "l1", "hit");
+        this.l1Misses = counter(meterRegistry, "l1", "miss");
+        this.l2Hits = counter(meterRegistry, "l2", "hit");
+        this.l2Misses = counter(meterRegistry, "l2", "miss");
+        this.staleHits = counter(meterRegistry, "l2", "stale");
+    }
+
+    private Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Cache lookups per tier")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object stored = local.getIfPresent(localKey);
+        if (stored != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(unwrap(stored));
+        }
+        l1Misses.increment();
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            l2Hits.increment();
+            local.put(localKey, wrapper.get());
+            return new SimpleValueWrapper(unwrap(wrapper.get()));
+        }
+        l2Misses.increment();
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    // sync = true: Caffeine makes concurrent callers on this node wait for one L2 lookup/load
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        if (localKey.equals(reloading.get())) {
+            return (T) unwrap(reload(key, localKey, valueLoader));
+        }
+        boolean[] loaded = {false};
+        Object stored = local.get(localKey, k -> {
+            loaded[0] = true;
+            l1Misses.increment();
+            boolean[] computed = {false};
+            Object result = remote.get(key, () -> {
+                computed[0] = true;
+                return load(valueLoader);
+            });
+            if (computed[0]) {
+                l2Misses.increment();
+                registerTag(k);
+            } else {
+                l2Hits.increment();
+            }
+            return result;
+        });
+        if (loaded[0]) {
+            return (T) unwrap(stored);
+        }
+        l1Hits.increment();
+
+        CacheRefresher current = refresher;
+        if (stored instanceof CacheEnvelope envelope && current != null && isDue(envelope)) {
+            staleHits.increment();
+            refreshCoordinator.refreshAsync(name, localKey, () -> refresh(localKey, current));
+        }
+        return (T) unwrap(stored);
+    }
+
+    // Runs on a coordinator thread: the refresher's call comes back to get(key, loader) above
+    private void refresh(String localKey, CacheRefresher current) {
+        reloading.set(localKey);
+        try {
+            current.reload(localKey);
+        } finally {
+            reloading.remove();
+        }
+    }
+
+    // Load with the loader of the refresher's own call and replace the entry in both tiers
+    private Object reload(Object key, String localKey, Callable<?> valueLoader) {
+        Object fresh;
+        try {
+            fresh = load(valueLoader);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (fresh == null) {
+            evict(key);
+            return null;
+        }
+        remote.put(key, fresh);
+        local.put(localKey, fresh);
+        registerTag(localKey);
+        invalidationPublisher.publishEvict(name, localKey); // other nodes re-read L2
+        return fresh;
+    }
+
+    // Exceptions are passed through unchanged, RedisCache wraps them for the cache interceptor
+    private Object load(Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        if (refreshSpec == null || value == null) {
+            return value;
+        }
+        long computeMillis = (System.nanoTime() - start) / 1_000_000;
+        return new CacheEnvelope(value, System.currentTimeMillis() + refreshSpec.refreshAfter().toMillis(), computeMillis);
+    }
+
+    // XFetch: refresh when now - computeTime * beta * ln(rand) >= refreshAt
+    private boolean isDue(CacheEnvelope envelope) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double earlyMillis = -Math.max(envelope.getComputeMillis(), 1) * refreshSpec.beta() * Math.log(random);
+        return System.currentTimeMillis() + earlyMillis >= envelope.getRefreshAt();
+    }
+
+    private Object wrapForPut(Object value) {
+        if (refreshSpec == null || value == null || value instanceof CacheEnvelope) {
+            return value;
+        }
+        return new CacheEnvelope(value, System.currentTimeMillis() + refreshSpec.refreshAfter().toMillis(), 0);
+    }
+
+    private static Object unwrap(Object stored) {
+        return stored instanceof CacheEnvelope envelope ? envelope.getValue() : stored;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stored = wrapForPut(value);
+        remote.put(key, stored);
+        if (stored != null) {
+            local.put(localKey(key), stored);
+            registerTag(localKey(key));
+        } else {
+            local.invalidate(localKey(key));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, wrapForPut(value));
+        local.invalidate(localKey(key));
+        return existing != null ? new SimpleValueWrapper(unwrap(existing.get())) : null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.publishEvict(name, localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = remote.invalidate();
+        local.invalidateAll();
+        invalidationPublisher.publishClear(name);
+        return present;
+    }
+
+    private void registerTag(String localKey) {
+        if (tagIndex != null) {
+            tagIndex.register(name, localKey);
+        }
+    }
+
+    // Only used with a RefreshSpec
+    void setRefresher(CacheRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    // Invalidation received from another node: only the local tier is affected
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
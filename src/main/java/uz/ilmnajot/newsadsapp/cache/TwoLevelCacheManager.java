@@ -0,0 +1,134 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheManager} combining a local Caffeine tier with the Redis cache manager.
+ * <p>
+ * Each cache name gets its own bounded, weight-limited L1 with a short TTL ({@link LocalSpec});
+ * names without a spec fall back to the default spec. Entries are weighed with {@link CacheEntryWeigher}.
+ * Caches with a {@link RefreshSpec} serve stale values while one node refreshes them in the background.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final Map<String, LocalSpec> localSpecs;
+    private final LocalSpec defaultSpec;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheTagIndex tagIndex;
+    private final Map<String, RefreshSpec> refreshSpecs;
+    private final CacheRefreshCoordinator refreshCoordinator;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Map<String, LocalSpec> localSpecs,
+                                LocalSpec defaultSpec,
+                                CacheInvalidationPublisher invalidationPublisher,
+                                CacheTagIndex tagIndex,
+                                Map<String, RefreshSpec> refreshSpecs,
+                                CacheRefreshCoordinator refreshCoordinator,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localSpecs = Map.copyOf(localSpecs);
+        this.defaultSpec = defaultSpec;
+        this.invalidationPublisher = invalidationPublisher;
+        this.tagIndex = tagIndex;
+        this.refreshSpecs = Map.copyOf(refreshSpecs);
+        this.refreshCoordinator = refreshCoordinator;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(@NonNull String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            throw new IllegalStateException("No remote cache for name " + name);
+        }
+        LocalSpec spec = localSpecs.getOrDefault(name, defaultSpec);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumWeight(spec.maxWeight())
+                .weigher(CacheEntryWeigher::weigh)
+                .expireAfterWrite(spec.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, "tier", "l1");
+        RefreshSpec refreshSpec = refreshSpecs.get(name);
+        return new TwoLevelCache(name, local, remote, invalidationPublisher, tagIndex,
+                refreshSpec, refreshSpec != null ? refreshCoordinator : null, meterRegistry);
+    }
+
+    // How stale entries of a refreshed cache are reloaded; without one they are only reloaded once expired
+    public void registerRefresher(String cacheName, CacheRefresher refresher) {
+        ((TwoLevelCache) getCache(cacheName)).setRefresher(refresher);
+    }
+
+    // Evict every entry stored under one of the tags (see CacheTagIndex); returns the number of keys
+    public int evictTagged(String cacheName, Collection<String> tags) {
+        Cache cache = getCache(cacheName);
+        int evicted = 0;
+        for (String tag : tags) {
+            for (String key : tagIndex.drain(cacheName, tag)) {
+                cache.evict(key);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    // Pub/sub message from CacheInvalidationPublisher
+    public void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || parts[0].equals(invalidationPublisher.nodeId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return; // never used on this node, nothing cached locally
+        }
+        if (parts[2].isEmpty()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+        log.debug("L1 invalidation from {}: cache={}, key={}", parts[0], parts[1], parts[2]);
+    }
+
+    // L1 settings of one cache: TTL and maximum total weight (see CacheEntryWeigher)
+    public record LocalSpec(Duration ttl, long maxWeight) {
+    }
+
+    /**
+     * Stale-while-revalidate settings: the entry is due for refresh after {@code refreshAfter}
+     * and may be served stale for {@code staleFor} more (its Redis TTL is the sum of both).
+     * {@code beta} > 1 refreshes earlier, < 1 later (XFetch).
+     */
+    public record RefreshSpec(Duration refreshAfter, Duration staleFor, double beta) {
+
+        public Duration redisTtl() {
+            return refreshAfter.plus(staleFor);
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package uz.ilmnajot.newsadsapp.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
+import io.minio.http.HttpUtils;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import uz.ilmnajot.newsadsapp.storage.MediaUploader;
+import uz.ilmnajot.newsadsapp.storage.PartBufferPool;
+import uz.ilmnajot.newsadsapp.storage.S3MultipartClient;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class MinioConfig {
 
+    private static final long MEGABYTE = 1024 * 1024;
+
     @Value("${app.s3.endpoint:http://localhost:9000}")
     private String endpoint;
 
@@ -17,13 +29,46 @@ public class MinioConfig {
     @Value("${app.s3.secret-key:minioadmin}")
     private String secretKey;
 
+    @Bean
+    // minioHttpClient: shared by both clients; OkHttp allows only 5 concurrent requests per host by default,
+    // too few for the parts of parallel uploads
+    public OkHttpClient minioHttpClient(@Value("${app.s3.max-connections:64}") int maxConnections) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConnections);
+        dispatcher.setMaxRequestsPerHost(maxConnections);
+        return HttpUtils.newDefaultHttpClient(TimeUnit.SECONDS.toMillis(10), TimeUnit.MINUTES.toMillis(5),
+                        TimeUnit.MINUTES.toMillis(5))
+                .newBuilder()
+                .dispatcher(dispatcher)
+                .build();
+    }
+
     @Bean
     // minioClient
-    public MinioClient minioClient() {
+    public MinioClient minioClient(OkHttpClient minioHttpClient) {
         return MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
+                .httpClient(minioHttpClient)
                 .build();
     }
-}
 
+    @Bean
+    // mediaUploader: upload memory is at most buffers * part-size, one upload uses up to parallel-parts + 1 buffers
+    public MediaUploader mediaUploader(OkHttpClient minioHttpClient,
+                                       @Value("${app.s3.bucket:media}") String bucket,
+                                       @Value("${app.s3.upload.part-size-mb:8}") int partSizeMb,
+                                       @Value("${app.s3.upload.parallel-parts:4}") int parallelParts,
+                                       @Value("${app.s3.upload.buffers:16}") int buffers,
+                                       @Value("${app.s3.upload.buffer-wait-ms:2000}") long bufferWaitMillis,
+                                       @Value("${app.s3.upload.max-size-mb:2048}") long maxSizeMb) {
+        S3MultipartClient client = new S3MultipartClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .httpClient(minioHttpClient)
+                .build());
+        PartBufferPool pool = new PartBufferPool(Math.toIntExact(partSizeMb * MEGABYTE), buffers,
+                Duration.ofMillis(bufferWaitMillis));
+        return new MediaUploader(client, pool, bucket, parallelParts, maxSizeMb * MEGABYTE);
+    }
+}
@@ -1,18 +1,42 @@
 package uz.ilmnajot.newsadsapp.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import uz.ilmnajot.newsadsapp.security.Argon2JvmPasswordEncoder;
+import uz.ilmnajot.newsadsapp.security.BoundedPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 public class PasswordEncoderConfig {
 
-    @Bean
-    // passwordEncoder
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    // passwordEncoder: new hashes with app.security.password.encoder, stored hashes of any kind still match
+    // (unprefixed ones are the bcrypt hashes from before) and are re-hashed on login; hashing runs on its own pool
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password.encoder:argon2}") String encoder,
+            @Value("${app.security.password.argon2.iterations:3}") int iterations,
+            @Value("${app.security.password.argon2.memory-kib:65536}") int memoryKib,
+            @Value("${app.security.password.argon2.parallelism:1}") int parallelism,
+            @Value("${app.security.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${app.security.password.hashing-threads:0}") int threads,
+            @Value("${app.security.password.hashing-queue:32}") int queue,
+            @Value("${app.security.password.hashing-timeout-ms:5000}") long timeoutMillis) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "argon2", new Argon2JvmPasswordEncoder(iterations, memoryKib, parallelism),
+                "bcrypt", bcrypt);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoder, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // Half the cores by default: a login flood leaves the other half to the public endpoints
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, poolSize, queue, Duration.ofMillis(timeoutMillis));
     }
 
 }
-
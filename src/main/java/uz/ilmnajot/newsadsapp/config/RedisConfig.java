@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -13,9 +14,20 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import uz.ilmnajot.newsadsapp.cache.CacheInvalidationPublisher;
+import uz.ilmnajot.newsadsapp.cache.CacheRefreshCoordinator;
+import uz.ilmnajot.newsadsapp.cache.CacheTagIndex;
+import uz.ilmnajot.newsadsapp.cache.NewsDetailBlobSerializer;
+import uz.ilmnajot.newsadsapp.cache.TwoLevelCacheManager;
+import uz.ilmnajot.newsadsapp.security.TokenRevocationService;
+
+import java.nio.charset.StandardCharsets;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -26,6 +38,12 @@ import java.util.Map;
 @ConditionalOnProperty(name = "spring.data.redis.host")
 public class RedisConfig {
 
+        // Stale-while-revalidate caches: refresh after / serve stale for / XFetch beta
+        private static final TwoLevelCacheManager.RefreshSpec NEWS_LIST_REFRESH =
+                        new TwoLevelCacheManager.RefreshSpec(Duration.ofHours(1), Duration.ofMinutes(10), 1.0);
+        private static final TwoLevelCacheManager.RefreshSpec NEWS_DETAIL_REFRESH =
+                        new TwoLevelCacheManager.RefreshSpec(Duration.ofHours(6), Duration.ofMinutes(30), 1.0);
+
         @Bean
         // redisTemplate
         public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -45,8 +63,79 @@ public class RedisConfig {
         }
 
         @Bean
-        // cacheManager
-        public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+        // cacheInvalidationPublisher
+        public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate) {
+                return new CacheInvalidationPublisher(stringRedisTemplate);
+        }
+
+        @Bean
+        // cacheTagIndex: news list pages are tagged by their lang/category/tag filter (key without the page or cursor part)
+        public CacheTagIndex cacheTagIndex(StringRedisTemplate stringRedisTemplate) {
+                return new CacheTagIndex(stringRedisTemplate,
+                                Map.of("newsList", key -> key.replaceFirst(":(?:page|cursor):[^:]*:size:\\d+", "")),
+                                NEWS_LIST_REFRESH.redisTtl().plusMinutes(5));
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        // cacheRefreshCoordinator: background reloads of stale entries, one per key cluster-wide
+        public CacheRefreshCoordinator cacheRefreshCoordinator(StringRedisTemplate stringRedisTemplate,
+                                                               CacheInvalidationPublisher cacheInvalidationPublisher) {
+                return new CacheRefreshCoordinator(stringRedisTemplate, cacheInvalidationPublisher.nodeId(),
+                                Duration.ofSeconds(30), 4);
+        }
+
+        @Bean
+        // cacheManager: Caffeine L1 per node in front of the shared Redis L2
+        public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                         CacheInvalidationPublisher cacheInvalidationPublisher,
+                                         CacheTagIndex cacheTagIndex,
+                                         CacheRefreshCoordinator cacheRefreshCoordinator,
+                                         MeterRegistry meterRegistry) {
+
+                // L1: short TTLs, bounded by weight (1 unit per entry + 1 per listed item or KB of a detail blob)
+                Map<String, TwoLevelCacheManager.LocalSpec> localSpecs = new HashMap<>();
+                localSpecs.put("newsList", new TwoLevelCacheManager.LocalSpec(Duration.ofSeconds(10), 50_000));
+                localSpecs.put("newsDetail", new TwoLevelCacheManager.LocalSpec(Duration.ofSeconds(30), 20_000));
+                localSpecs.put("categories", new TwoLevelCacheManager.LocalSpec(Duration.ofMinutes(2), 5_000));
+                localSpecs.put("tags", new TwoLevelCacheManager.LocalSpec(Duration.ofMinutes(2), 5_000));
+
+                Map<String, TwoLevelCacheManager.RefreshSpec> refreshSpecs = Map.of(
+                                "newsList", NEWS_LIST_REFRESH,
+                                "newsDetail", NEWS_DETAIL_REFRESH);
+
+                return new TwoLevelCacheManager(redisCacheManager(connectionFactory), localSpecs,
+                                new TwoLevelCacheManager.LocalSpec(Duration.ofSeconds(10), 10_000),
+                                cacheInvalidationPublisher, cacheTagIndex, refreshSpecs, cacheRefreshCoordinator,
+                                meterRegistry);
+        }
+
+        @Bean
+        // cacheInvalidationListener: drops L1 entries evicted on other nodes
+        public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                       CacheManager cacheManager) {
+                RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(connectionFactory);
+                if (cacheManager instanceof TwoLevelCacheManager twoLevel) {
+                        container.addMessageListener(
+                                        (message, pattern) -> twoLevel.onInvalidation(
+                                                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                                        new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+                }
+                return container;
+        }
+
+        @Bean
+        // tokenRevocationListener: revocations made on other nodes go into the local Bloom filter
+        public RedisMessageListenerContainer tokenRevocationListener(RedisConnectionFactory connectionFactory,
+                                                                     TokenRevocationService tokenRevocationService) {
+                RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(connectionFactory);
+                container.addMessageListener(tokenRevocationService, new ChannelTopic(TokenRevocationService.CHANNEL));
+                return container;
+        }
+
+        // redisCacheManager (L2)
+        private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
 
                 // Default configuration
                 RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
@@ -62,24 +151,30 @@ public class RedisConfig {
                 // Custom TTL per cache name
                 Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
 
-                // News list: 60 seconds
-                cacheConfigurations.put("newsList", defaultConfig.entryTtl(Duration.ofSeconds(60)));
+                // Public news/categories/tags are evicted by PublicCacheInvalidator on change,
+                // the TTLs are only a safety net
+
+                // News list: refreshed after 1 hour, served stale up to 10 more minutes
+                cacheConfigurations.put("newsList", defaultConfig.entryTtl(NEWS_LIST_REFRESH.redisTtl()));
 
-                // News detail: 120 seconds
-                cacheConfigurations.put("newsDetail", defaultConfig.entryTtl(Duration.ofSeconds(120)));
+                // News detail: refreshed after 6 hours, served stale up to 30 more minutes;
+                // the pre-rendered bytes are stored raw instead of as base64 JSON
+                cacheConfigurations.put("newsDetail", defaultConfig.entryTtl(NEWS_DETAIL_REFRESH.redisTtl())
+                                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                                                new NewsDetailBlobSerializer())));
 
-                // Categories: 5 minutes
-                cacheConfigurations.put("categories", defaultConfig.entryTtl(Duration.ofMinutes(5)));
+                // Categories: 12 hours
+                cacheConfigurations.put("categories", defaultConfig.entryTtl(Duration.ofHours(12)));
 
-                // Tags: 10 minutes
-                cacheConfigurations.put("tags", defaultConfig.entryTtl(Duration.ofMinutes(10)));
-                // Ads cache -
-                cacheConfigurations.put("publicAds", defaultConfig.entryTtl(Duration.ofSeconds(30)));
+                // Tags: 12 hours
+                cacheConfigurations.put("tags", defaultConfig.entryTtl(Duration.ofHours(12)));
 
-                return RedisCacheManager.builder(connectionFactory)
+                RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                                 .cacheDefaults(defaultConfig)
                                 .withInitialCacheConfigurations(cacheConfigurations)
                                 .build();
+                redisCacheManager.afterPropertiesSet();
+                return redisCacheManager;
         }
 
         // jsonRedisSerializer
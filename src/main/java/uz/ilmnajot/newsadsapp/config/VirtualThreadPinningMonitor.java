@@ -0,0 +1,107 @@
+package uz.ilmnajot.newsadsapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier, only in virtual-thread mode.
+ * <p>
+ * A virtual thread that blocks inside {@code synchronized} (or a native frame) keeps its carrier thread;
+ * with as many carriers as cores, a few of them stall every request. The JFR event
+ * {@code jdk.VirtualThreadPinned} is streamed in-process: every pin longer than
+ * {@code app.virtual-threads.pinned-threshold-ms} is timed in {@code jvm.threads.virtual.pinned} and the
+ * first occurrence of each call site is logged with its stack, later ones at debug.
+ * <p>
+ * For the same reason, locks that are held across I/O (the ad snapshot rebuild, the ad cap sync, the token
+ * revocation rebuild, the rate-limit override reload) are {@code ReentrantLock}s, not {@code synchronized}.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int FRAMES = 12;
+    private static final int MAX_SITES = 1000;
+    private static final String VIRTUAL_THREAD = "java.lang.VirtualThread";
+
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Virtual thread pinning monitor started, threshold {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        String site = site(event.getStackTrace());
+        // Bounded: a flood of distinct sites stops being logged at warn, the timer still counts them
+        if (reportedSites.size() < MAX_SITES && reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), site);
+        } else {
+            log.debug("Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " (no stack trace)";
+        }
+        // The parking frames of VirtualThread itself say nothing about the call site
+        return stackTrace.getFrames().stream()
+                .dropWhile(frame -> frame.getMethod().getType().getName().equals(VIRTUAL_THREAD))
+                .limit(FRAMES)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.joining());
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
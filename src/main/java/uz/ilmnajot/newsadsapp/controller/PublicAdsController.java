@@ -1,10 +1,13 @@
 package uz.ilmnajot.newsadsapp.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import uz.ilmnajot.newsadsapp.annotation.RateLimit;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+import uz.ilmnajot.newsadsapp.service.AdTrackingService;
 import uz.ilmnajot.newsadsapp.service.AdsAssignmentService;
 
 import java.util.concurrent.TimeUnit;
@@ -15,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 public class PublicAdsController {
 
     private final AdsAssignmentService adsAssignmentService;
+    private final AdTrackingService adTrackingService;
 
     @RateLimit(
             limit = 5,
@@ -22,12 +26,46 @@ public class PublicAdsController {
             timeUnit = TimeUnit.MINUTES,
             message = "Too many attempts"
     )
+    // Weighted pick per request: a shared or browser cache would freeze one creative and lose impressions
     @GetMapping("/{placementCode}")
     public ResponseEntity<ApiResponse> getAd(
             @PathVariable String placementCode,
             @RequestParam(defaultValue = "uz") String lang,
             @RequestParam(required = false) Long categoryId) {
         ApiResponse apiResponse= this.adsAssignmentService.findActiveAssignmentsByPlacement(placementCode, lang, categoryId);
-        return ResponseEntity.ok(apiResponse);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(apiResponse);
+    }
+
+    @RateLimit(
+            limit = 60,
+            duration = 1,
+            timeUnit = TimeUnit.MINUTES,
+            message = "Too many attempts"
+    )
+    // Impression beacon (navigator.sendBeacon / pixel) with the token of getAd's meta.trackingToken;
+    // always 204 so the page never waits on it
+    @RequestMapping(value = "/{assignmentId}/impression", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<Void> impression(@PathVariable Long assignmentId, @RequestParam String token) {
+        this.adTrackingService.recordImpression(assignmentId, token);
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .build();
+    }
+
+    @RateLimit(
+            limit = 20,
+            duration = 1,
+            timeUnit = TimeUnit.MINUTES,
+            message = "Too many attempts"
+    )
+    // Click redirect to the creative's landing URL, counted with the same token as the impression
+    @GetMapping("/{assignmentId}/click")
+    public ResponseEntity<Void> click(@PathVariable Long assignmentId, @RequestParam String token) {
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(this.adTrackingService.recordClick(assignmentId, token))
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .build();
     }
 }
@@ -4,25 +4,46 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import uz.ilmnajot.newsadsapp.annotation.RateLimit;
+import uz.ilmnajot.newsadsapp.cache.ContentGenerations;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
+import uz.ilmnajot.newsadsapp.filter.NewsCursor;
 import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.service.NewsSearchService;
 import uz.ilmnajot.newsadsapp.service.PublicNewsService;
+import uz.ilmnajot.newsadsapp.util.HttpCaching;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/public/news")
 @RequiredArgsConstructor
 public class PublicNewsController {
     private final PublicNewsService publicNewsService;
+    private final NewsSearchService newsSearchService;
+    private final ContentGenerations contentGenerations;
+    private final HttpCaching httpCaching;
 
     // Get public news list
 // GET /api/v1/public/news?lang=uz&page=0&size=10&category=1&tag=futbol
+// Infinite scroll: pass cursor (empty for the first page), then meta.next of the previous response
+// keyword pages are full-text searches (same results as /search, ranked), not available with cursor
 // PUBLIC NEWS SEARCH - 60 per minute
 // Allows more requests for public
+// The ETag is the version of the public news (bumped on every change): a matching If-None-Match
+// gets 304 before the cache or the database is asked
 
     @RateLimit(
             limit = 60,
@@ -31,7 +52,7 @@ public class PublicNewsController {
             message = "Too many requests"
     )
     @GetMapping
-    public ApiResponse getPublicNews(
+    public ResponseEntity<ApiResponse> getPublicNews(
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(defaultValue = "uz") String lang,
             @RequestParam(value = "tag", required = false) String tag,
@@ -39,7 +60,15 @@ public class PublicNewsController {
             @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String version = contentGenerations.current(ContentGenerations.NEWS);
+        String etag = HttpCaching.etag(version != null ? "n" + version : null);
+        if (HttpCaching.etagMatches(ifNoneMatch, etag)) {
+            return httpCaching.notModified(etag).build();
+        }
 
         NewsFilter filter = new NewsFilter();
         filter.setKeyword(keyword);
@@ -48,27 +77,128 @@ public class PublicNewsController {
         filter.setCategoryId(categoryId);
         filter.setFrom(from);
         filter.setTo(to);
-        return publicNewsService.getPublicNews(filter, PageRequest.of(page, size, Sort.by("publishAt").descending()));
+        ApiResponse response;
+        if (filter.getKeyword() != null) {
+            if (cursor != null) {
+                throw new BadRequestException("keyword cannot be combined with cursor, use /search");
+            }
+            response = newsSearchService.search(filter, page, size);
+        } else if (cursor != null) {
+            response = publicNewsService.getPublicNewsFeed(filter, cursor, NewsCursor.clampSize(size));
+        } else {
+            response = publicNewsService.getPublicNews(filter, PageRequest.of(page, size, Sort.by("publishAt").descending()));
+        }
+
+        if (version == null) {
+            contentGenerations.initialise(ContentGenerations.NEWS);
+        }
+        return httpCaching.ok(etag, HttpCaching.listKeys(categoryId, tag, newsIds(response))).body(response);
+    }
+
+    // Full-text search
+// GET /api/v1/public/news/search?q=futbol&lang=uz&page=0&size=10&categoryId=1&tag=sport
+    @RateLimit(
+            limit = 60,
+            duration = 1,
+            timeUnit = TimeUnit.MINUTES,
+            message = "Too many requests"
+    )
+    @GetMapping("/search")
+    public ApiResponse searchNews(
+            @RequestParam("q") String q,
+            @RequestParam(defaultValue = "uz") String lang,
+            @RequestParam(value = "tag", required = false) String tag,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        NewsFilter filter = new NewsFilter();
+        filter.setKeyword(q);
+        filter.setLang(lang);
+        filter.setTag(tag);
+        filter.setCategoryId(categoryId);
+        filter.setFrom(from);
+        filter.setTo(to);
+        return newsSearchService.search(filter, page, size);
     }
 
     // Get single news by slug
 // GET /api/v1/public/news/ozbekiston-qatarni-yengdi?lang=uz
+// The body is pre-rendered JSON (gzip when accepted); If-None-Match with the current ETag gets 304.
+// The ETag is the version of the article (content hash until it has one)
     @GetMapping("/{slug}")
-    public ApiResponse getNewsBySlug(
+    public ResponseEntity<byte[]> getNewsBySlug(
             @PathVariable String slug,
-            @RequestParam(defaultValue = "uz") String lang) {
-        return publicNewsService.getNewsBySlug(slug, lang);
+            @RequestParam(defaultValue = "uz") String lang,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean gzip = HttpCaching.acceptsGzip(acceptEncoding);
+        // The encodings are different representations, so they get different strong ETags
+        String encoding = gzip ? "-gz" : "";
+        String scope = ContentGenerations.detail(lang, slug);
+        String version = contentGenerations.current(scope, ContentGenerations.NEWS_META);
+        String etag = HttpCaching.etag(version != null ? "d" + version + encoding : null);
+        if (HttpCaching.etagMatches(ifNoneMatch, etag)) {
+            return httpCaching.notModified(etag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        NewsDetailBlob blob = publicNewsService.getNewsBySlug(slug, lang);
+        if (version == null) {
+            contentGenerations.initialise(scope, ContentGenerations.NEWS_META);
+            etag = HttpCaching.etag(blob.etag() + encoding);
+            if (HttpCaching.etagMatches(ifNoneMatch, etag)) {
+                return httpCaching.notModified(etag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+            }
+        }
+        ResponseEntity.BodyBuilder response = httpCaching.ok(etag, blob.surrogateKey())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(blob.gzip());
+        }
+        return response.body(blob.json());
     }
 
     @GetMapping("/categories")
-    public ApiResponse getPublicCategories(
-            @RequestParam(defaultValue = "uz") String lang) {
-        return publicNewsService.getPublicCategories(lang);
+    public ResponseEntity<ApiResponse> getPublicCategories(
+            @RequestParam(defaultValue = "uz") String lang,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(ContentGenerations.CATEGORIES, ifNoneMatch,
+                () -> publicNewsService.getPublicCategories(lang));
     }
 
     @GetMapping("/tags")
     // getPublicTags
-    public ApiResponse getPublicTags() {
-        return publicNewsService.getPublicTags();
+    public ResponseEntity<ApiResponse> getPublicTags(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(ContentGenerations.TAGS, ifNoneMatch, publicNewsService::getPublicTags);
+    }
+
+    // Categories and tags: one version and one surrogate key each
+    private ResponseEntity<ApiResponse> conditional(String scope, String ifNoneMatch, Supplier<ApiResponse> loader) {
+        String version = contentGenerations.current(scope);
+        String etag = HttpCaching.etag(version != null ? scope.charAt(0) + version : null);
+        if (HttpCaching.etagMatches(ifNoneMatch, etag)) {
+            return httpCaching.notModified(etag).build();
+        }
+        ApiResponse response = loader.get();
+        if (version == null) {
+            contentGenerations.initialise(scope);
+        }
+        return httpCaching.ok(etag, scope).body(response);
+    }
+
+    // Ids of the listed articles (the response may come from the cache)
+    private static List<Long> newsIds(ApiResponse response) {
+        if (!(response.getData() instanceof List<?> items)) {
+            return List.of();
+        }
+        return items.stream()
+                .map(item -> item instanceof NewsPublicResponse news ? news.getId()
+                        : item instanceof NewsSearchHit hit ? hit.getNewsId() : null)
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
@@ -79,10 +79,10 @@ public class AuthController {
         return authService.refreshToken(refreshToken);
     }
 
-    // need to ask if server side logout is needed
-    // if client-side logout is enough, then we don't need server side logout
+    // logout: revokes the access token of the request and the refresh token if it is passed
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
+    public ResponseEntity<Void> logout(@RequestParam(required = false) String refreshToken) {
+        this.authService.logout(refreshToken);
         return ResponseEntity.noContent().build();
     }
 
@@ -1,5 +1,6 @@
 package uz.ilmnajot.newsadsapp.controller.admin;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -8,6 +9,8 @@ import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.Media;
 import uz.ilmnajot.newsadsapp.service.MediaService;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api/v1/admin/media")
 @RequiredArgsConstructor
@@ -23,6 +26,16 @@ public class MediaController {
         return mediaService.uploadMedia(file);
     }
 
+    /**
+     * UPLOAD Media, streamed: the request body is the file itself (Content-Type of the file), for video and
+     * other large files. Nothing is buffered to disk.
+     * */
+    @PostMapping("/stream")
+    public ApiResponse uploadMediaStream(@RequestParam("filename") String filename,
+                                         HttpServletRequest request) throws IOException {
+        return mediaService.uploadMedia(request.getInputStream(), filename, request.getContentType());
+    }
+
     /**
      * DELETE Media
      * */
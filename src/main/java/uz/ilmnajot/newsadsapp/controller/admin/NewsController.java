@@ -12,6 +12,7 @@ import uz.ilmnajot.newsadsapp.dto.NewsCreateRequest;
 import uz.ilmnajot.newsadsapp.dto.NewsResponse;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.filter.NewsCursor;
 import uz.ilmnajot.newsadsapp.filter.NewsFilter;
 import uz.ilmnajot.newsadsapp.service.NewsService;
 
@@ -44,7 +45,8 @@ public class NewsController {
             @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam(value = "page", defaultValue = "0") Integer page,
-            @RequestParam(value = "size", defaultValue = "20") Integer size) {
+            @RequestParam(value = "size", defaultValue = "20") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         NewsFilter filter = new NewsFilter();
         filter.setKeyword(keyword);
         filter.setLang(lang);
@@ -56,6 +58,10 @@ public class NewsController {
         filter.setDeleted(isDeleted);
         filter.setFrom(from);
         filter.setTo(to);
+        // cursor present (empty for the first page) = keyset mode, the next cursor is in meta.next
+        if (cursor != null) {
+            return this.newsService.getNewsFeed(filter, cursor, NewsCursor.clampSize(size));
+        }
         return this.newsService.getNews(PageRequest.of(page, size), filter);
     }
 
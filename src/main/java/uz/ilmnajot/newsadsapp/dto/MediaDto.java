@@ -0,0 +1,22 @@
+package uz.ilmnajot.newsadsapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class MediaDto {
+    private Long id;
+    private String storageKey;
+    private String url;
+    private String mimeType;
+    private Long size;
+    private Integer width;
+    private Integer height;
+    private UUID ownerId;
+    private Boolean isPublic;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,6 @@
+package uz.ilmnajot.newsadsapp.dto;
+
+// Pre-rendered body of the public news detail endpoint: plain and gzip encoded JSON plus a content hash
+// and the CDN surrogate keys of the article
+public record NewsDetailBlob(String etag, String surrogateKey, byte[] json, byte[] gzip) {
+}
@@ -0,0 +1,27 @@
+package uz.ilmnajot.newsadsapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One keyword search result: the matching translation with a highlighted snippet
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsSearchHit {
+
+    private Long newsId;
+    private String title;
+    private String slug;
+
+    // Matched words wrapped in <mark>...</mark>
+    private String snippet;
+
+    private Double score;
+    private Long categoryId;
+    private LocalDateTime publishedAt;
+}
@@ -2,6 +2,7 @@ package uz.ilmnajot.newsadsapp.dto;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.Data;
 import uz.ilmnajot.newsadsapp.entity.Role;
@@ -30,9 +31,11 @@ public class UserDto {
     public static class LoginDto {
 
         @NotBlank(message = "Username is required")
+        @Size(max = 50, message = "Username must be at most 50 characters")
         private String username;
 
         @NotBlank(message = "Password is required")
+        @Size(max = 128, message = "Password must be at most 128 characters")
         private String password;
 
     }
@@ -0,0 +1,50 @@
+package uz.ilmnajot.newsadsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Impressions/clicks of one campaign/creative/placement within one minute (written by AdEventPipeline)
+@Entity
+@Table(name = "ads_stat_minute")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdsStatMinute {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long impressions = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long clicks = 0L;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "bucket_start", nullable = false)
+        private LocalDateTime bucketStart;
+
+        @Column(name = "campaign_id", nullable = false)
+        private Long campaignId;
+
+        @Column(name = "creative_id", nullable = false)
+        private Long creativeId;
+
+        @Column(name = "placement_id", nullable = false)
+        private Long placementId;
+    }
+}
@@ -0,0 +1,5 @@
+package uz.ilmnajot.newsadsapp.enums;
+
+public enum AdEventType {
+    IMPRESSION, CLICK
+}
@@ -0,0 +1,15 @@
+package uz.ilmnajot.newsadsapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+// Set of campaigns that reached a daily cap changed
+@Getter
+@ToString
+@AllArgsConstructor
+public class AdCapsChangedEvent {
+    private final Set<Long> cappedCampaignIds;
+}
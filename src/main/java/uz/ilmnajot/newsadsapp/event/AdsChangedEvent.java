@@ -0,0 +1,17 @@
+package uz.ilmnajot.newsadsapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Published by the ads admin services whenever an assignment, campaign, creative or placement changes
+@Getter
+@ToString
+@AllArgsConstructor
+public class AdsChangedEvent {
+
+    // ASSIGNMENT, CAMPAIGN, CREATIVE, PLACEMENT
+    private final String entity;
+
+    private final Long id;
+}
@@ -0,0 +1,14 @@
+package uz.ilmnajot.newsadsapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CategoryChangedEvent {
+    private final Long categoryId;
+    // false when only a new category was added (existing news are not affected)
+    private final boolean affectsNews;
+}
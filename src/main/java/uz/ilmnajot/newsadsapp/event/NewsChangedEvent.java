@@ -0,0 +1,40 @@
+package uz.ilmnajot.newsadsapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
+import uz.ilmnajot.newsadsapp.entity.Tag;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// A news article changed in a way public readers can see (create, status, delete, restore, scheduler)
+@Getter
+@ToString
+@AllArgsConstructor
+public class NewsChangedEvent {
+
+    private final Long newsId;
+    // lang -> slug of every translation
+    private final Map<String, String> slugsByLang;
+    private final Long categoryId;
+    private final Set<String> tagCodes;
+
+    // Must be called inside the transaction, translations and tags are lazy
+    public static NewsChangedEvent of(News news) {
+        Map<String, String> slugs = new HashMap<>();
+        if (news.getTranslations() != null) {
+            for (NewsTranslation translation : news.getTranslations()) {
+                slugs.put(translation.getLang(), translation.getSlug());
+            }
+        }
+        Set<String> tags = news.getTags() == null ? Set.of()
+                : news.getTags().stream().map(Tag::getCode).collect(Collectors.toUnmodifiableSet());
+        return new NewsChangedEvent(news.getId(), Map.copyOf(slugs),
+                news.getCategory() != null ? news.getCategory().getId() : null, tags);
+    }
+}
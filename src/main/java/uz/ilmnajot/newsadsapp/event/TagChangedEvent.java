@@ -0,0 +1,14 @@
+package uz.ilmnajot.newsadsapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class TagChangedEvent {
+    private final Long tagId;
+    // false when only a new tag was added (existing news are not affected)
+    private final boolean affectsNews;
+}
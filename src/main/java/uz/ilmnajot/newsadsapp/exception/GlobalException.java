@@ -3,6 +3,7 @@ package uz.ilmnajot.newsadsapp.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -115,4 +116,19 @@ public class GlobalException {
 
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
     }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    // handleServiceBusy
+    public ResponseEntity<ApiResponse> handleServiceBusy(ServiceBusyException ex) {
+
+        ApiResponse response = ApiResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE)  // 503
+                .message(ex.getMessage())
+                .data(null)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
 }
@@ -0,0 +1,89 @@
+package uz.ilmnajot.newsadsapp.filter;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a news feed ordered by (publishAt DESC NULLS LAST, id DESC).
+ * <p>
+ * The feed is read in two zones: first the dated rows by (publishAt, id), then the rows without
+ * publishAt by id. A cursor with a null publishAt points into the second zone. On the wire the
+ * cursor is an opaque base64url string; a missing or blank cursor means {@link #START}.
+ */
+public record NewsCursor(LocalDateTime publishAt, long id) {
+
+    // Before the first row; upper bounds instead of nulls keep the keyset condition free of "IS NULL OR" branches
+    public static final NewsCursor START = new NewsCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    // Largest feed page, the same as for the full-text search
+    public static final int MAX_SIZE = 50;
+
+    private static final String UNDATED = "-";
+
+    // clampSize: feed sizes out of 1..MAX_SIZE are pulled into the range
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    // of
+    public static NewsCursor of(News news) {
+        return new NewsCursor(news.getPublishAt(), news.getId());
+    }
+
+    // decode
+    public static NewsCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            String at = raw.substring(0, sep);
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new NewsCursor(UNDATED.equals(at) ? null : LocalDateTime.parse(at), id);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // encode
+    public String encode() {
+        String raw = (publishAt != null ? publishAt.toString() : UNDATED) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Whether the dated zone still has rows after this cursor
+    public boolean dated() {
+        return publishAt != null;
+    }
+
+    // Id bound for the undated zone (entering it from the dated zone starts from the top)
+    public long undatedIdBound() {
+        return publishAt == null ? id : Long.MAX_VALUE;
+    }
+
+    // Dated rows strictly after the cursor; "publishAt <= bound" keeps the condition index-seekable
+    public Specification<News> datedAfter() {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> path = root.get("publishAt");
+            return cb.and(
+                    cb.isNotNull(path),
+                    cb.lessThanOrEqualTo(path, publishAt),
+                    cb.or(cb.lessThan(path, publishAt), cb.lessThan(root.get("id"), id)));
+        };
+    }
+
+    // Undated rows strictly after the cursor
+    public Specification<News> undatedAfter() {
+        long bound = undatedIdBound();
+        return (root, query, cb) -> cb.and(
+                cb.isNull(root.get("publishAt")),
+                cb.lessThan(root.get("id"), bound));
+    }
+}
@@ -0,0 +1,26 @@
+package uz.ilmnajot.newsadsapp.mapper;
+
+import org.springframework.stereotype.Component;
+import uz.ilmnajot.newsadsapp.dto.MediaDto;
+import uz.ilmnajot.newsadsapp.entity.Media;
+
+@Component
+public class MediaMapper {
+
+    // toDto: only the owner id, the owner is usually an uninitialized reference
+    public MediaDto toDto(Media media) {
+        return MediaDto
+                .builder()
+                .id(media.getId())
+                .storageKey(media.getStorageKey())
+                .url(media.getUrl())
+                .mimeType(media.getMimeType())
+                .size(media.getSize())
+                .width(media.getWidth())
+                .height(media.getHeight())
+                .ownerId(media.getOwner() != null ? media.getOwner().getId() : null)
+                .isPublic(media.getIsPublic())
+                .createdAt(media.getCreatedAt())
+                .build();
+    }
+}
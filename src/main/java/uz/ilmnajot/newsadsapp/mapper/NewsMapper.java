@@ -1,9 +1,7 @@
 package uz.ilmnajot.newsadsapp.mapper;
 
 import org.springframework.stereotype.Component;
-import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
 import uz.ilmnajot.newsadsapp.dto.NewsResponse;
-import uz.ilmnajot.newsadsapp.entity.CategoryTranslation;
 import uz.ilmnajot.newsadsapp.entity.News;
 import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
 import uz.ilmnajot.newsadsapp.entity.Tag;
@@ -65,58 +63,4 @@ public class NewsMapper {
                 .map(this::toDto)
                 .toList();
     }
-
-
-    // Map to public DTO (faqat 1 ta til)
-    public NewsPublicResponse toPublicDto(News news, String lang) {
-
-        // Get translation for requested language
-        NewsTranslation translation = news.getTranslations().stream()
-                .filter(t -> t.getLang().equals(lang))
-                .findFirst()
-                .orElse(null);
-
-        if (translation == null) {
-            return null;  // Translation not found
-        }
-
-        return NewsPublicResponse.builder()
-                .id(news.getId())
-                .title(translation.getTitle())
-                .slug(translation.getSlug())
-                .summary(translation.getSummary())
-                .content(translation.getContent())
-                .metaTitle(translation.getMetaTitle())
-                .metaDescription(translation.getMetaDescription())
-                .coverImageUrl(news.getCoverMedia() != null ? news.getCoverMedia().getUrl() : null)
-                .categoryId(news.getCategory() != null ? news.getCategory().getId() : null)
-                .categoryTitle(getCategoryTitle(news, lang))
-                .categorySlug(getCategorySlug(news, lang))
-                .tags(news.getTags().stream()
-                        .map(Tag::getCode)
-                        .collect(Collectors.toSet()))
-                .isFeatured(news.getIsFeatured())
-                .publishedAt(news.getPublishAt() != null ? news.getPublishAt() : news.getCreatedAt())
-                .build();
-    }
-
-    // getCategoryTitle
-    private String getCategoryTitle(News news, String lang) {
-        if (news.getCategory() == null) return null;
-        return news.getCategory().getTranslations().stream()
-                .filter(t -> t.getLang().equals(lang))
-                .findFirst()
-                .map(CategoryTranslation::getTitle)
-                .orElse(null);
-    }
-
-    // getCategorySlug
-    private String getCategorySlug(News news, String lang) {
-        if (news.getCategory() == null) return null;
-        return news.getCategory().getTranslations().stream()
-                .filter(t -> t.getLang().equals(lang))
-                .findFirst()
-                .map(CategoryTranslation::getSlug)
-                .orElse(null);
-    }
 }
@@ -22,6 +22,15 @@ public interface AdsAssignmentRepository extends JpaRepository<AdsAssignment, Lo
     List<AdsAssignment> findActiveAssignmentsByPlacement(@Param("placementCode") String placementCode,
                                                           @Param("now") LocalDateTime now);
     
+    // Everything the ad decision engine may serve now or later; start dates are evaluated in memory
+    @Query("SELECT a FROM AdsAssignment a " +
+           "JOIN FETCH a.placement p JOIN FETCH a.campaign c JOIN FETCH a.creative cr " +
+           "WHERE a.isActive = true AND p.isActive = true " +
+           "AND c.status = 'ACTIVE' AND cr.isActive = true " +
+           "AND (a.endAt IS NULL OR a.endAt > :now) " +
+           "AND (c.endAt IS NULL OR c.endAt > :now)")
+    List<AdsAssignment> findServableAssignments(@Param("now") LocalDateTime now);
+
     List<AdsAssignment> findByPlacementId(Long placementId);
     List<AdsAssignment> findByCampaignId(Long campaignId);
 
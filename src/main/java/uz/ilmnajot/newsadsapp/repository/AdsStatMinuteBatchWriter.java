@@ -0,0 +1,11 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import uz.ilmnajot.newsadsapp.entity.AdsStatMinute;
+
+import java.util.Collection;
+
+public interface AdsStatMinuteBatchWriter {
+
+    // Add the given counters to the stored rows (insert or increment)
+    void upsertIncrements(Collection<AdsStatMinute> increments);
+}
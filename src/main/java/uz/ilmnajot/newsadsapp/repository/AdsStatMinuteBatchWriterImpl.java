@@ -0,0 +1,37 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import uz.ilmnajot.newsadsapp.entity.AdsStatMinute;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+// Plain JDBC batch: one round-trip per batch instead of a select + update per counter row
+@RequiredArgsConstructor
+public class AdsStatMinuteBatchWriterImpl implements AdsStatMinuteBatchWriter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO ads_stat_minute (bucket_start, campaign_id, creative_id, placement_id, impressions, clicks) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (bucket_start, campaign_id, creative_id, placement_id) DO UPDATE SET " +
+            "impressions = ads_stat_minute.impressions + EXCLUDED.impressions, " +
+            "clicks = ads_stat_minute.clicks + EXCLUDED.clicks";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertIncrements(Collection<AdsStatMinute> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, increments, increments.size(), (ps, row) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(row.getId().getBucketStart()));
+            ps.setLong(2, row.getId().getCampaignId());
+            ps.setLong(3, row.getId().getCreativeId());
+            ps.setLong(4, row.getId().getPlacementId());
+            ps.setLong(5, row.getImpressions());
+            ps.setLong(6, row.getClicks());
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import uz.ilmnajot.newsadsapp.entity.AdsStatMinute;
+
+@Repository
+public interface AdsStatMinuteRepository extends JpaRepository<AdsStatMinute, AdsStatMinute.Key>, AdsStatMinuteBatchWriter {
+}
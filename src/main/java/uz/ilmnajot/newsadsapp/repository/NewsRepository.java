@@ -1,5 +1,6 @@
 package uz.ilmnajot.newsadsapp.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -58,62 +59,27 @@ public interface NewsRepository extends JpaRepository<News, Long>, JpaSpecificat
     List<News> findNewsToUnpublish(@Param("status") NewsStatus status,
                                    @Param("now") LocalDateTime now);
 
+    // Already PUBLISHED news whose publish time was reached in (from, to]
+    @Query("SELECT n FROM News n WHERE n.status = :status " +
+            "AND n.publishAt > :from AND n.publishAt <= :to and n.isDeleted=false")
+    List<News> findNewsPublishAtBetween(@Param("status") NewsStatus status,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
     Optional<News> findByIdAndIsDeletedFalse(Long id);
 
-    /**
-     * PUBLIC: Get news list with filters
-     * Problem: Pagination + JOIN FETCH ishlamaydi!
-     * Solution: 2-step query
-     */
-
-    // Step 1: Get IDs with pagination
-    @Query("""
-            SELECT DISTINCT n.id
-            FROM News n
-            LEFT JOIN n.translations nt
-            LEFT JOIN n.tags tag
-            WHERE n.status = 'PUBLISHED'
-            AND n.isDeleted = false
-            AND (n.publishAt IS NULL OR n.publishAt <= :now)
-            AND (n.unpublishAt IS NULL OR n.unpublishAt > :now)
-            AND (:lang IS NULL OR nt.lang = :lang)
-            AND (:categoryId IS NULL OR n.category.id = :categoryId)
-            AND (:tag IS NULL OR tag.code = :tag) order by n.id, n.publishAt desc
-            """)
-    Page<Long> findPublicNewsIds(
-            @Param("lang") String lang,
-            @Param("categoryId") Long categoryId,
-            @Param("tag") String tag,
-            @Param("now") LocalDateTime now,
-            Pageable pageable
-    );
-
-
-    // Step 2: Fetch news by IDs with JOIN FETCH
+    // Search index rebuild: public news IDs after the given one, in ID order
+    @Query("SELECT n.id FROM News n WHERE n.status = 'PUBLISHED' AND n.isDeleted = false " +
+            "AND n.id > :afterId ORDER BY n.id")
+    List<Long> findIndexableNewsIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Fetch news with translations, tags, category and cover in one query (order is restored by the caller)
     @Query("SELECT DISTINCT n FROM News n " +
             "LEFT JOIN FETCH n.translations " +
             "LEFT JOIN FETCH n.tags " +
             "LEFT JOIN FETCH n.category " +
             "LEFT JOIN FETCH n.coverMedia " +
-            "WHERE n.id IN :ids " +
-            "ORDER BY n.publishAt DESC")
+            "WHERE n.id IN :ids")
     List<News> findNewsByIds(@Param("ids") List<Long> ids);
-
-    /**
-     * PUBLIC: Get single news by slug
-     */
-    @Query("SELECT n FROM News n " +
-            "JOIN n.translations nt " +
-            "WHERE nt.slug = :slug " +
-            "AND nt.lang = :lang " +
-            "AND n.status = 'PUBLISHED' " +
-            "AND n.isDeleted = false " +
-            "AND (n.publishAt IS NULL OR n.publishAt <= :now) " +
-            "AND (n.unpublishAt IS NULL OR n.unpublishAt > :now)")
-    Optional<News> findPublicNewsBySlug(
-            @Param("slug") String slug,
-            @Param("lang") String lang,
-            @Param("now") LocalDateTime now
-    );
 }
 
@@ -0,0 +1,13 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NewsTranslationFullTextSearch {
+
+    // Published translations matching filter.keyword in filter.lang, best matches first
+    List<NewsSearchHit> searchPublished(NewsFilter filter, LocalDateTime now, int offset, int limit);
+}
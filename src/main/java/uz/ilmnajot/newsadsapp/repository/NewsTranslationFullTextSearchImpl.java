@@ -0,0 +1,131 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.jsoup.parser.Parser;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.util.HtmlSanitizer;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Postgres full-text search over news_translation.search_vector (see V5 migration).
+ * <p>
+ * Only the filters that are present are added to the SQL, so every combination gets its own plan
+ * instead of one generic plan full of "IS NULL OR" branches. Ranking runs on the GIN matches,
+ * snippets (ts_headline re-parses the text) are built only for the returned page.
+ * <p>
+ * Summary and content are stored as (sanitized) HTML and ts_headline copies tags into its output,
+ * so the snippet is built from the text with the tags removed and then HTML-escaped; only the
+ * {@code <mark>} pairs of ts_headline are left as markup.
+ */
+@RequiredArgsConstructor
+public class NewsTranslationFullTextSearchImpl implements NewsTranslationFullTextSearch {
+
+    private static final String MARK = "<mark>";
+    private static final String UNMARK = "</mark>";
+    private static final String HEADLINE_OPTIONS =
+            "MaxFragments=2, MinWords=8, MaxWords=24, StartSel=" + MARK + ", StopSel=" + UNMARK;
+    private static final Pattern SELECTION = Pattern.compile(MARK + "|" + UNMARK);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<NewsSearchHit> searchPublished(NewsFilter filter, LocalDateTime now, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lang", filter.getLang(), Types.VARCHAR)
+                .addValue("q", filter.getKeyword(), Types.VARCHAR)
+                .addValue("now", Timestamp.valueOf(now), Types.TIMESTAMP)
+                .addValue("offset", offset, Types.INTEGER)
+                .addValue("limit", limit, Types.INTEGER)
+                .addValue("headline", HEADLINE_OPTIONS, Types.VARCHAR);
+
+        StringBuilder where = new StringBuilder("""
+                nt.lang = :lang
+                AND nt.search_vector @@ q.query
+                AND n.status = 'PUBLISHED'
+                AND n.is_deleted = false
+                AND (n.publish_at IS NULL OR n.publish_at <= :now)
+                AND (n.unpublish_at IS NULL OR n.unpublish_at > :now)
+                """);
+        if (filter.getCategoryId() != null) {
+            where.append(" AND n.category_id = :categoryId");
+            params.addValue("categoryId", filter.getCategoryId(), Types.BIGINT);
+        }
+        if (filter.getFrom() != null) {
+            where.append(" AND n.publish_at >= :from");
+            params.addValue("from", Timestamp.valueOf(filter.getFrom().atStartOfDay()), Types.TIMESTAMP);
+        }
+        if (filter.getTo() != null) {
+            where.append(" AND n.publish_at < :to");
+            params.addValue("to", Timestamp.valueOf(filter.getTo().plusDays(1).atStartOfDay()), Types.TIMESTAMP);
+        }
+        if (filter.getTag() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM news_tag ntg JOIN tag t ON t.id = ntg.tag_id"
+                    + " WHERE ntg.news_id = n.id AND t.code = :tag)");
+            params.addValue("tag", filter.getTag(), Types.VARCHAR);
+        }
+
+        String sql = """
+                SELECT hit.news_id, hit.title, hit.slug, hit.score, hit.category_id, hit.publish_at,
+                       ts_headline(news_search_config(:lang),
+                                   regexp_replace(coalesce(hit.summary, '') || ' ' || coalesce(hit.content, ''),
+                                                  '<[^>]*>', ' ', 'g'),
+                                   hit.query, :headline) AS snippet
+                FROM (
+                    SELECT nt.news_id, nt.title, nt.slug, nt.summary, nt.content,
+                           n.category_id, n.publish_at, n.id, q.query,
+                           ts_rank_cd(nt.search_vector, q.query) AS score
+                    FROM news_translation nt
+                    JOIN news n ON n.id = nt.news_id
+                    CROSS JOIN websearch_to_tsquery(news_search_config(:lang), :q) AS q(query)
+                    WHERE %s
+                    ORDER BY score DESC, n.publish_at DESC NULLS LAST, n.id DESC
+                    LIMIT :limit OFFSET :offset
+                ) hit
+                ORDER BY hit.score DESC, hit.publish_at DESC NULLS LAST, hit.id DESC
+                """.formatted(where);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            Timestamp publishAt = rs.getTimestamp("publish_at");
+            long categoryId = rs.getLong("category_id");
+            boolean noCategory = rs.wasNull();
+            return NewsSearchHit.builder()
+                    .newsId(rs.getLong("news_id"))
+                    .title(rs.getString("title"))
+                    .slug(rs.getString("slug"))
+                    .snippet(safeSnippet(rs.getString("snippet")))
+                    .score(rs.getDouble("score"))
+                    .categoryId(noCategory ? null : categoryId)
+                    .publishedAt(publishAt != null ? publishAt.toLocalDateTime() : null)
+                    .build();
+        });
+    }
+
+    // safeSnippet: the text between the selections is entity-decoded and escaped again, so "<" left over from
+    // the tag removal (no closing ">") and "&lt;script&gt;" typed by an editor both come out as text
+    static String safeSnippet(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(headline.length() + 32);
+        Matcher selection = SELECTION.matcher(headline);
+        int start = 0;
+        while (selection.find()) {
+            out.append(escapeText(headline.substring(start, selection.start()))).append(selection.group());
+            start = selection.end();
+        }
+        return out.append(escapeText(headline.substring(start))).toString();
+    }
+
+    private static String escapeText(String text) {
+        return HtmlSanitizer.escape(Parser.unescapeEntities(text, false));
+    }
+}
@@ -9,7 +9,7 @@ import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
 import java.util.Optional;
 
 @Repository
-public interface NewsTranslationRepository extends JpaRepository<NewsTranslation, Long> {
+public interface NewsTranslationRepository extends JpaRepository<NewsTranslation, Long>, NewsTranslationFullTextSearch {
     Optional<NewsTranslation> findByNewsIdAndLang(Long newsId, String lang);
     Optional<NewsTranslation> findBySlugAndLang(String slug, String lang);
     boolean existsBySlugAndLang(String slug, String lang);
@@ -0,0 +1,57 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
+import uz.ilmnajot.newsadsapp.filter.NewsCursor;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// public_news_view: the denormalized read model behind the public news API (see V7 migration)
+public interface PublicNewsViewRepository {
+
+    // One page of live news in filter.lang, newest first
+    List<NewsPublicResponse> findPage(NewsFilter filter, LocalDateTime now, long offset, int limit);
+
+    // count
+    long count(NewsFilter filter, LocalDateTime now);
+
+    // Up to limit live news after the cursor; next is null on the last page
+    FeedPage findFeed(NewsFilter filter, LocalDateTime now, NewsCursor after, int limit);
+
+    // findBySlug
+    Optional<NewsPublicResponse> findBySlug(String slug, String lang, LocalDateTime now);
+
+    // Pre-rendered detail body; empty when the article is not live or its blobs are not rendered yet
+    Optional<NewsDetailBlob> findDetailBlob(String slug, String lang, LocalDateTime now);
+
+    // Rows whose detail blobs were reset by a refresh
+    List<PendingDetail> findUnrendered(int limit);
+
+    // Stores the blobs unless the row was refreshed (reset) again in the meantime
+    void saveDetailBlobs(List<RenderedDetail> details);
+
+    // Re-derive the rows of the given news from the write tables (removes them when no longer public)
+    void refresh(Collection<Long> newsIds);
+
+    // refreshCategory
+    void refreshCategory(Long categoryId);
+
+    // refreshTag
+    void refreshTag(Long tagId);
+
+    // Rebuild the whole table (repairs drift after manual SQL on the write tables)
+    void refreshAll();
+
+    record FeedPage(List<NewsPublicResponse> news, NewsCursor next) {
+    }
+
+    record PendingDetail(long newsId, String lang, NewsPublicResponse news) {
+    }
+
+    record RenderedDetail(long newsId, String lang, NewsDetailBlob blob) {
+    }
+}
@@ -0,0 +1,285 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
+import uz.ilmnajot.newsadsapp.filter.NewsCursor;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.util.HttpCaching;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JDBC access to public_news_view.
+ * <p>
+ * Reads are single-table: the status and delete flags are already applied by the row being there,
+ * only the publish window and the request filters remain. As in the full-text search, only the
+ * filters that are present go into the SQL. Keyword queries are answered by the full-text search
+ * ({@code NewsSearchService}): no index of this table could serve a substring match.
+ * <p>
+ * Writes re-derive rows from news, news_translation, news_tag, tag, category_translation and media
+ * with one INSERT ... SELECT, so the mapping lives in {@link #SELECT_PUBLIC_ROWS} only.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PublicNewsViewRepositoryImpl implements PublicNewsViewRepository {
+
+    private static final String DEFAULT_LANG = "uz";
+
+    private static final String COLUMNS = """
+            news_id, lang, title, slug, summary, content, meta_title, meta_description, cover_url,
+            category_id, category_title, category_slug, tags, is_featured, publish_at, unpublish_at, published_at""";
+
+    // Same projection as the V7 backfill
+    private static final String SELECT_PUBLIC_ROWS = """
+            SELECT n.id, t.lang, t.title, t.slug, t.summary, t.content, t.meta_title, t.meta_description,
+                   m.url, n.category_id, ct.title, ct.slug,
+                   ARRAY(SELECT tg.code FROM news_tag ntg JOIN tag tg ON tg.id = ntg.tag_id
+                         WHERE ntg.news_id = n.id ORDER BY tg.code),
+                   n.is_featured, n.publish_at, n.unpublish_at, COALESCE(n.publish_at, n.created_at)
+            FROM news n
+            JOIN news_translation t ON t.news_id = n.id
+            LEFT JOIN media m ON m.id = n.cover_media_id
+            LEFT JOIN category_translation ct ON ct.category_id = n.category_id AND ct.lang = t.lang
+            WHERE n.status = 'PUBLISHED' AND n.is_deleted = false
+            """;
+
+    // Concurrent refreshes of one article must not collide on the primary key
+    private static final String UPSERT = """
+            ON CONFLICT (news_id, lang) DO UPDATE SET
+                title = EXCLUDED.title, slug = EXCLUDED.slug, summary = EXCLUDED.summary,
+                content = EXCLUDED.content, meta_title = EXCLUDED.meta_title,
+                meta_description = EXCLUDED.meta_description, cover_url = EXCLUDED.cover_url,
+                category_id = EXCLUDED.category_id, category_title = EXCLUDED.category_title,
+                category_slug = EXCLUDED.category_slug, tags = EXCLUDED.tags, is_featured = EXCLUDED.is_featured,
+                publish_at = EXCLUDED.publish_at, unpublish_at = EXCLUDED.unpublish_at,
+                published_at = EXCLUDED.published_at,
+                detail_json = NULL, detail_gzip = NULL, detail_etag = NULL
+            """;
+
+    private static final String ORDER = " ORDER BY publish_at DESC NULLS LAST, news_id DESC";
+
+    private static final RowMapper<NewsPublicResponse> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp publishedAt = rs.getTimestamp("published_at");
+        long categoryId = rs.getLong("category_id");
+        boolean noCategory = rs.wasNull();
+        Array tags = rs.getArray("tags");
+        return NewsPublicResponse.builder()
+                .id(rs.getLong("news_id"))
+                .title(rs.getString("title"))
+                .slug(rs.getString("slug"))
+                .summary(rs.getString("summary"))
+                .content(rs.getString("content"))
+                .metaTitle(rs.getString("meta_title"))
+                .metaDescription(rs.getString("meta_description"))
+                .coverImageUrl(rs.getString("cover_url"))
+                .categoryId(noCategory ? null : categoryId)
+                .categoryTitle(rs.getString("category_title"))
+                .categorySlug(rs.getString("category_slug"))
+                .tags(tags != null ? Set.of((String[]) tags.getArray()) : Set.of())
+                .isFeatured(rs.getObject("is_featured", Boolean.class))
+                .publishedAt(publishedAt != null ? publishedAt.toLocalDateTime() : null)
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<NewsPublicResponse> findPage(NewsFilter filter, LocalDateTime now, long offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT " + COLUMNS + " FROM public_news_view WHERE " + where(filter, now, params)
+                + ORDER + " LIMIT :limit OFFSET :offset";
+        params.addValue("limit", limit, Types.INTEGER)
+                .addValue("offset", offset, Types.BIGINT);
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    @Override
+    public long count(NewsFilter filter, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) FROM public_news_view WHERE " + where(filter, now, params);
+        Long count = jdbcTemplate.queryForObject(sql, params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public FeedPage findFeed(NewsFilter filter, LocalDateTime now, NewsCursor after, int limit) {
+        // Rows carry the raw publish_at for the next cursor; one extra row tells whether there is a next page
+        List<FeedRow> rows = new ArrayList<>(limit + 1);
+        if (after.dated()) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            String sql = "SELECT " + COLUMNS + " FROM public_news_view WHERE " + where(filter, now, params)
+                    + " AND publish_at IS NOT NULL AND publish_at <= :cursorAt"
+                    + " AND (publish_at < :cursorAt OR news_id < :cursorId)"
+                    + ORDER + " LIMIT :limit";
+            params.addValue("cursorAt", Timestamp.valueOf(after.publishAt()), Types.TIMESTAMP)
+                    .addValue("cursorId", after.id(), Types.BIGINT)
+                    .addValue("limit", limit + 1, Types.INTEGER);
+            rows.addAll(jdbcTemplate.query(sql, params, FeedRow.MAPPER));
+        }
+        if (rows.size() <= limit) {
+            // Dated rows are exhausted, continue with the undated ones (NULLS LAST)
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            String sql = "SELECT " + COLUMNS + " FROM public_news_view WHERE " + where(filter, now, params)
+                    + " AND publish_at IS NULL AND news_id < :cursorId"
+                    + ORDER + " LIMIT :limit";
+            params.addValue("cursorId", after.undatedIdBound(), Types.BIGINT)
+                    .addValue("limit", limit + 1 - rows.size(), Types.INTEGER);
+            rows.addAll(jdbcTemplate.query(sql, params, FeedRow.MAPPER));
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<FeedRow> page = hasNext ? rows.subList(0, limit) : rows;
+        FeedRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return new FeedPage(
+                page.stream().map(FeedRow::news).toList(),
+                hasNext && last != null ? new NewsCursor(last.publishAt(), last.news().getId()) : null);
+    }
+
+    @Override
+    public Optional<NewsPublicResponse> findBySlug(String slug, String lang, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("slug", slug, Types.VARCHAR)
+                .addValue("lang", lang, Types.VARCHAR)
+                .addValue("now", Timestamp.valueOf(now), Types.TIMESTAMP);
+        String sql = "SELECT " + COLUMNS + " FROM public_news_view WHERE slug = :slug AND lang = :lang"
+                + " AND (publish_at IS NULL OR publish_at <= :now)"
+                + " AND (unpublish_at IS NULL OR unpublish_at > :now)";
+        return jdbcTemplate.query(sql, params, ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public Optional<NewsDetailBlob> findDetailBlob(String slug, String lang, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("slug", slug, Types.VARCHAR)
+                .addValue("lang", lang, Types.VARCHAR)
+                .addValue("now", Timestamp.valueOf(now), Types.TIMESTAMP);
+        String sql = "SELECT news_id, category_id, tags, detail_etag, detail_json, detail_gzip FROM public_news_view"
+                + " WHERE slug = :slug AND lang = :lang AND detail_etag IS NOT NULL"
+                + " AND (publish_at IS NULL OR publish_at <= :now)"
+                + " AND (unpublish_at IS NULL OR unpublish_at > :now)";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+                    Array tags = rs.getArray("tags");
+                    String surrogateKey = HttpCaching.newsKeys(rs.getLong("news_id"),
+                            rs.getObject("category_id", Long.class),
+                            tags != null ? List.of((String[]) tags.getArray()) : List.of());
+                    return new NewsDetailBlob(rs.getString("detail_etag"), surrogateKey,
+                            rs.getBytes("detail_json"), rs.getBytes("detail_gzip"));
+                })
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<PendingDetail> findUnrendered(int limit) {
+        String sql = "SELECT " + COLUMNS + " FROM public_news_view WHERE detail_etag IS NULL LIMIT :limit";
+        return jdbcTemplate.query(sql, new MapSqlParameterSource().addValue("limit", limit, Types.INTEGER),
+                (rs, rowNum) -> new PendingDetail(rs.getLong("news_id"), rs.getString("lang"),
+                        ROW_MAPPER.mapRow(rs, rowNum)));
+    }
+
+    @Override
+    public void saveDetailBlobs(List<RenderedDetail> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] batch = details.stream()
+                .map(detail -> new MapSqlParameterSource()
+                        .addValue("newsId", detail.newsId(), Types.BIGINT)
+                        .addValue("lang", detail.lang(), Types.VARCHAR)
+                        .addValue("etag", detail.blob().etag(), Types.VARCHAR)
+                        .addValue("json", detail.blob().json(), Types.BINARY)
+                        .addValue("gzip", detail.blob().gzip(), Types.BINARY))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("""
+                UPDATE public_news_view SET detail_json = :json, detail_gzip = :gzip, detail_etag = :etag
+                WHERE news_id = :newsId AND lang = :lang AND detail_etag IS NULL
+                """, batch);
+    }
+
+    @Override
+    public void refresh(Collection<Long> newsIds) {
+        if (newsIds.isEmpty()) {
+            return;
+        }
+        replace("news_id IN (:ids)", "n.id IN (:ids)",
+                new MapSqlParameterSource("ids", newsIds));
+    }
+
+    @Override
+    public void refreshCategory(Long categoryId) {
+        replace("category_id = :categoryId", "n.category_id = :categoryId",
+                new MapSqlParameterSource().addValue("categoryId", categoryId, Types.BIGINT));
+    }
+
+    @Override
+    public void refreshTag(Long tagId) {
+        String tagged = "(SELECT ntg.news_id FROM news_tag ntg WHERE ntg.tag_id = :tagId)";
+        replace("news_id IN " + tagged, "n.id IN " + tagged,
+                new MapSqlParameterSource().addValue("tagId", tagId, Types.BIGINT));
+    }
+
+    @Override
+    public void refreshAll() {
+        replace("true", "true", new MapSqlParameterSource());
+    }
+
+    // Drop the current rows of the selection, then insert what the write tables say now
+    private void replace(String viewCondition, String newsCondition, MapSqlParameterSource params) {
+        jdbcTemplate.update("DELETE FROM public_news_view WHERE " + viewCondition, params);
+        jdbcTemplate.update("INSERT INTO public_news_view (" + COLUMNS + ") "
+                + SELECT_PUBLIC_ROWS + " AND " + newsCondition + " " + UPSERT, params);
+    }
+
+    // Live rows in one language plus the optional filters
+    private static String where(NewsFilter filter, LocalDateTime now, MapSqlParameterSource params) {
+        params.addValue("lang", filter.getLang() != null ? filter.getLang() : DEFAULT_LANG, Types.VARCHAR)
+                .addValue("now", Timestamp.valueOf(now), Types.TIMESTAMP);
+        StringBuilder where = new StringBuilder("""
+                lang = :lang
+                AND (publish_at IS NULL OR publish_at <= :now)
+                AND (unpublish_at IS NULL OR unpublish_at > :now)
+                """);
+        if (filter.getCategoryId() != null) {
+            where.append(" AND category_id = :categoryId");
+            params.addValue("categoryId", filter.getCategoryId(), Types.BIGINT);
+        }
+        if (filter.getTag() != null) {
+            where.append(" AND tags @> ARRAY[CAST(:tag AS TEXT)]");
+            params.addValue("tag", filter.getTag(), Types.VARCHAR);
+        }
+        if (filter.getKeyword() != null) {
+            throw new IllegalArgumentException("Keyword queries go to the full-text search");
+        }
+        // from is inclusive, to is exclusive (the whole "to" day is included)
+        if (filter.getFrom() != null) {
+            where.append(" AND publish_at >= :from");
+            params.addValue("from", Timestamp.valueOf(filter.getFrom().atStartOfDay()), Types.TIMESTAMP);
+        }
+        if (filter.getTo() != null) {
+            where.append(" AND publish_at < :to");
+            params.addValue("to", Timestamp.valueOf(filter.getTo().plusDays(1).atStartOfDay()), Types.TIMESTAMP);
+        }
+        return where.toString();
+    }
+
+    private record FeedRow(NewsPublicResponse news, LocalDateTime publishAt) {
+
+        static final RowMapper<FeedRow> MAPPER = (rs, rowNum) -> {
+            Timestamp publishAt = rs.getTimestamp("publish_at");
+            return new FeedRow(ROW_MAPPER.mapRow(rs, rowNum),
+                    publishAt != null ? publishAt.toLocalDateTime() : null);
+        };
+    }
+}
@@ -2,12 +2,14 @@ package uz.ilmnajot.newsadsapp.scheduler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.ilmnajot.newsadsapp.entity.News;
 import uz.ilmnajot.newsadsapp.entity.NewsHistory;
 import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.event.NewsChangedEvent;
 import uz.ilmnajot.newsadsapp.repository.NewsHistoryRepository;
 import uz.ilmnajot.newsadsapp.repository.NewsRepository;
 
@@ -23,6 +25,10 @@ public class NewsScheduler {
 
     private final NewsRepository newsRepository;
     private final NewsHistoryRepository newsHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Upper bound of the last publish-time check
+    private LocalDateTime lastPublishCheck = LocalDateTime.now();
 
     /**
      * Auto-publish news at scheduled time
@@ -68,6 +74,8 @@ public class NewsScheduler {
 
             newsHistoryRepository.save(history);
 
+            eventPublisher.publishEvent(NewsChangedEvent.of(news));
+
             log.info("Auto-published: newsId={}, oldStatus={}, publishAt={}",
                     news.getId(), oldStatus, news.getPublishAt());
         }
@@ -122,6 +130,8 @@ public class NewsScheduler {
 
             newsHistoryRepository.save(history);
 
+            eventPublisher.publishEvent(NewsChangedEvent.of(news));
+
             log.info("Auto-unpublished: newsId={}, oldStatus={}, unpublishAt={}",
                     news.getId(), oldStatus, news.getUnpublishAt());
         }
@@ -131,4 +141,24 @@ public class NewsScheduler {
 
         log.info("Successfully auto-unpublished {} news articles", newsToUnpublish.size());
     }
+
+    /**
+     * News saved as PUBLISHED with a future publishAt become visible without a status change.
+     * Announce them so cached public pages are evicted.
+     * Runs every minute
+     */
+    @Scheduled(cron = "0 * * * * *")
+    @Transactional(readOnly = true)
+    public void announceReachedPublishTimes() {
+        LocalDateTime now = LocalDateTime.now();
+        List<News> reached = newsRepository.findNewsPublishAtBetween(NewsStatus.PUBLISHED, lastPublishCheck, now);
+        lastPublishCheck = now;
+
+        for (News news : reached) {
+            eventPublisher.publishEvent(NewsChangedEvent.of(news));
+        }
+        if (!reached.isEmpty()) {
+            log.info("Publish time reached for {} news articles", reached.size());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,355 @@
+package uz.ilmnajot.newsadsapp.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
+import uz.ilmnajot.newsadsapp.entity.Tag;
+import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.util.HtmlSanitizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded Lucene index of public news translations (one document per translation).
+ * <p>
+ * Segments are read through {@link MMapDirectory}. Writes become searchable within
+ * {@code app.search.lucene.max-stale-ms} through a near-real-time reopen thread; a search never
+ * touches the database. Only published, non-deleted news are indexed, the publish window is checked
+ * at query time, so scheduled articles appear without re-indexing.
+ * <p>
+ * Every document carries the generation it was written in. A full rebuild starts a new generation,
+ * re-adds everything and then drops documents of older generations, so the index is never empty
+ * while it is rebuilt.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "lucene")
+@Slf4j
+public class LuceneNewsIndex implements NewsSearchEngine {
+
+    static final String NEWS_ID = "news_id";
+    static final String LANG = "lang";
+    static final String SLUG = "slug";
+    static final String CATEGORY_ID = "category_id";
+    static final String TAG = "tag";
+    static final String PUBLISH_AT = "publish_at";
+    static final String UNPUBLISH_AT = "unpublish_at";
+    static final String GENERATION = "generation";
+
+    private static final int SNIPPET_PASSAGES = 2;
+
+    private final Path path;
+    private final long maxStaleMillis;
+    private final Analyzer analyzer = NewsAnalyzers.perField();
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+
+    private MMapDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    public LuceneNewsIndex(@Value("${app.search.lucene.path:./data/lucene-news}") Path path,
+                           @Value("${app.search.lucene.max-stale-ms:1000}") long maxStaleMillis) {
+        this.path = path;
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(path);
+        directory = new MMapDirectory(path);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(64);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, new SearcherFactory());
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+                maxStaleMillis / 1000.0, Math.min(25, maxStaleMillis) / 1000.0);
+        reopenThread.setName("lucene-news-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+        log.info("Lucene news index opened: path={}, docs={}", path, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+
+    // Start a new generation for a full rebuild
+    public long startGeneration() {
+        return generation.updateAndGet(current -> Math.max(current + 1, System.currentTimeMillis()));
+    }
+
+    // Index the news as it is now (removes it when it is no longer public)
+    public void replace(News news) {
+        try {
+            Term id = new Term(NEWS_ID, String.valueOf(news.getId()));
+            if (!isIndexable(news)) {
+                writer.deleteDocuments(id);
+                return;
+            }
+            writer.updateDocuments(id, documents(news));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // delete
+    public void delete(Long newsId) {
+        try {
+            writer.deleteDocuments(new Term(NEWS_ID, String.valueOf(newsId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Drop documents not rewritten since the given generation started
+    public void deleteOlderThan(long generation) {
+        try {
+            writer.deleteDocuments(LongField.newRangeQuery(GENERATION, Long.MIN_VALUE, generation - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // commit
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Make every write so far visible to searches (tests, end of a rebuild)
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<NewsSearchHit> searchPublished(NewsFilter filter, LocalDateTime now, int offset, int limit) {
+        Query query = query(filter, now);
+        if (query == null) {
+            return List.of();
+        }
+
+        IndexSearcher searcher = acquire();
+        try {
+            Sort sort = new Sort(SortField.FIELD_SCORE,
+                    new SortedNumericSortField(PUBLISH_AT, SortField.Type.LONG, true));
+            TopDocs top = searcher.search(query, offset + limit, sort, true);
+            if (top.scoreDocs.length <= offset) {
+                return List.of();
+            }
+            ScoreDoc[] page = Arrays.copyOfRange(top.scoreDocs, offset, top.scoreDocs.length);
+
+            String bodyField = NewsAnalyzers.bodyField(NewsAnalyzers.supportedLang(filter.getLang()));
+            String[] snippets = highlighter(searcher)
+                    .highlight(bodyField, query, new TopDocs(top.totalHits, page), SNIPPET_PASSAGES);
+
+            StoredFields storedFields = searcher.storedFields();
+            List<NewsSearchHit> hits = new ArrayList<>(page.length);
+            for (int i = 0; i < page.length; i++) {
+                Document doc = storedFields.document(page[i].doc);
+                String lang = NewsAnalyzers.supportedLang(doc.get(LANG));
+                Number categoryId = doc.getField(CATEGORY_ID) != null ? doc.getField(CATEGORY_ID).numericValue() : null;
+                long publishAt = doc.getField(PUBLISH_AT).numericValue().longValue();
+                hits.add(NewsSearchHit.builder()
+                        .newsId(Long.valueOf(doc.get(NEWS_ID)))
+                        .title(doc.get(NewsAnalyzers.titleField(lang)))
+                        .slug(doc.get(SLUG))
+                        .snippet(snippets[i])
+                        .score((double) page[i].score)
+                        .categoryId(categoryId != null ? categoryId.longValue() : null)
+                        .publishedAt(publishAt != Long.MIN_VALUE ? fromMillis(publishAt) : null)
+                        .build());
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    // Text query on the language's fields plus filters; null when the text has no searchable terms
+    Query query(NewsFilter filter, LocalDateTime now) {
+        String lang = NewsAnalyzers.supportedLang(filter.getLang());
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(
+                NewsAnalyzers.titleField(lang), 3f,
+                NewsAnalyzers.bodyField(lang), 1f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query text = parser.parse(filter.getKeyword());
+        if (text == null) {
+            return null;
+        }
+
+        long nowMillis = toMillis(now);
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(text, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(LANG, filter.getLang())), BooleanClause.Occur.FILTER)
+                .add(LongField.newRangeQuery(PUBLISH_AT, Long.MIN_VALUE, nowMillis), BooleanClause.Occur.FILTER)
+                .add(LongField.newRangeQuery(UNPUBLISH_AT, nowMillis + 1, Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+
+        if (filter.getCategoryId() != null) {
+            builder.add(LongField.newExactQuery(CATEGORY_ID, filter.getCategoryId()), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getTag() != null) {
+            builder.add(new TermQuery(new Term(TAG, filter.getTag())), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            // Undated news (stored as Long.MIN_VALUE) never match a date range, as in SQL
+            long from = filter.getFrom() != null ? toMillis(filter.getFrom().atStartOfDay()) : Long.MIN_VALUE + 1;
+            long to = filter.getTo() != null ? toMillis(filter.getTo().plusDays(1).atStartOfDay()) - 1 : Long.MAX_VALUE;
+            builder.add(LongField.newRangeQuery(PUBLISH_AT, from, to), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    // One document per translation
+    private List<Document> documents(News news) {
+        long gen = generation.get();
+        List<Document> docs = new ArrayList<>();
+        for (NewsTranslation translation : news.getTranslations()) {
+            String lang = NewsAnalyzers.supportedLang(translation.getLang());
+            Document doc = new Document();
+            doc.add(new StringField(NEWS_ID, String.valueOf(news.getId()), Field.Store.YES));
+            doc.add(new StringField(LANG, translation.getLang(), Field.Store.YES));
+            doc.add(new StoredField(SLUG, translation.getSlug()));
+            doc.add(new TextField(NewsAnalyzers.titleField(lang), translation.getTitle(), Field.Store.YES));
+            doc.add(new TextField(NewsAnalyzers.bodyField(lang), body(translation), Field.Store.YES));
+            if (news.getCategory() != null) {
+                doc.add(new LongField(CATEGORY_ID, news.getCategory().getId(), Field.Store.YES));
+            }
+            if (news.getTags() != null) {
+                for (Tag tag : news.getTags()) {
+                    doc.add(new StringField(TAG, tag.getCode(), Field.Store.NO));
+                }
+            }
+            doc.add(new LongField(PUBLISH_AT,
+                    news.getPublishAt() != null ? toMillis(news.getPublishAt()) : Long.MIN_VALUE, Field.Store.YES));
+            doc.add(new LongField(UNPUBLISH_AT,
+                    news.getUnpublishAt() != null ? toMillis(news.getUnpublishAt()) : Long.MAX_VALUE, Field.Store.NO));
+            doc.add(new LongField(GENERATION, gen, Field.Store.NO));
+            docs.add(doc);
+        }
+        return docs;
+    }
+
+    // body: summary and content are stored as HTML; only their text is indexed (and highlighted)
+    private static String body(NewsTranslation translation) {
+        String summary = HtmlSanitizer.stripHtml(translation.getSummary());
+        String content = HtmlSanitizer.stripHtml(translation.getContent());
+        return summary.isEmpty() ? content : summary + "\n" + content;
+    }
+
+    // isIndexable
+    static boolean isIndexable(News news) {
+        return news.getStatus() == NewsStatus.PUBLISHED
+                && !Boolean.TRUE.equals(news.getIsDeleted())
+                && news.getTranslations() != null;
+    }
+
+    // highlighter: escapes the text around the <mark> pairs
+    private UnifiedHighlighter highlighter(IndexSearcher searcher) {
+        return UnifiedHighlighter.builder(searcher, analyzer)
+                .withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", " … ", true))
+                .withMaxNoHighlightPassages(1)
+                .build();
+    }
+
+    // acquire
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // release
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release Lucene searcher", e);
+        }
+    }
+
+    // LocalDateTime is compared as-is in the database, so a fixed offset keeps the same ordering
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // fromMillis
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    // Number of live documents (for logs and tests)
+    public int numDocs() {
+        IndexSearcher searcher = acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            release(searcher);
+        }
+    }
+
+}
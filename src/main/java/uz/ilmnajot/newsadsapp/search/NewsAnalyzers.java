@@ -0,0 +1,117 @@
+package uz.ilmnajot.newsadsapp.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.en.EnglishPossessiveFilter;
+import org.apache.lucene.analysis.en.PorterStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.analysis.snowball.SnowballFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.tartarus.snowball.ext.RussianStemmer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyzers of the news index, one per translation language.
+ * <p>
+ * Every chain ends with {@link TransliterationFoldingFilter}, so the indexed terms are Latin. Russian
+ * is stemmed before folding (the stemmer works on Cyrillic), English is stemmed as usual, Uzbek has
+ * no stemmer and is only folded. Text fields are named per language (title_ru, body_ru, ...) so one
+ * {@link PerFieldAnalyzerWrapper} serves both indexing and query parsing.
+ */
+public final class NewsAnalyzers {
+
+    public static final List<String> LANGS = List.of("uz", "ru", "en");
+
+    private NewsAnalyzers() {
+    }
+
+    // titleField
+    public static String titleField(String lang) {
+        return "title_" + lang;
+    }
+
+    // bodyField
+    public static String bodyField(String lang) {
+        return "body_" + lang;
+    }
+
+    // Unknown languages are indexed like Uzbek (fold only)
+    public static String supportedLang(String lang) {
+        return LANGS.contains(lang) ? lang : "uz";
+    }
+
+    // perField
+    public static Analyzer perField() {
+        Map<String, Analyzer> analyzers = new HashMap<>();
+        for (String lang : LANGS) {
+            Analyzer analyzer = forLang(lang);
+            analyzers.put(titleField(lang), analyzer);
+            analyzers.put(bodyField(lang), analyzer);
+        }
+        return new PerFieldAnalyzerWrapper(forLang("uz"), analyzers);
+    }
+
+    // forLang
+    public static Analyzer forLang(String lang) {
+        return switch (lang) {
+            case "ru" -> new FoldingAnalyzer(lang) {
+                @Override
+                TokenStream language(TokenStream stream) {
+                    stream = new StopFilter(stream, RussianAnalyzer.getDefaultStopSet());
+                    return new SnowballFilter(stream, new RussianStemmer());
+                }
+            };
+            case "en" -> new FoldingAnalyzer(lang) {
+                @Override
+                TokenStream language(TokenStream stream) {
+                    stream = new EnglishPossessiveFilter(stream);
+                    stream = new StopFilter(stream, EnglishAnalyzer.ENGLISH_STOP_WORDS_SET);
+                    return new PorterStemFilter(stream);
+                }
+            };
+            default -> new FoldingAnalyzer("uz");
+        };
+    }
+
+    // tokenizer -> lower case -> language filters -> transliteration -> accent folding
+    private static class FoldingAnalyzer extends Analyzer {
+
+        private final boolean uzbek;
+
+        FoldingAnalyzer(String lang) {
+            this.uzbek = "uz".equals(lang);
+        }
+
+        // Language specific filters on the lower-cased, still Cyrillic tokens
+        TokenStream language(TokenStream stream) {
+            return stream;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new LowerCaseFilter(tokenizer);
+            stream = language(stream);
+            stream = new TransliterationFoldingFilter(stream, uzbek);
+            stream = new ASCIIFoldingFilter(stream);
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+
+        // Used for prefix and fuzzy terms, which are not stemmed
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            TokenStream stream = new LowerCaseFilter(in);
+            stream = new TransliterationFoldingFilter(stream, uzbek);
+            return new ASCIIFoldingFilter(stream);
+        }
+    }
+}
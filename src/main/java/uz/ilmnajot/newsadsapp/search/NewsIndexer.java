@@ -0,0 +1,180 @@
+package uz.ilmnajot.newsadsapp.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.event.NewsChangedEvent;
+import uz.ilmnajot.newsadsapp.event.TagChangedEvent;
+import uz.ilmnajot.newsadsapp.repository.NewsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link LuceneNewsIndex} in step with the database.
+ * <p>
+ * Incremental: every committed {@link NewsChangedEvent} (writes in NewsServiceImpl, status flips in
+ * NewsScheduler) re-reads that one article and replaces its documents. Updates run on a single thread,
+ * so two changes of the same article are applied in commit order.
+ * <p>
+ * Bulk: at startup the index is rebuilt from the database by a pool of indexer threads, each loading
+ * and writing its own chunk of IDs (IndexWriter is thread-safe). Articles changed while a rebuild
+ * runs are re-indexed once more when it ends, so a chunk read before the change cannot win.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "lucene")
+@Slf4j
+public class NewsIndexer {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final LuceneNewsIndex index;
+    private final NewsRepository newsRepository;
+    private final TransactionTemplate readOnly;
+    private final boolean rebuildOnStartup;
+    private final int indexerThreads;
+
+    private final ExecutorService updates = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "news-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    public NewsIndexer(LuceneNewsIndex index,
+                       NewsRepository newsRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.search.lucene.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                       @Value("${app.search.lucene.indexer-threads:4}") int indexerThreads) {
+        this.index = index;
+        this.newsRepository = newsRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.indexerThreads = indexerThreads;
+    }
+
+    @PreDestroy
+    public void stop() {
+        updates.shutdownNow();
+    }
+
+    // Startup rebuild in the background; searches are served from the previous index meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (rebuildOnStartup) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(event.getNewsId());
+        }
+        updates.execute(() -> reindex(List.of(event.getNewsId())));
+    }
+
+    // A renamed tag code is stored in every document of its news
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        if (event.isAffectsNews()) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    // Writes are visible to searches within max-stale-ms already; the commit makes them survive a restart
+    @Scheduled(fixedDelayString = "${app.search.lucene.commit-interval-ms:60000}")
+    public void commit() {
+        index.commit();
+    }
+
+    /**
+     * Re-index every public article with a pool of threads, then drop documents not written by this run.
+     * Returns false when another rebuild is already running.
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        long started = System.currentTimeMillis();
+        long generation = index.startGeneration();
+        ExecutorService pool = Executors.newFixedThreadPool(indexerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "news-indexer-bulk");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger indexed = new AtomicInteger();
+        try {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            long lastId = 0;
+            while (true) {
+                List<Long> ids = newsRepository.findIndexableNewsIdsAfter(lastId, Limit.of(CHUNK_SIZE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+                chunks.add(CompletableFuture.runAsync(() -> indexed.addAndGet(reindex(ids)), pool));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+
+            index.deleteOlderThan(generation);
+            index.commit();
+            index.refresh();
+            log.info("Lucene news index rebuilt: news={}, docs={}, took={}ms",
+                    indexed.get(), index.numDocs(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            // Old documents are kept, the index stays usable
+            log.error("Lucene news index rebuild failed", e);
+        } finally {
+            pool.shutdown();
+            rebuilding.set(false);
+            List<Long> changed = new ArrayList<>(changedDuringRebuild);
+            changedDuringRebuild.removeAll(changed);
+            if (!changed.isEmpty()) {
+                updates.execute(() -> reindex(changed));
+            }
+        }
+        return true;
+    }
+
+    // Load the given news in one query and replace their documents; missing ones are removed
+    int reindex(List<Long> ids) {
+        try {
+            List<News> loaded = readOnly.execute(status -> {
+                List<News> news = newsRepository.findNewsByIds(ids);
+                news.forEach(index::replace);
+                return news;
+            });
+            if (loaded != null && loaded.size() < ids.size()) {
+                Set<Long> found = loaded.stream().map(News::getId).collect(Collectors.toSet());
+                ids.stream().filter(id -> !found.contains(id)).forEach(index::delete);
+            }
+            return loaded != null ? loaded.size() : 0;
+        } catch (RuntimeException e) {
+            log.error("Failed to index news {}", ids, e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package uz.ilmnajot.newsadsapp.search;
+
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Keyword search backend, selected with app.search.engine (postgres | lucene)
+public interface NewsSearchEngine {
+
+    // Public translations matching filter.keyword in filter.lang, best matches first
+    List<NewsSearchHit> searchPublished(NewsFilter filter, LocalDateTime now, int offset, int limit);
+}
@@ -0,0 +1,25 @@
+package uz.ilmnajot.newsadsapp.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.repository.NewsTranslationRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// tsvector + GIN search in Postgres (default engine, see V5 migration)
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresNewsSearchEngine implements NewsSearchEngine {
+
+    private final NewsTranslationRepository newsTranslationRepository;
+
+    @Override
+    public List<NewsSearchHit> searchPublished(NewsFilter filter, LocalDateTime now, int offset, int limit) {
+        return newsTranslationRepository.searchPublished(filter, now, offset, limit);
+    }
+}
@@ -0,0 +1,66 @@
+package uz.ilmnajot.newsadsapp.search;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import uz.ilmnajot.newsadsapp.util.SlugGenerator;
+
+import java.io.IOException;
+
+/**
+ * Folds lower-cased Cyrillic tokens to Latin with the slug transliteration table, so a query typed
+ * in either script matches text written in the other. Apostrophe-like marks are dropped
+ * (o'zbek, oʻzbek, o’zbek and ўзбек all become "ozbek").
+ * <p>
+ * For Uzbek the Latin "x" is folded to "h" as well: the table maps х/ҳ to "h", while Uzbek Latin
+ * writes the same sound as "x" (хабар / xabar).
+ */
+public final class TransliterationFoldingFilter extends TokenFilter {
+
+    private final CharTermAttribute termAttribute = addAttribute(CharTermAttribute.class);
+    private final boolean foldUzbekX;
+
+    public TransliterationFoldingFilter(TokenStream input, boolean foldUzbekX) {
+        super(input);
+        this.foldUzbekX = foldUzbekX;
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        if (!input.incrementToken()) {
+            return false;
+        }
+        if (!needsFolding()) {
+            return true;
+        }
+
+        String folded = SlugGenerator.transliterate(termAttribute.toString());
+        StringBuilder result = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (isApostrophe(c)) {
+                continue;
+            }
+            result.append(foldUzbekX && c == 'x' ? 'h' : c);
+        }
+        termAttribute.setEmpty().append(result);
+        return true;
+    }
+
+    // Plain ASCII tokens without apostrophes are the common case and are left untouched
+    private boolean needsFolding() {
+        char[] buffer = termAttribute.buffer();
+        for (int i = 0; i < termAttribute.length(); i++) {
+            char c = buffer[i];
+            if (c > 0x7F || isApostrophe(c) || (foldUzbekX && c == 'x')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // isApostrophe
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '`' || c == 'ʻ' || c == 'ʼ' || c == '‘' || c == '’';
+    }
+}
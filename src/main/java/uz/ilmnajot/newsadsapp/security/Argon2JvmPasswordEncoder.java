@@ -0,0 +1,62 @@
+package uz.ilmnajot.newsadsapp.security;
+
+import de.mkammerer.argon2.Argon2;
+import de.mkammerer.argon2.Argon2Factory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Argon2id through argon2-jvm (the reference C implementation). Hashes are in the PHC format
+ * ({@code $argon2id$v=19$m=65536,t=3,p=1$<salt>$<hash>}), the same as Spring Security's Argon2PasswordEncoder.
+ * <p>
+ * {@link #upgradeEncoding} is true for hashes made with other parameters, so raising the work factor of a
+ * deployment migrates the users as they log in.
+ */
+public class Argon2JvmPasswordEncoder implements PasswordEncoder {
+
+    private final Argon2 argon2 = Argon2Factory.create(Argon2Factory.Argon2Types.ARGON2id);
+    private final int iterations;
+    private final int memoryKib;
+    private final int parallelism;
+
+    public Argon2JvmPasswordEncoder(int iterations, int memoryKib, int parallelism) {
+        this.iterations = iterations;
+        this.memoryKib = memoryKib;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        char[] password = toChars(rawPassword);
+        try {
+            return argon2.hash(iterations, memoryKib, parallelism, password);
+        } finally {
+            argon2.wipeArray(password);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || !encodedPassword.startsWith("$argon2")) {
+            return false;
+        }
+        char[] password = toChars(rawPassword);
+        try {
+            return argon2.verify(encodedPassword, password);
+        } finally {
+            argon2.wipeArray(password);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && argon2.needsRehash(encodedPassword, iterations, memoryKib, parallelism);
+    }
+
+    private static char[] toChars(CharSequence rawPassword) {
+        char[] chars = new char[rawPassword.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = rawPassword.charAt(i);
+        }
+        return chars;
+    }
+}
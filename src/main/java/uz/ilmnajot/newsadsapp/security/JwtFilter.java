@@ -1,5 +1,6 @@
 package uz.ilmnajot.newsadsapp.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,8 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -18,13 +17,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates bearer access tokens. The token is parsed and verified once and the authentication is
+ * built from its claims ({@link JwtPrincipal}); the users table is not read. Revoked tokens are filtered
+ * out by {@link TokenRevocationService}, which only goes to Redis on a Bloom filter positive.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     //done
     @Override
@@ -33,40 +38,28 @@ public class JwtFilter extends OncePerRequestFilter {
             @NotNull HttpServletResponse response,
             @NotNull FilterChain filterChain)
             throws ServletException, IOException {
-        try {
-            String jwt = getJwtFromRequest(request);
-            // Agar token yo‘q bo‘lsa → davom et
-            if (jwt == null) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-            String username = null;
-
-            if (StringUtils.hasText(jwt) && this.jwtProvider.validateToken(jwt,
-                    userDetailsService.loadUserByUsername(this.jwtProvider.getUsernameFromToken(jwt)))) {
-                try {
-                    username = this.jwtProvider.getUsernameFromToken(jwt);
-                } catch (Exception e) {
-                    log.error("INVALID JWT: {}", e.getMessage());
-                }
-            }
-//            log.debug(SecurityContextHolder.getContext().getAuthentication().getAuthorities().toString());
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (this.jwtProvider.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        String jwt = getJwtFromRequest(request);
+        // Agar token yo‘q bo‘lsa → davom et
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                JwtPrincipal principal = this.jwtProvider.parseAccessToken(jwt);
+                if (this.tokenRevocationService.isRevoked(principal)) {
+                    log.debug("Revoked JWT {} of {}", principal.tokenId(), principal.username());
+                    filterChain.doFilter(request, response);
+                    return;
                 }
+                UsernamePasswordAuthenticationToken authentication =
+                        UsernamePasswordAuthenticationToken.authenticated(
+                                principal,
+                                null,
+                                principal.authorities()
+                        );
+                authentication.setDetails(this.detailsSource.buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Stays anonymous, the entry point answers 401 where authentication is required
+                log.debug("INVALID JWT: {}", e.getMessage());
             }
-        } catch (Exception ex) {
-            log.error("Could not set user authentication in security context", ex);
         }
 
         filterChain.doFilter(request, response);
@@ -76,9 +69,8 @@ public class JwtFilter extends OncePerRequestFilter {
     private String getJwtFromRequest(HttpServletRequest request) {
         final String bearerToken = request.getHeader(SecurityConstants.AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(SecurityConstants.BEARER_PREFIX)) {
-            return bearerToken.substring(7);
+            return bearerToken.substring(SecurityConstants.BEARER_PREFIX.length());
         }
         return null;
     }
 }
-
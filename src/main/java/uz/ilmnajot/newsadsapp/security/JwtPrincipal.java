@@ -0,0 +1,29 @@
+package uz.ilmnajot.newsadsapp.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal of a request authenticated with an access token, built from the token claims alone.
+ *
+ * @param id          user id ({@code uid} claim)
+ * @param username    token subject
+ * @param authorities {@code ROLE_*} authorities ({@code roles} claim) as they were when the token was issued
+ * @param tokenId     {@code jti} of the token, what a logout revokes
+ * @param issuedAt    {@code iat}, second precision
+ * @param expiresAt   {@code exp}, second precision
+ */
+public record JwtPrincipal(UUID id, String username, List<GrantedAuthority> authorities,
+                           String tokenId, Instant issuedAt, Instant expiresAt)
+        implements AuthenticatedPrincipal {
+
+    // Authentication.getName()
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,37 +1,85 @@
 package uz.ilmnajot.newsadsapp.security;
 
-import com.fasterxml.jackson.databind.node.LongNode;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import uz.ilmnajot.newsadsapp.entity.User;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the HS-signed tokens.
+ * <p>
+ * Access tokens are self-contained: besides the username they carry the user id ({@code uid}) and the
+ * authorities ({@code roles}), so a request is authenticated from the token alone, with one signature
+ * check and no database lookup. Role changes and deactivation take effect when the access token is
+ * refreshed; the refresh goes through the database. Every token has a {@code jti}, revocation before
+ * expiry is handled by {@link TokenRevocationService}.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtProvider {
 
-    @Value("${app.jwt.secret}")
-    private String secret;
-
-    @Value("${app.access.expiration}")
-    private Long accessExpirationTime;
+    static final String USER_ID = "uid";
+    static final String ROLES = "roles";
+    static final String TOKEN_TYPE = "token_type";
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+
+    private final Long accessExpirationTime;
+    private final Long refreshExpirationTime;
+    // Derived once, both are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtProvider(@Value("${app.jwt.secret}") String secret,
+                       @Value("${app.access.expiration}") Long accessExpirationTime,
+                       @Value("${app.refresh.expiration}") Long refreshExpirationTime) {
+        this.accessExpirationTime = accessExpirationTime;
+        this.refreshExpirationTime = refreshExpirationTime;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
 
-    @Value("${app.refresh.expiration}")
-    private Long refreshExpirationTime;
+    // parseAccessToken: verifies signature and expiry once, throws JwtException or IllegalArgumentException
+    // when the token is not a valid access token
+    public JwtPrincipal parseAccessToken(String token) {
+        Claims claims = this.getAllClaimsFromToken(token);
+        if (!ACCESS.equals(claims.get(TOKEN_TYPE))
+                || !(claims.get(USER_ID) instanceof String userId)
+                || !(claims.get(ROLES) instanceof List<?> roles)
+                || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+            // Refresh tokens and tokens issued before the claims existed
+            throw new JwtException("Not an access token");
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        return new JwtPrincipal(UUID.fromString(userId), claims.getSubject(), List.copyOf(authorities),
+                claims.getId(), claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
+    }
 
-    //done
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(this.secret.getBytes(StandardCharsets.UTF_8));
+    // parseRefreshToken: claims of a valid refresh token, throws JwtException otherwise
+    public Claims parseRefreshToken(String token) {
+        Claims claims = this.getAllClaimsFromToken(token);
+        if (ACCESS.equals(claims.get(TOKEN_TYPE))) {
+            throw new JwtException("Not a refresh token");
+        }
+        return claims;
     }
 
     //done
@@ -43,7 +91,6 @@ public class JwtProvider {
     public Date getExpirationDateFromToken(String token) {
         return getClaimFromToken(token, Claims::getExpiration);
     }
-    //done
 
     //done
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
@@ -53,50 +100,45 @@ public class JwtProvider {
 
     //done
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return this.parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    //done
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = this.getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-
-    //done
-    public String generateAccessToken(UserDetails userDetails) {
+    // generateAccessToken
+    public String generateAccessToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE, ACCESS);
+        claims.put(USER_ID, user.getId().toString());
+        claims.put(ROLES, user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .toList());
         return this.createToken(
-                new HashMap<>(),
-                userDetails.getUsername(),
+                claims,
+                user.getUsername(),
                 this.accessExpirationTime);
     }
 
-    //done
-    public String generateRefreshToken(UserDetails userDetails) {
+    // generateRefreshToken
+    public String generateRefreshToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE, REFRESH);
         return this.createToken(
-                new HashMap<>(),
-                userDetails.getUsername(),
-               this.refreshExpirationTime);
+                claims,
+                user.getUsername(),
+                this.refreshExpirationTime);
     }
 
     //done
     private String createToken(Map<String, Object> claims, String subject, Long expiration) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(this.signingKey)
                 .compact();
     }
-
-    //done
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = this.getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
 }
-
@@ -0,0 +1,183 @@
+package uz.ilmnajot.newsadsapp.security;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revocation of tokens before they expire.
+ * <p>
+ * Two kinds of entries, both in Redis with a TTL so they disappear once no token they cover can still be valid:
+ * <ul>
+ *   <li>{@code revoked:jti:<jti>}: one token (logout), kept for the token's remaining lifetime.</li>
+ *   <li>{@code revoked:user:<id>} = epoch millis: every token of the user issued up to that moment
+ *   (deactivation, removal, changed username or roles), kept for the access-token lifetime. Refresh tokens
+ *   need no longer entry: a refresh reloads the user from the database, where the change is already visible.</li>
+ * </ul>
+ * Every node keeps a Bloom filter of the entries ({@code j:<jti>}, {@code u:<id>}), fed by pub/sub on
+ * {@link #CHANNEL} and rebuilt from Redis every {@code app.jwt.revocation.rebuild-ms} (drops expired entries,
+ * catches up on missed messages). A token is checked against Redis only on a Bloom positive; nearly all
+ * requests pay a few hash computations and no I/O. If Redis cannot be asked, a positive counts as revoked.
+ */
+@Slf4j
+@Component
+public class TokenRevocationService implements MessageListener, SmartInitializingSingleton {
+
+    public static final String CHANNEL = "auth:revoked";
+    private static final String TOKEN_KEY = "revoked:jti:";
+    private static final String USER_KEY = "revoked:user:";
+    private static final String TOKEN = "j:";
+    private static final String USER = "u:";
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration userRevocationTtl;
+    private final int expectedEntries;
+
+    private volatile BloomFilter<CharSequence> filter;
+    // Filter being rebuilt, receives the messages that arrive meanwhile
+    private volatile BloomFilter<CharSequence> next;
+    private int lastCount;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  @Value("${app.access.expiration}") long accessExpirationMillis,
+                                  @Value("${app.jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this.redisTemplate = redisTemplate;
+        // iat/exp have second precision
+        this.userRevocationTtl = Duration.ofMillis(accessExpirationMillis).plusSeconds(1);
+        this.expectedEntries = expectedEntries;
+        this.filter = create(0);
+    }
+
+    // isRevoked: checks of the request path
+    public boolean isRevoked(JwtPrincipal principal) {
+        return isRevoked(principal.tokenId(), principal.id(), principal.issuedAt());
+    }
+
+    public boolean isRevoked(String tokenId, UUID userId, Instant issuedAt) {
+        BloomFilter<CharSequence> current = filter;
+        boolean token = tokenId != null && current.mightContain(TOKEN + tokenId);
+        boolean user = userId != null && current.mightContain(USER + userId);
+        if (!token && !user) {
+            return false;
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(
+                    TOKEN_KEY + tokenId, USER_KEY + userId));
+            if (values == null) {
+                return true;
+            }
+            if (values.get(0) != null) {
+                return true;
+            }
+            // iat has second precision: a token from the same second as the revocation counts as revoked
+            return values.get(1) != null && issuedAt.toEpochMilli() <= Long.parseLong(values.get(1));
+        } catch (DataAccessException e) {
+            log.warn("Token revocation check failed, rejecting the token: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // revokeToken: logout
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (tokenId == null || remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        redisTemplate.opsForValue().set(TOKEN_KEY + tokenId, "1", remaining.plusSeconds(1));
+        publish(TOKEN + tokenId);
+    }
+
+    // revokeUser: every token of the user issued until now
+    public void revokeUser(UUID userId) {
+        redisTemplate.opsForValue().set(USER_KEY + userId, Long.toString(System.currentTimeMillis()),
+                userRevocationTtl);
+        publish(USER + userId);
+    }
+
+    // Entry revoked on any node, including this one
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        put(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // Before the web server starts: no request sees an empty filter while Redis has entries
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.rebuild-ms:60000}",
+            initialDelayString = "${app.jwt.revocation.rebuild-ms:60000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            BloomFilter<CharSequence> rebuilt = create(lastCount);
+            next = rebuilt;
+            int count = 0;
+            ScanOptions options = ScanOptions.scanOptions().match("revoked:*").count(1000).build();
+            try (Cursor<String> keys = redisTemplate.scan(options)) {
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    if (key.startsWith(TOKEN_KEY)) {
+                        rebuilt.put(TOKEN + key.substring(TOKEN_KEY.length()));
+                        count++;
+                    } else if (key.startsWith(USER_KEY)) {
+                        rebuilt.put(USER + key.substring(USER_KEY.length()));
+                        count++;
+                    }
+                }
+                filter = rebuilt;
+                lastCount = count;
+            } catch (DataAccessException e) {
+                // The current filter stays, it only misses what was not published
+                log.warn("Token revocation filter not rebuilt: {}", e.getMessage());
+            }
+        } finally {
+            next = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    private void put(String entry) {
+        BloomFilter<CharSequence> rebuilding = next;
+        filter.put(entry);
+        if (rebuilding != null) {
+            rebuilding.put(entry);
+        }
+    }
+
+    private void publish(String entry) {
+        put(entry);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, entry);
+        } catch (DataAccessException e) {
+            // Other nodes pick the entry up with their next rebuild
+            log.warn("Token revocation broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    // Twice the last count leaves room to grow until the next rebuild
+    private BloomFilter<CharSequence> create(int count) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(expectedEntries, count * 2L), FALSE_POSITIVE_RATE);
+    }
+}
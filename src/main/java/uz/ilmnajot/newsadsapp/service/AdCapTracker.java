@@ -0,0 +1,231 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.ilmnajot.newsadsapp.enums.AdEventType;
+import uz.ilmnajot.newsadsapp.event.AdCapsChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Daily impression/click caps of ad campaigns.
+ * <p>
+ * Events are counted in node-local {@link LongAdder}s (no locks, no I/O on the request thread).
+ * Every {@code app.ads.caps.sync-interval-ms} the local deltas are pushed with one pipelined
+ * {@code INCRBY} per counter; the reply is the cluster-wide total for the day, which also brings in
+ * the other nodes' counts. When the set of capped campaigns changes an {@link AdCapsChangedEvent}
+ * is published and {@link AdDecisionEngine} drops those campaigns from rotation.
+ * <p>
+ * Overshoot is bounded by the traffic of one sync interval across all nodes. If Redis is not
+ * reachable the deltas are kept and caps are enforced on the last known totals plus local counts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdCapTracker {
+
+    private static final String KEY_PREFIX = "ads:cap:";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Duration KEY_TTL = Duration.ofHours(48);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Only campaigns with a cap are tracked
+    private final ConcurrentHashMap<Long, CampaignCounter> counters = new ConcurrentHashMap<>();
+    private volatile Set<Long> capped = Set.of();
+    private LocalDate day = LocalDate.now();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Called on the request thread
+    public void record(long campaignId, AdEventType type) {
+        CampaignCounter counter = counters.get(campaignId);
+        if (counter != null) {
+            (type == AdEventType.IMPRESSION ? counter.impressions : counter.clicks).pending.increment();
+        }
+    }
+
+    // Lock-free read for the decision path
+    public Set<Long> cappedCampaigns() {
+        return capped;
+    }
+
+    // Caps as loaded by the decision engine: campaignId -> {impressionCap, clickCap}, null = unlimited.
+    // Returns the capped set without publishing it: the engine is rebuilding and indexes with it directly
+    public Set<Long> updateCaps(Map<Long, Integer[]> caps) {
+        lock.lock();
+        try {
+            counters.keySet().retainAll(caps.keySet());
+            caps.forEach((campaignId, limits) -> {
+                CampaignCounter counter = counters.computeIfAbsent(campaignId, CampaignCounter::new);
+                counter.impressions.cap = limits[0];
+                counter.clicks.cap = limits[1];
+            });
+            evaluate();
+            return capped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Push local deltas, pull cluster totals, re-evaluate caps
+    @Scheduled(fixedDelayString = "${app.ads.caps.sync-interval-ms:500}")
+    public void sync() {
+        Set<Long> changed;
+        lock.lock();
+        try {
+            pushAndPull();
+            changed = evaluate();
+        } finally {
+            lock.unlock();
+        }
+        publish(changed);
+    }
+
+    private void pushAndPull() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(day)) {
+            closeDay();
+            day = today;
+            counters.values().forEach(CampaignCounter::resetForNewDay);
+        }
+
+        List<Counter> batch = takeDeltas();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> totals = push(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                Counter c = batch.get(i);
+                c.global = ((Number) totals.get(i * 2)).longValue();
+            }
+        } catch (DataAccessException e) {
+            // Redis unavailable: keep counting locally
+            batch.forEach(c -> c.unsynced = c.inFlight);
+            log.warn("Ad cap sync failed, enforcing caps on local counts: {}", e.getMessage());
+        } finally {
+            batch.forEach(c -> c.inFlight = 0);
+        }
+    }
+
+    // Counts from before midnight go to the day that ended, not to the new one
+    private void closeDay() {
+        List<Counter> batch = takeDeltas();
+        try {
+            if (!batch.isEmpty()) {
+                push(batch);
+            }
+        } catch (DataAccessException e) {
+            // The day is over, its counts no longer cap anything
+            log.warn("Ad cap counts of {} not synced: {}", day, e.getMessage());
+        } finally {
+            batch.forEach(c -> c.inFlight = 0);
+        }
+    }
+
+    // Moves the local counts of every capped counter into inFlight
+    private List<Counter> takeDeltas() {
+        List<Counter> batch = new ArrayList<>();
+        for (CampaignCounter counter : counters.values()) {
+            for (Counter c : counter.both()) {
+                if (c.cap != null) {
+                    c.inFlight = c.pending.sumThenReset() + c.unsynced;
+                    c.unsynced = 0;
+                    batch.add(c);
+                }
+            }
+        }
+        return batch;
+    }
+
+    // One INCRBY + EXPIRE per counter on the key of the current day; INCRBY 0 still returns the total
+    private List<Object> push(List<Counter> batch) {
+        String dayKey = KEY_PREFIX + day.format(DAY) + ":";
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Counter c : batch) {
+                String key = dayKey + c.key;
+                redis.incrBy(key, c.inFlight);
+                redis.expire(key, KEY_TTL.toSeconds());
+            }
+            return null;
+        });
+    }
+
+    // New capped set if it changed, otherwise null
+    private Set<Long> evaluate() {
+        Set<Long> now = new HashSet<>();
+        counters.forEach((campaignId, counter) -> {
+            if (counter.impressions.reached() || counter.clicks.reached()) {
+                now.add(campaignId);
+            }
+        });
+        if (now.equals(capped)) {
+            return null;
+        }
+        capped = Set.copyOf(now);
+        log.info("Capped campaigns changed: {}", capped);
+        return capped;
+    }
+
+    // Outside the lock: listeners take the decision engine's rebuild lock
+    private void publish(Set<Long> changed) {
+        if (changed != null) {
+            eventPublisher.publishEvent(new AdCapsChangedEvent(changed));
+        }
+    }
+
+    private static final class CampaignCounter {
+        final Counter impressions;
+        final Counter clicks;
+
+        CampaignCounter(Long campaignId) {
+            this.impressions = new Counter(campaignId + ":imp");
+            this.clicks = new Counter(campaignId + ":clk");
+        }
+
+        List<Counter> both() {
+            return List.of(impressions, clicks);
+        }
+
+        void resetForNewDay() {
+            both().forEach(c -> {
+                c.global = 0;
+                c.unsynced = 0;
+            });
+        }
+    }
+
+    private static final class Counter {
+        final String key;
+        final LongAdder pending = new LongAdder(); // written by request threads
+        volatile Integer cap;
+        // below: sync thread only
+        long global;      // last cluster-wide total from Redis
+        long unsynced;    // local counts Redis has not seen (while it was unavailable)
+        long inFlight;    // delta of the running sync
+
+        Counter(String key) {
+            this.key = key;
+        }
+
+        boolean reached() {
+            Integer limit = cap;
+            return limit != null && global + unsynced + pending.sum() >= limit;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uz.ilmnajot.newsadsapp.dto.AdsAssignmentDto;
+import uz.ilmnajot.newsadsapp.entity.AdsAssignment;
+import uz.ilmnajot.newsadsapp.entity.AdsCampaign;
+import uz.ilmnajot.newsadsapp.event.AdCapsChangedEvent;
+import uz.ilmnajot.newsadsapp.event.AdsChangedEvent;
+import uz.ilmnajot.newsadsapp.mapper.AdsAssignmentMapper;
+import uz.ilmnajot.newsadsapp.repository.AdsAssignmentRepository;
+import uz.ilmnajot.newsadsapp.util.AliasTable;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory ad decision engine.
+ * <p>
+ * Holds an immutable snapshot per placement code. Every (lang, categoryId) combination that can
+ * occur is resolved to a pre-built bucket with an alias table at build time, so serving
+ * an ad is two map lookups plus an O(1) weighted draw - no database round-trip.
+ * <p>
+ * The snapshot is swapped atomically after every admin change of an assignment, campaign,
+ * creative or placement, when a start/end boundary is crossed, and at least every
+ * {@code app.ads.engine.max-age-ms} so that changes made on other nodes are picked up.
+ * Campaigns that reached a daily cap ({@link AdCapTracker}) are left out of the buckets; when the
+ * capped set changes only the buckets are rebuilt from the loaded candidates, without a database query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdDecisionEngine {
+
+    private final AdsAssignmentRepository assignmentRepository;
+    private final AdsAssignmentMapper assignmentMapper;
+    private final AdCapTracker capTracker;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Value("${app.ads.engine.max-age-ms:30000}")
+    private long maxAgeMillis;
+
+    // Select an ad for the placement, or null if nothing is eligible
+    public AdsAssignmentDto select(String placementCode, String lang, Long categoryId) {
+        PlacementIndex index = snapshot.get().placements.get(placementCode);
+        if (index == null) {
+            return null;
+        }
+        return index.bucketFor(lang, categoryId).pick();
+    }
+
+    // Ids and landing URL of a currently live assignment, or null (used by impression/click tracking)
+    public ServedAd findServed(Long assignmentId) {
+        return assignmentId == null ? null : snapshot.get().served.get(assignmentId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    // Rebuild after the admin transaction is committed (or immediately if there was none)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAdsChanged(AdsChangedEvent event) {
+        log.debug("Ads changed: {}", event);
+        rebuild();
+    }
+
+    // Re-index the current candidates without the capped campaigns. The tracker's current set, not the
+    // event's: a rebuild may have brought in a newer one since the event was created
+    @EventListener
+    public void onCapsChanged(AdCapsChangedEvent event) {
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot.get();
+            snapshot.set(new Snapshot(index(current.candidates, capTracker.cappedCampaigns()), current.candidates,
+                    current.served, current.nextChangeAt, current.builtAtMillis));
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Picks up start/end boundaries and changes made on other nodes
+    @Scheduled(fixedDelayString = "${app.ads.engine.refresh-check-ms:1000}")
+    public void refreshIfStale() {
+        Snapshot current = snapshot.get();
+        LocalDateTime now = LocalDateTime.now();
+        boolean boundaryReached = current.nextChangeAt != null && !now.isBefore(current.nextChangeAt);
+        boolean tooOld = System.currentTimeMillis() - current.builtAtMillis >= maxAgeMillis;
+        if (boundaryReached || tooOld) {
+            rebuild();
+        }
+    }
+
+    // rebuild
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<AdsAssignment> assignments = assignmentRepository.findServableAssignments(now);
+            Snapshot built = buildSnapshot(assignments, now);
+            snapshot.set(built);
+            log.debug("Ad snapshot rebuilt: placements={}, assignments={}, nextChangeAt={}",
+                    built.placements.size(), assignments.size(), built.nextChangeAt);
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            log.error("Failed to rebuild ad snapshot", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot buildSnapshot(List<AdsAssignment> assignments, LocalDateTime now) {
+        Map<String, List<Candidate>> byPlacement = new HashMap<>();
+        Map<Long, ServedAd> served = new HashMap<>();
+        Map<Long, Integer[]> caps = new HashMap<>();
+        LocalDateTime nextChangeAt = null;
+
+        for (AdsAssignment a : assignments) {
+            AdsCampaign campaign = a.getCampaign();
+            if (campaign.getDailyCapImpressions() != null || campaign.getDailyCapClicks() != null) {
+                caps.putIfAbsent(campaign.getId(),
+                        new Integer[]{campaign.getDailyCapImpressions(), campaign.getDailyCapClicks()});
+            }
+
+            nextChangeAt = earliestFuture(nextChangeAt, now, a.getStartAt(), a.getEndAt(),
+                    campaign.getStartAt(), campaign.getEndAt());
+
+            if (!isLive(a, now)) {
+                continue;
+            }
+            int weight = a.getWeight() != null ? a.getWeight() : 100;
+            if (weight <= 0) {
+                continue; // never selectable
+            }
+            byPlacement.computeIfAbsent(a.getPlacement().getCode(), k -> new ArrayList<>())
+                    .add(new Candidate(
+                            assignmentMapper.toDto(a),
+                            weight,
+                            a.getLangFilter() == null ? Set.of() : Set.copyOf(a.getLangFilter()),
+                            a.getCategoryFilter() == null ? Set.of() : Set.copyOf(a.getCategoryFilter())));
+            served.put(a.getId(), new ServedAd(a.getId(), a.getCampaign().getId(), a.getCreative().getId(),
+                    a.getPlacement().getId(), a.getCreative().getLandingUrl()));
+        }
+
+        Set<Long> capped = capTracker.updateCaps(caps);
+
+        Map<String, List<Candidate>> candidates = Map.copyOf(byPlacement);
+        return new Snapshot(index(candidates, capped), candidates, Map.copyOf(served),
+                nextChangeAt, System.currentTimeMillis());
+    }
+
+    private Map<String, PlacementIndex> index(Map<String, List<Candidate>> candidates, Set<Long> cappedCampaigns) {
+        Map<String, PlacementIndex> placements = new HashMap<>();
+        candidates.forEach((code, list) -> {
+            List<Candidate> eligible = cappedCampaigns.isEmpty() ? list : list.stream()
+                    .filter(c -> !cappedCampaigns.contains(c.dto().getCampaignId()))
+                    .toList();
+            if (!eligible.isEmpty()) {
+                placements.put(code, PlacementIndex.build(eligible));
+            }
+        });
+        return Map.copyOf(placements);
+    }
+
+    private boolean isLive(AdsAssignment a, LocalDateTime now) {
+        return (a.getStartAt() == null || !a.getStartAt().isAfter(now))
+                && (a.getCampaign().getStartAt() == null || !a.getCampaign().getStartAt().isAfter(now));
+    }
+
+    private LocalDateTime earliestFuture(LocalDateTime current, LocalDateTime now, LocalDateTime... times) {
+        for (LocalDateTime t : times) {
+            if (t != null && t.isAfter(now) && (current == null || t.isBefore(current))) {
+                current = t;
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), null, 0L);
+
+        final Map<String, PlacementIndex> placements;
+        // all live candidates, including capped campaigns
+        final Map<String, List<Candidate>> candidates;
+        final Map<Long, ServedAd> served;
+        final LocalDateTime nextChangeAt;
+        final long builtAtMillis;
+
+        Snapshot(Map<String, PlacementIndex> placements, Map<String, List<Candidate>> candidates,
+                 Map<Long, ServedAd> served, LocalDateTime nextChangeAt, long builtAtMillis) {
+            this.placements = placements;
+            this.candidates = candidates;
+            this.served = served;
+            this.nextChangeAt = nextChangeAt;
+            this.builtAtMillis = builtAtMillis;
+        }
+    }
+
+    public record ServedAd(long assignmentId, long campaignId, long creativeId, long placementId, String landingUrl) {
+    }
+
+    private record Candidate(AdsAssignmentDto dto, int weight, Set<String> langs, Set<Long> categories) {
+    }
+
+    /**
+     * Eligibility index of one placement.
+     * <p>
+     * Candidates are bucketed by lang and category bitsets; an empty filter matches everything.
+     * Languages or categories that no candidate filters on share the "unlisted" bucket.
+     */
+    private static final class PlacementIndex {
+
+        final Map<String, LangBuckets> byLang;
+        final LangBuckets unlistedLang;
+
+        PlacementIndex(Map<String, LangBuckets> byLang, LangBuckets unlistedLang) {
+            this.byLang = byLang;
+            this.unlistedLang = unlistedLang;
+        }
+
+        Bucket bucketFor(String lang, Long categoryId) {
+            LangBuckets buckets = lang != null ? byLang.getOrDefault(lang, unlistedLang) : unlistedLang;
+            if (categoryId == null) {
+                return buckets.anyCategory; // no category context matches every category filter
+            }
+            return buckets.byCategory.getOrDefault(categoryId, buckets.unlistedCategory);
+        }
+
+        static PlacementIndex build(List<Candidate> candidates) {
+            int n = candidates.size();
+            Set<String> langs = new HashSet<>();
+            Set<Long> categories = new HashSet<>();
+            BitSet unlistedLangBits = new BitSet(n);
+            BitSet unlistedCategoryBits = new BitSet(n);
+
+            for (int i = 0; i < n; i++) {
+                Candidate c = candidates.get(i);
+                langs.addAll(c.langs());
+                categories.addAll(c.categories());
+                if (c.langs().isEmpty()) {
+                    unlistedLangBits.set(i);
+                }
+                if (c.categories().isEmpty()) {
+                    unlistedCategoryBits.set(i);
+                }
+            }
+
+            Map<Long, BitSet> categoryBits = new HashMap<>();
+            for (Long category : categories) {
+                BitSet bits = (BitSet) unlistedCategoryBits.clone();
+                for (int i = 0; i < n; i++) {
+                    if (candidates.get(i).categories().contains(category)) {
+                        bits.set(i);
+                    }
+                }
+                categoryBits.put(category, bits);
+            }
+
+            Map<String, LangBuckets> byLang = new HashMap<>();
+            for (String lang : langs) {
+                BitSet bits = (BitSet) unlistedLangBits.clone();
+                for (int i = 0; i < n; i++) {
+                    if (candidates.get(i).langs().contains(lang)) {
+                        bits.set(i);
+                    }
+                }
+                byLang.put(lang, LangBuckets.build(candidates, bits, categoryBits, unlistedCategoryBits));
+            }
+
+            return new PlacementIndex(Map.copyOf(byLang),
+                    LangBuckets.build(candidates, unlistedLangBits, categoryBits, unlistedCategoryBits));
+        }
+    }
+
+    private static final class LangBuckets {
+
+        final Map<Long, Bucket> byCategory;
+        final Bucket anyCategory;
+        final Bucket unlistedCategory;
+
+        LangBuckets(Map<Long, Bucket> byCategory, Bucket anyCategory, Bucket unlistedCategory) {
+            this.byCategory = byCategory;
+            this.anyCategory = anyCategory;
+            this.unlistedCategory = unlistedCategory;
+        }
+
+        static LangBuckets build(List<Candidate> candidates, BitSet langBits,
+                                 Map<Long, BitSet> categoryBits, BitSet unlistedCategoryBits) {
+            Map<Long, Bucket> byCategory = new HashMap<>();
+            categoryBits.forEach((category, bits) -> byCategory.put(category, Bucket.of(candidates, and(langBits, bits))));
+            return new LangBuckets(Map.copyOf(byCategory),
+                    Bucket.of(candidates, langBits),
+                    Bucket.of(candidates, and(langBits, unlistedCategoryBits)));
+        }
+
+        private static BitSet and(BitSet a, BitSet b) {
+            BitSet result = (BitSet) a.clone();
+            result.and(b);
+            return result;
+        }
+    }
+
+    // Eligible candidates with their alias table
+    private static final class Bucket {
+
+        static final Bucket EMPTY = new Bucket(new AdsAssignmentDto[0], null);
+
+        final AdsAssignmentDto[] items;
+        final AliasTable aliasTable;
+
+        Bucket(AdsAssignmentDto[] items, AliasTable aliasTable) {
+            this.items = items;
+            this.aliasTable = aliasTable;
+        }
+
+        static Bucket of(List<Candidate> candidates, BitSet bits) {
+            int size = bits.cardinality();
+            if (size == 0) {
+                return EMPTY;
+            }
+            AdsAssignmentDto[] items = new AdsAssignmentDto[size];
+            int[] weights = new int[size];
+            int k = 0;
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                Candidate c = candidates.get(i);
+                items[k] = c.dto();
+                weights[k] = c.weight();
+                k++;
+            }
+            return new Bucket(items, AliasTable.of(weights));
+        }
+
+        AdsAssignmentDto pick() {
+            if (items.length == 0) {
+                return null;
+            }
+            return items[aliasTable.next()];
+        }
+    }
+}
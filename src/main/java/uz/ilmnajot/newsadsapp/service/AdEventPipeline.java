@@ -0,0 +1,147 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uz.ilmnajot.newsadsapp.entity.AdsStatMinute;
+import uz.ilmnajot.newsadsapp.enums.AdEventType;
+import uz.ilmnajot.newsadsapp.repository.AdsStatMinuteRepository;
+import uz.ilmnajot.newsadsapp.util.MpscRingBuffer;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Impression/click pipeline.
+ * <p>
+ * Request threads only put a small event into a lock-free ring buffer ({@link #record}).
+ * A single background thread drains the buffer, aggregates the events per
+ * campaign/creative/placement/minute and upserts the counters in one JDBC batch.
+ * When the buffer is full events are dropped and counted instead of slowing down ad serving;
+ * when the database is unavailable the aggregated counters are kept and retried on the next flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdEventPipeline {
+
+    private final AdsStatMinuteRepository statRepository;
+
+    @Value("${app.ads.events.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${app.ads.events.flush-interval-ms:1000}")
+    private long flushIntervalMillis;
+
+    // Upper bound of counter rows kept in memory while the database is failing
+    @Value("${app.ads.events.max-pending-rows:100000}")
+    private int maxPendingRows;
+
+    private MpscRingBuffer<AdEvent> buffer;
+    private ScheduledExecutorService flusher;
+    private final LongAdder dropped = new LongAdder();
+
+    // Only touched by the flusher thread
+    private final Map<AdsStatMinute.Key, long[]> pending = new HashMap<>();
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(bufferSize);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ad-event-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        if (flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+            flushSafely(); // last events before shutdown
+        }
+    }
+
+    // Called on the request thread: never blocks, never touches the database
+    public boolean record(AdDecisionEngine.ServedAd ad, AdEventType type) {
+        long epochMinute = System.currentTimeMillis() / 60_000L;
+        boolean accepted = buffer.offer(new AdEvent(ad.campaignId(), ad.creativeId(), ad.placementId(), epochMinute, type));
+        if (!accepted) {
+            dropped.increment();
+        }
+        return accepted;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Ad event flush failed, {} counter rows kept for retry", pending.size(), e);
+        }
+    }
+
+    private void flush() {
+        long droppedNow = dropped.sumThenReset();
+        if (droppedNow > 0) {
+            log.warn("Ad event buffer full, dropped {} events", droppedNow);
+        }
+
+        // Drain what is there now; events arriving meanwhile go to the next flush
+        int limit = buffer.capacity();
+        buffer.drain(this::aggregate, limit);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Fixed row order so concurrent flushes from several nodes lock rows in the same order
+        List<AdsStatMinute> rows = new ArrayList<>(pending.size());
+        pending.forEach((key, counts) -> rows.add(AdsStatMinute.builder()
+                .id(key)
+                .impressions(counts[0])
+                .clicks(counts[1])
+                .build()));
+        rows.sort(ROW_ORDER);
+
+        statRepository.upsertIncrements(rows);
+        log.debug("Flushed {} ad stat rows", rows.size());
+        pending.clear();
+    }
+
+    private void aggregate(AdEvent event) {
+        AdsStatMinute.Key key = new AdsStatMinute.Key(toBucketStart(event.epochMinute()),
+                event.campaignId(), event.creativeId(), event.placementId());
+        long[] counts = pending.get(key);
+        if (counts == null) {
+            if (pending.size() >= maxPendingRows) {
+                dropped.increment();
+                return;
+            }
+            counts = new long[2];
+            pending.put(key, counts);
+        }
+        counts[event.type() == AdEventType.IMPRESSION ? 0 : 1]++;
+    }
+
+    private static LocalDateTime toBucketStart(long epochMinute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60), ZoneId.systemDefault());
+    }
+
+    private static final Comparator<AdsStatMinute> ROW_ORDER = Comparator
+            .comparing((AdsStatMinute row) -> row.getId().getBucketStart())
+            .thenComparing(row -> row.getId().getCampaignId())
+            .thenComparing(row -> row.getId().getCreativeId())
+            .thenComparing(row -> row.getId().getPlacementId());
+
+    private record AdEvent(long campaignId, long creativeId, long placementId, long epochMinute, AdEventType type) {
+    }
+}
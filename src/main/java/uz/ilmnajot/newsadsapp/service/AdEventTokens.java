@@ -0,0 +1,127 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import uz.ilmnajot.newsadsapp.enums.AdEventType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Tracking tokens of served ads.
+ * <p>
+ * Every ad handed out by the public endpoint carries {@code <assignmentId>.<issued epoch seconds>.<nonce>.<hmac>}
+ * (HMAC-SHA256 over the first three parts, key {@code app.ads.tracking.secret}). The impression beacon and the
+ * click only count an event for a token of the same assignment that is younger than
+ * {@code app.ads.tracking.token-ttl-seconds}, and each token counts once per event type: the first use is
+ * claimed with {@code SET NX} in Redis for the token's lifetime. A node-local set of claimed tokens answers
+ * repeats without I/O and is the only check while Redis is not reachable.
+ */
+@Service
+@Slf4j
+public class AdEventTokens {
+
+    private static final String KEY_PREFIX = "ads:tok:";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int NONCE_BYTES = 9;
+    private static final int MAC_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final StringRedisTemplate redisTemplate;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Boolean> claimed;
+
+    public AdEventTokens(StringRedisTemplate redisTemplate,
+                         @Value("${app.ads.tracking.secret}") String secret,
+                         @Value("${app.ads.tracking.token-ttl-seconds:900}") long ttlSeconds,
+                         @Value("${app.ads.tracking.max-local-claims:200000}") long maxLocalClaims) {
+        this(redisTemplate, secret, Duration.ofSeconds(ttlSeconds), maxLocalClaims, Clock.systemUTC());
+    }
+
+    AdEventTokens(StringRedisTemplate redisTemplate, String secret, Duration ttl, long maxLocalClaims, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.claimed = Caffeine.newBuilder()
+                .maximumSize(maxLocalClaims)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // issue: one token per served ad
+    public String issue(long assignmentId) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        String payload = assignmentId + "." + clock.instant().getEpochSecond() + "." + ENCODER.encodeToString(nonce);
+        return payload + "." + ENCODER.encodeToString(mac(payload));
+    }
+
+    // claim: true exactly once per valid, unexpired token of the assignment and event type
+    public boolean claim(long assignmentId, String token, AdEventType type) {
+        if (token == null) {
+            return false;
+        }
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 4 || !parts[0].equals(Long.toString(assignmentId))) {
+            return false;
+        }
+        long issued;
+        byte[] signature;
+        try {
+            issued = Long.parseLong(parts[1]);
+            signature = DECODER.decode(parts[3]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        long age = clock.instant().getEpochSecond() - issued;
+        if (age < 0 || age > ttl.toSeconds()) {
+            return false;
+        }
+        String payload = parts[0] + "." + parts[1] + "." + parts[2];
+        if (!MessageDigest.isEqual(mac(payload), signature)) {
+            return false;
+        }
+        String claimKey = KEY_PREFIX + type.name().toLowerCase() + ":" + parts[3];
+        if (claimed.asMap().putIfAbsent(claimKey, Boolean.TRUE) != null) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(claimKey, "1", ttl.minusSeconds(age).plusSeconds(1)));
+        } catch (DataAccessException e) {
+            // Counted on the local claim alone; another node may count the same token once more
+            log.debug("Ad token claim not shared: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private byte[] mac(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] full = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] truncated = new byte[MAC_BYTES];
+            System.arraycopy(full, 0, truncated, 0, MAC_BYTES);
+            return truncated;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
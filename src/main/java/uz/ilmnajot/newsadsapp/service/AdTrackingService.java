@@ -0,0 +1,8 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import java.net.URI;
+
+public interface AdTrackingService {
+    void recordImpression(Long assignmentId, String token);
+    URI recordClick(Long assignmentId, String token);
+}
@@ -13,6 +13,8 @@ public interface AuthService {
 
     ApiResponse refreshToken(String refreshToken);
 
+    void logout(String refreshToken);
+
     ApiResponse registerUser(UserDto.AddUserDto dto);
 
     ApiResponse getCurrentUser();
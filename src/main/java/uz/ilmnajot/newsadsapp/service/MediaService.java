@@ -3,7 +3,10 @@ package uz.ilmnajot.newsadsapp.service;
 import org.springframework.web.multipart.MultipartFile;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 
+import java.io.InputStream;
+
 public interface MediaService {
     ApiResponse uploadMedia(MultipartFile file);
+    ApiResponse uploadMedia(InputStream content, String filename, String contentType);
     ApiResponse deleteMedia(Long id);
 }
@@ -0,0 +1,110 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
+import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepository;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepository.PendingDetail;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepository.RenderedDetail;
+import uz.ilmnajot.newsadsapp.util.HttpCaching;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders the public detail response of every public_news_view row once, when the row is written:
+ * the JSON body the endpoint returns, its gzip encoding and a content hash for the ETag. The detail
+ * endpoint then only copies bytes.
+ * <p>
+ * Rows are picked up by "not rendered yet" (a refresh resets the blobs), so every kind of refresh
+ * is covered. Rows backfilled by a migration are rendered at startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NewsDetailRenderer {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final PublicNewsViewRepository publicNewsViewRepository;
+    private final ObjectMapper objectMapper;
+
+    // Render up to maxRows pending rows; returns how many were rendered
+    public int renderPending(int maxRows) {
+        int rendered = 0;
+        while (rendered < maxRows) {
+            List<PendingDetail> pending = publicNewsViewRepository.findUnrendered(
+                    Math.min(BATCH_SIZE, maxRows - rendered));
+            if (pending.isEmpty()) {
+                break;
+            }
+            publicNewsViewRepository.saveDetailBlobs(pending.stream()
+                    .map(row -> new RenderedDetail(row.newsId(), row.lang(), render(row.news())))
+                    .toList());
+            rendered += pending.size();
+        }
+        return rendered;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void renderBacklog() {
+        try {
+            int rendered = renderPending(Integer.MAX_VALUE);
+            if (rendered > 0) {
+                log.info("Rendered {} pending news detail responses", rendered);
+            }
+        } catch (RuntimeException e) {
+            // Not fatal: the detail endpoint renders missing blobs on the fly
+            log.warn("Rendering pending news detail responses failed: {}", e.getMessage());
+        }
+    }
+
+    // Same envelope the controller used to serialize
+    public NewsDetailBlob render(NewsPublicResponse news) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ApiResponse.builder()
+                    .status(HttpStatus.OK)
+                    .data(news)
+                    .build());
+            String surrogateKey = HttpCaching.newsKeys(news.getId(), news.getCategoryId(), news.getTags());
+            return new NewsDetailBlob(etag(json), surrogateKey, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot render news " + news.getId(), e);
+        }
+    }
+
+    // First 128 bits of the SHA-256 of the body
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // gzip
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,9 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+
+// Public keyword search; the backend is chosen with app.search.engine
+public interface NewsSearchService {
+    ApiResponse search(NewsFilter filter, int page, int size);
+}
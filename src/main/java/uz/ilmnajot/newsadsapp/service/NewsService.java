@@ -12,6 +12,8 @@ public interface NewsService {
 
     ApiResponse getNews(Pageable pageable, NewsFilter filter);
 
+    ApiResponse getNewsFeed(NewsFilter filter, String cursor, int size);
+
     NewsResponse updateNewsStatus(Long id, NewsStatus newStatus);
 
     NewsResponse getNewsById(Long id);
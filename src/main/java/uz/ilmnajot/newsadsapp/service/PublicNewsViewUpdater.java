@@ -0,0 +1,76 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.ilmnajot.newsadsapp.event.CategoryChangedEvent;
+import uz.ilmnajot.newsadsapp.event.NewsChangedEvent;
+import uz.ilmnajot.newsadsapp.event.TagChangedEvent;
+import uz.ilmnajot.newsadsapp.repository.NewsRepository;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepository;
+
+import java.util.List;
+
+/**
+ * Keeps public_news_view in step with the write side.
+ * <p>
+ * Runs BEFORE_COMMIT, inside the transaction that changed the article (NewsServiceImpl writes,
+ * NewsScheduler status flips, category and tag edits), so the read model commits or rolls back
+ * together with the change and is already current when the AFTER_COMMIT cache eviction runs.
+ * Pending entity changes are flushed first, the refresh reads the write tables with SQL; the detail
+ * responses of the refreshed rows are rendered right after, in the same transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PublicNewsViewUpdater {
+
+    private final PublicNewsViewRepository publicNewsViewRepository;
+    private final NewsDetailRenderer newsDetailRenderer;
+    private final NewsRepository newsRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onNewsChanged(NewsChangedEvent event) {
+        // A reached publish time (read-only announcement) changes nothing: the window is checked at read time
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        flush();
+        publicNewsViewRepository.refresh(List.of(event.getNewsId()));
+        newsDetailRenderer.renderPending(Integer.MAX_VALUE);
+    }
+
+    // Category titles and slugs are copied into the rows of its news
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (!event.isAffectsNews()) {
+            return;
+        }
+        flush();
+        publicNewsViewRepository.refreshCategory(event.getCategoryId());
+        newsDetailRenderer.renderPending(Integer.MAX_VALUE);
+        log.debug("Category {} changed, public news view refreshed", event.getCategoryId());
+    }
+
+    // Tag codes are copied into the rows of the tagged news
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        if (!event.isAffectsNews()) {
+            return;
+        }
+        flush();
+        publicNewsViewRepository.refreshTag(event.getTagId());
+        newsDetailRenderer.renderPending(Integer.MAX_VALUE);
+        log.debug("Tag {} changed, public news view refreshed", event.getTagId());
+    }
+
+    // Tag edits run without a transaction, there is nothing pending to flush then
+    private void flush() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            newsRepository.flush();
+        }
+    }
+}
@@ -1,86 +1,244 @@
 package uz.ilmnajot.newsadsapp.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.Collections;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Rate limiter based on GCRA (generic cell rate algorithm, the token bucket expressed as a time).
+ * <p>
+ * A client may send {@code limit} requests per {@code period}; capacity comes back continuously, one
+ * request every {@code period / limit}. The state of a bucket is a single number, the theoretical
+ * arrival time (TAT) of the next request.
+ * <p>
+ * Two tiers:
+ * <ul>
+ *   <li>Request path: node-local buckets (one per ip + endpoint, dropped when idle or when there are more
+ *   than {@code app.rate-limit.max-buckets}), updated with a
+ *   CAS on the TAT. No I/O, no locks; concurrent requests on one node are exact.</li>
+ *   <li>Every {@code app.rate-limit.sync-interval-ms} the requests taken locally since the last sync
+ *   are pushed to the cluster bucket in Redis (one script call for all active buckets), and the
+ *   cluster TAT, which includes the other nodes' requests, is merged back into the local buckets.
+ *   Overshoot is bounded by the traffic of one sync interval across all nodes.</li>
+ * </ul>
+ * The same call registers the node in a heartbeat set. While Redis cannot be reached each node
+ * enforces its share, {@code limit / nodes} with the last known node count, on local buckets only.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RateLimitService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final String KEY_PREFIX = "rate_limit:";
+    private static final String NODES_KEY = KEY_PREFIX + "nodes";
+    private static final int SYNC_BATCH = 1000;
 
-    /**
-     * Check if request is allowed (Sliding Window method - BETTER!)
-     * 
-     * Uses Redis sorted set with timestamps
-     */
-    public boolean isAllowed(String key, int limit, long durationSeconds) {
-        
-        String redisKey = "rate_limit:" + key;
-        long now = System.currentTimeMillis();
-        long windowStart = now - (durationSeconds * 1000);
-        
-        // Remove old entries (outside window)
-        redisTemplate.opsForZSet().removeRangeByScore(redisKey, 0, windowStart);
-        
-        // Get current count
-        Long count = redisTemplate.opsForZSet().size(redisKey);
-        
-        if (count == null) {
-            count = 0L;
+    // KEYS[1] = nodes, KEYS[2..] = buckets; ARGV[1] = node id, ARGV[2] = node timeout ms,
+    // then per bucket: taken, period ms, limit.
+    // Returns {node count, then per bucket the cluster TAT in microseconds from now}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SYNC = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + tonumber(time[2]) / 1000
+            redis.call('ZADD', KEYS[1], now, ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2]))
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            local result = {redis.call('ZCARD', KEYS[1])}
+            for i = 2, #KEYS do
+              local arg = (i - 2) * 3 + 3
+              local taken = tonumber(ARGV[arg])
+              local period = tonumber(ARGV[arg + 1])
+              local interval = period / tonumber(ARGV[arg + 2])
+              local tat = tonumber(redis.call('GET', KEYS[i]) or now)
+              if tat < now then
+                tat = now
+              end
+              if taken > 0 then
+                tat = math.min(tat + taken * interval, now + period)
+                redis.call('SET', KEYS[i], string.format('%.3f', tat), 'PX', math.ceil(tat - now) + 1)
+              end
+              result[i] = math.floor((tat - now) * 1000)
+            end
+            return result
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long syncIntervalMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Idle buckets are full, dropping them loses nothing; the size bound keeps a flood of distinct
+    // clients (spoofed or rotating addresses) from growing the map without limit
+    private final Cache<String, Bucket> buckets;
+
+    // Written by the sync thread
+    private volatile boolean localOnly;
+    private volatile int nodes = 1;
+
+    public RateLimitService(StringRedisTemplate redisTemplate,
+                            @Value("${app.rate-limit.sync-interval-ms:200}") long syncIntervalMillis,
+                            @Value("${app.rate-limit.max-buckets:100000}") long maxBuckets) {
+        this.redisTemplate = redisTemplate;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfter(Expiry.accessing((String key, Bucket bucket) -> bucket.idleTimeout()))
+                .build();
+    }
+
+    // Takes one request from the bucket of key if there is one left; called on the request thread
+    public Decision tryAcquire(String key, int limit, Duration period) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(k, limit, period));
+        bucket.update(limit, period);
+        int effective = localOnly ? Math.max(1, (limit + nodes - 1) / nodes) : limit;
+        return bucket.acquire(System.nanoTime(), limit, effective);
+    }
+
+    // Push local takes, pull the other nodes' takes
+    @Scheduled(fixedDelayString = "${app.rate-limit.sync-interval-ms:200}")
+    public void sync() {
+        long now = System.nanoTime();
+        List<Bucket> active = new ArrayList<>();
+        for (Bucket bucket : buckets.asMap().values()) {
+            // A bucket unused for a whole period is full on every node
+            if (now - bucket.lastUsed < bucket.periodNanos) {
+                active.add(bucket);
+            }
         }
-        
-        if (count < limit) {
-            // Add current request
-            redisTemplate.opsForZSet().add(redisKey, String.valueOf(now), now);
-            
-            // Set expiry
-            redisTemplate.expire(redisKey, durationSeconds + 10, TimeUnit.SECONDS);
-            
-            log.debug("Request allowed: key={}, count={}/{}", key, count + 1, limit);
-            return true;
+        try {
+            for (int from = 0; from < Math.max(active.size(), 1); from += SYNC_BATCH) {
+                sync(active.subList(from, Math.min(active.size(), from + SYNC_BATCH)));
+            }
+            if (localOnly) {
+                localOnly = false;
+                log.info("Rate limiter synced with Redis again ({} nodes)", nodes);
+            }
+        } catch (DataAccessException e) {
+            if (!localOnly) {
+                localOnly = true;
+                log.warn("Rate limiter sync failed, enforcing local shares of 1/{}: {}", nodes, e.getMessage());
+            }
         }
-        
-        log.warn("Rate limit exceeded: key={}, count={}/{}", key, count, limit);
-        return false;
     }
 
-    /**
-     * Get remaining requests
-     */
-    public long getRemainingRequests(String key, int limit, long durationSeconds) {
-        
-        String redisKey = "rate_limit:" + key;
-        long now = System.currentTimeMillis();
-        long windowStart = now - (durationSeconds * 1000);
-        // Remove old entries
-        redisTemplate.opsForZSet().removeRangeByScore(redisKey, 0, windowStart);
-        
-        // Get current count
-        Long count = redisTemplate.opsForZSet().size(redisKey);
-        
-        if (count == null) {
-            return limit;
+    private void sync(List<Bucket> batch) {
+        List<String> keys = new ArrayList<>(batch.size() + 1);
+        List<String> args = new ArrayList<>(batch.size() * 3 + 2);
+        keys.add(NODES_KEY);
+        args.add(nodeId);
+        args.add(Long.toString(Math.max(syncIntervalMillis * 10, 5_000)));
+        long[] taken = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Bucket bucket = batch.get(i);
+            taken[i] = bucket.taken.sumThenReset();
+            keys.add(KEY_PREFIX + bucket.key);
+            args.add(Long.toString(taken[i]));
+            args.add(Long.toString(bucket.periodNanos / 1_000_000));
+            args.add(Integer.toString(bucket.limit));
+        }
+
+        List<?> result;
+        try {
+            result = redisTemplate.execute(SYNC, keys, args.toArray());
+        } catch (DataAccessException e) {
+            // Not seen by Redis: pushed with the next successful sync (the script caps them at one period)
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).taken.add(taken[i]);
+            }
+            throw e;
+        }
+        if (result == null || result.size() != batch.size() + 1) {
+            return;
         }
-        
-        return Math.max(0, limit - count);
+
+        long now = System.nanoTime();
+        nodes = (int) Math.max(1, ((Number) result.get(0)).longValue());
+        for (int i = 0; i < batch.size(); i++) {
+            long micros = ((Number) result.get(i + 1)).longValue();
+            batch.get(i).merge(now + micros * 1_000);
+        }
+    }
+
+    // Tests
+    long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
     }
 
     /**
-     * Get time until reset (in seconds)
+     * Outcome of one check.
+     *
+     * @param remaining  requests that would still be allowed right now
+     * @param reset      time until the bucket is full again
+     * @param retryAfter time until the next request is allowed (zero when allowed)
      */
-    public long getTimeUntilReset(String key) {
-        
-        String redisKey = "rate_limit:" + key;
+    public record Decision(boolean allowed, int limit, long remaining, Duration reset, Duration retryAfter) {
+    }
+
+    private static final class Bucket {
+        final String key;
+        // Follow reloaded policies
+        volatile int limit;
+        volatile long periodNanos;
+        // Theoretical arrival time on the System.nanoTime() scale
+        final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        // Requests taken since the last sync
+        final LongAdder taken = new LongAdder();
+        volatile long lastUsed = System.nanoTime();
+
+        Bucket(String key, int limit, Duration period) {
+            this.key = key;
+            this.limit = limit;
+            this.periodNanos = period.toNanos();
+        }
 
-        return redisTemplate.getExpire(redisKey, TimeUnit.SECONDS);
+        void update(int limit, Duration period) {
+            if (this.limit != limit || this.periodNanos != period.toNanos()) {
+                this.limit = limit;
+                this.periodNanos = period.toNanos();
+            }
+        }
+
+        Decision acquire(long now, int limit, int effective) {
+            long period = periodNanos;
+            long interval = period / effective;
+            while (true) {
+                long current = tat.get();
+                long start = Math.max(current, now);
+                long next = start + interval;
+                long allowAt = next - period;
+                if (allowAt > now) {
+                    return new Decision(false, limit, 0, Duration.ofNanos(start - now), Duration.ofNanos(allowAt - now));
+                }
+                if (tat.compareAndSet(current, next)) {
+                    taken.increment();
+                    lastUsed = now;
+                    return new Decision(true, limit, (now - allowAt) / interval,
+                            Duration.ofNanos(next - now), Duration.ZERO);
+                }
+            }
+        }
+
+        // The cluster TAT already contains this node's takes
+        void merge(long clusterTat) {
+            tat.accumulateAndGet(clusterTat, Math::max);
+        }
+
+        Duration idleTimeout() {
+            return Duration.ofNanos(periodNanos * 2);
+        }
     }
-}
\ No newline at end of file
+}
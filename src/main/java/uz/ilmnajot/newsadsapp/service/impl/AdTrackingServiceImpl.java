@@ -0,0 +1,68 @@
+package uz.ilmnajot.newsadsapp.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import uz.ilmnajot.newsadsapp.enums.AdEventType;
+import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
+import uz.ilmnajot.newsadsapp.service.AdCapTracker;
+import uz.ilmnajot.newsadsapp.service.AdDecisionEngine;
+import uz.ilmnajot.newsadsapp.service.AdEventPipeline;
+import uz.ilmnajot.newsadsapp.service.AdEventTokens;
+import uz.ilmnajot.newsadsapp.service.AdTrackingService;
+
+import java.net.URI;
+
+// Ids are resolved from the in-memory ad snapshot, so tracking never hits the database on the request thread.
+// Only events carrying an unused tracking token of a served ad are counted (AdEventTokens)
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdTrackingServiceImpl implements AdTrackingService {
+
+    private final AdDecisionEngine adDecisionEngine;
+    private final AdEventPipeline adEventPipeline;
+    private final AdCapTracker adCapTracker;
+    private final AdEventTokens adEventTokens;
+
+    // Impression beacon: unknown or no longer live assignments and invalid or used tokens are ignored
+    @Override
+    public void recordImpression(Long assignmentId, String token) {
+        AdDecisionEngine.ServedAd ad = adDecisionEngine.findServed(assignmentId);
+        if (ad == null) {
+            log.debug("Impression for unknown assignment {}", assignmentId);
+            return;
+        }
+        if (!adEventTokens.claim(ad.assignmentId(), token, AdEventType.IMPRESSION)) {
+            log.debug("Impression of assignment {} without a valid token", assignmentId);
+            return;
+        }
+        adEventPipeline.record(ad, AdEventType.IMPRESSION);
+        adCapTracker.record(ad.campaignId(), AdEventType.IMPRESSION);
+    }
+
+    // Click: returns the landing URL to redirect to; the click is counted only once the URL is known to be
+    // usable and only for a valid, unused token (without one the visitor is still redirected)
+    @Override
+    public URI recordClick(Long assignmentId, String token) {
+        AdDecisionEngine.ServedAd ad = adDecisionEngine.findServed(assignmentId);
+        if (ad == null || ad.landingUrl() == null || ad.landingUrl().isBlank()) {
+            throw new ResourceNotFoundException("Ad not found");
+        }
+        URI location;
+        try {
+            location = URI.create(ad.landingUrl());
+        } catch (IllegalArgumentException e) {
+            // Saved before landing URLs were validated
+            log.warn("Assignment {} has an invalid landing URL '{}': {}", assignmentId, ad.landingUrl(), e.getMessage());
+            throw new ResourceNotFoundException("Ad not found");
+        }
+        if (adEventTokens.claim(ad.assignmentId(), token, AdEventType.CLICK)) {
+            adEventPipeline.record(ad, AdEventType.CLICK);
+            adCapTracker.record(ad.campaignId(), AdEventType.CLICK);
+        } else {
+            log.debug("Click of assignment {} without a valid token", assignmentId);
+        }
+        return location;
+    }
+}
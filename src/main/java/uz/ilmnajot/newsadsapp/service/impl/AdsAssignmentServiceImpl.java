@@ -2,9 +2,8 @@ package uz.ilmnajot.newsadsapp.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.ilmnajot.newsadsapp.dto.AdsAssignmentDto;
@@ -13,6 +12,7 @@ import uz.ilmnajot.newsadsapp.entity.AdsAssignment;
 import uz.ilmnajot.newsadsapp.entity.AdsCampaign;
 import uz.ilmnajot.newsadsapp.entity.AdsCreative;
 import uz.ilmnajot.newsadsapp.entity.AdsPlacement;
+import uz.ilmnajot.newsadsapp.event.AdsChangedEvent;
 import uz.ilmnajot.newsadsapp.exception.BadRequestException;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.mapper.AdsAssignmentMapper;
@@ -20,11 +20,13 @@ import uz.ilmnajot.newsadsapp.repository.AdsAssignmentRepository;
 import uz.ilmnajot.newsadsapp.repository.AdsCampaignRepository;
 import uz.ilmnajot.newsadsapp.repository.AdsCreativeRepository;
 import uz.ilmnajot.newsadsapp.repository.AdsPlacementRepository;
+import uz.ilmnajot.newsadsapp.service.AdDecisionEngine;
+import uz.ilmnajot.newsadsapp.service.AdEventTokens;
 import uz.ilmnajot.newsadsapp.service.AdsAssignmentService;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,7 +39,9 @@ public class AdsAssignmentServiceImpl implements AdsAssignmentService {
     private final AdsCampaignRepository campaignRepository;
     private final AdsCreativeRepository creativeRepository;
     private final AdsAssignmentMapper assignmentMapper;
-    private final AdsAssignmentRepository adsAssignmentRepository;
+    private final AdDecisionEngine adDecisionEngine;
+    private final AdEventTokens adEventTokens;
+    private final ApplicationEventPublisher eventPublisher;
 
     // CREATE Assignment
     @Transactional
@@ -77,6 +81,7 @@ public class AdsAssignmentServiceImpl implements AdsAssignmentService {
                 .build();
 
         AdsAssignment saved = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new AdsChangedEvent("ASSIGNMENT", saved.getId()));
 
         log.info("Assignment created: id={}, placement={}, campaign={}, weight={}",
                 saved.getId(), placement.getCode(), campaign.getName(), request.getWeight());
@@ -160,6 +165,7 @@ public class AdsAssignmentServiceImpl implements AdsAssignmentService {
         assignment.setUpdatedAt(LocalDateTime.now());
 
         AdsAssignment updated = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new AdsChangedEvent("ASSIGNMENT", id));
 
         log.info("Assignment updated: id={}", id);
 
@@ -178,6 +184,7 @@ public class AdsAssignmentServiceImpl implements AdsAssignmentService {
             throw new ResourceNotFoundException("Assignment not found");
         }
         assignmentRepository.deleteById(id);
+        eventPublisher.publishEvent(new AdsChangedEvent("ASSIGNMENT", id));
         log.info("Assignment deleted: id={}", id);
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
@@ -186,68 +193,21 @@ public class AdsAssignmentServiceImpl implements AdsAssignmentService {
     }
 
     @Override
-    @Cacheable(value = "publicAds", key = "'placement:' + #placementCode + ':lang:' + (#lang ?: 'uz') + ':cat:' + (#categoryId ?: 'all')", unless = "#result == null")
     // findActiveAssignmentsByPlacement
     public ApiResponse findActiveAssignmentsByPlacement(String placementCode, String lang, Long categoryId) {
 
-        LocalDateTime now = LocalDateTime.now();
-        List<AdsAssignment> assignments = adsAssignmentRepository.findActiveAssignmentsByPlacement(placementCode, now);
+        // Served from the in-memory snapshot, weighted pick per request
+        AdsAssignmentDto selected = adDecisionEngine.select(placementCode, lang, categoryId);
 
-        // Filter by language and category
-        List<AdsAssignment> filtered = assignments.stream()
-                .filter(a -> matchesLangFilter(a, lang))
-                .filter(a -> matchesCategoryFilter(a, categoryId))
-                .collect(Collectors.toList());
-
-        if (filtered.isEmpty()) {
+        if (selected == null) {
             throw new ResourceNotFoundException("No active ad found for placement: " + placementCode);
         }
 
-        // Weight-based selection
-        AdsAssignment selected = selectByWeight(filtered);
-
+        // Required by the impression beacon and the click of this ad
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
-                .data(this.assignmentMapper.toDto(selected))
+                .data(selected)
+                .meta(Map.of("trackingToken", adEventTokens.issue(selected.getId())))
                 .build();
     }
-
-    // matchesLangFilter
-    private boolean matchesLangFilter(AdsAssignment assignment, String lang) {
-        if (assignment.getLangFilter() == null || assignment.getLangFilter().isEmpty()) {
-            return true; // No filter means all languages
-        }
-        return assignment.getLangFilter().contains(lang);
-    }
-
-    // matchesCategoryFilter
-    private boolean matchesCategoryFilter(AdsAssignment assignment, Long categoryId) {
-        if (assignment.getCategoryFilter() == null || assignment.getCategoryFilter().isEmpty()) {
-            return true; // No filter means all categories
-        }
-        if (categoryId == null) {
-            return true;
-        }
-        return assignment.getCategoryFilter().contains(categoryId);
-    }
-
-    // selectByWeight
-    private AdsAssignment selectByWeight(List<AdsAssignment> assignments) {
-        Random random = new Random();
-        int totalWeight = assignments.stream()
-                .mapToInt(a -> a.getWeight() != null ? a.getWeight() : 100)
-                .sum();
-
-        int randomValue = random.nextInt(totalWeight);
-        int currentWeight = 0;
-
-        for (AdsAssignment assignment : assignments) {
-            currentWeight += assignment.getWeight() != null ? assignment.getWeight() : 100;
-            if (randomValue < currentWeight) {
-                return assignment;
-            }
-        }
-
-        return assignments.get(0); // Fallback
-    }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package uz.ilmnajot.newsadsapp.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,6 +10,7 @@ import uz.ilmnajot.newsadsapp.dto.AdsCampaignDto;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.AdsCampaign;
 import uz.ilmnajot.newsadsapp.enums.AdsComStatus;
+import uz.ilmnajot.newsadsapp.event.AdsChangedEvent;
 import uz.ilmnajot.newsadsapp.exception.BadRequestException;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.mapper.AdsCampaignMapper;
@@ -26,6 +28,7 @@ public class AdsCampaignServiceImpl implements AdsCampaignService {
 
     private final AdsCampaignRepository campaignRepository;
     private final AdsCampaignMapper campaignMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * CREATE Campaign
@@ -141,6 +144,7 @@ public class AdsCampaignServiceImpl implements AdsCampaignService {
         campaign.setUpdatedAt(LocalDateTime.now());
         
         AdsCampaign updated = campaignRepository.save(campaign);
+        eventPublisher.publishEvent(new AdsChangedEvent("CAMPAIGN", id));
         
         log.info("Campaign updated: id={}, name={}", id, updated.getName());
         
@@ -175,6 +179,7 @@ public class AdsCampaignServiceImpl implements AdsCampaignService {
         campaign.setUpdatedAt(LocalDateTime.now());
         
         AdsCampaign updated = campaignRepository.save(campaign);
+        eventPublisher.publishEvent(new AdsChangedEvent("CAMPAIGN", id));
         
         log.info("Campaign status changed: id={}, from={}, to={}", id, oldStatus, newStatus);
         
@@ -196,6 +201,7 @@ public class AdsCampaignServiceImpl implements AdsCampaignService {
                 .orElseThrow(() -> new ResourceNotFoundException("Campaign not found"));
         
         campaignRepository.deleteById(id);
+        eventPublisher.publishEvent(new AdsChangedEvent("CAMPAIGN", id));
         
         log.info("Campaign deleted: id={}, name={}", id, campaign.getName());
         
@@ -2,6 +2,7 @@ package uz.ilmnajot.newsadsapp.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +13,7 @@ import uz.ilmnajot.newsadsapp.entity.AdsCreative;
 import uz.ilmnajot.newsadsapp.entity.AdsCreativeTranslation;
 import uz.ilmnajot.newsadsapp.entity.Media;
 import uz.ilmnajot.newsadsapp.enums.CreativeType;
+import uz.ilmnajot.newsadsapp.event.AdsChangedEvent;
 import uz.ilmnajot.newsadsapp.exception.BadRequestException;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.repository.AdsCampaignRepository;
@@ -19,6 +21,8 @@ import uz.ilmnajot.newsadsapp.repository.AdsCreativeRepository;
 import uz.ilmnajot.newsadsapp.repository.MediaRepository;
 import uz.ilmnajot.newsadsapp.service.AdsCreativeService;
 
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -31,6 +35,7 @@ public class AdsCreativeServiceImpl implements AdsCreativeService {
     private final AdsCreativeRepository creativeRepository;
     private final AdsCampaignRepository campaignRepository;
     private final MediaRepository mediaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * CREATE Creative
@@ -48,6 +53,7 @@ public class AdsCreativeServiceImpl implements AdsCreativeService {
                 request.getType(),
                 request.getImageMediaId(),
                 request.getHtmlSnippet());
+        validateLandingUrl(request.getLandingUrl());
 
         AdsCreative creative = AdsCreative.builder()
                 .campaign(campaign)
@@ -147,6 +153,7 @@ public class AdsCreativeServiceImpl implements AdsCreativeService {
 
         // Update fields
         if (request.getLandingUrl() != null) {
+            validateLandingUrl(request.getLandingUrl());
             creative.setLandingUrl(request.getLandingUrl());
         }
 
@@ -188,6 +195,7 @@ public class AdsCreativeServiceImpl implements AdsCreativeService {
         creative.setUpdatedAt(LocalDateTime.now());
 
         AdsCreative updated = creativeRepository.save(creative);
+        eventPublisher.publishEvent(new AdsChangedEvent("CREATIVE", id));
 
         log.info("Creative updated: id={}", id);
 
@@ -210,6 +218,7 @@ public class AdsCreativeServiceImpl implements AdsCreativeService {
         }
 
         creativeRepository.deleteById(id);
+        eventPublisher.publishEvent(new AdsChangedEvent("CREATIVE", id));
 
         log.info("Creative deleted: id={}", id);
 
@@ -231,6 +240,22 @@ public class AdsCreativeServiceImpl implements AdsCreativeService {
         }
     }
 
+    // The click endpoint redirects to it: an absolute http(s) URL or nothing
+    private void validateLandingUrl(String landingUrl) {
+        if (landingUrl == null || landingUrl.isBlank()) {
+            return;
+        }
+        try {
+            URI uri = new URI(landingUrl);
+            if (uri.getHost() == null
+                    || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+                throw new BadRequestException("Landing URL must be an absolute http(s) URL");
+            }
+        } catch (URISyntaxException e) {
+            throw new BadRequestException("Landing URL is not a valid URL");
+        }
+    }
+
     /**
      * Entity → DTO mapping
      */
@@ -2,12 +2,14 @@ package uz.ilmnajot.newsadsapp.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.ilmnajot.newsadsapp.dto.AdsPlacementDto;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.AdsPlacement;
+import uz.ilmnajot.newsadsapp.event.AdsChangedEvent;
 import uz.ilmnajot.newsadsapp.exception.BadRequestException;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.mapper.AdsPlacementMapper;
@@ -24,6 +26,7 @@ public class AdsPlacementServiceImpl implements AdsPlacementService {
 
     private final AdsPlacementRepository placementRepository;
     private final AdsPlacementMapper adsPlacementMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -93,6 +96,7 @@ public class AdsPlacementServiceImpl implements AdsPlacementService {
         }
         this.adsPlacementMapper.toUpdate(placement, request);
         placement = this.placementRepository.save(placement);
+        eventPublisher.publishEvent(new AdsChangedEvent("PLACEMENT", id));
 
         log.info("Placement updated: id={}, code={}", id, placement.getCode());
         return ApiResponse.builder()
@@ -111,6 +115,7 @@ public class AdsPlacementServiceImpl implements AdsPlacementService {
         }
 
         placementRepository.deleteById(id);
+        eventPublisher.publishEvent(new AdsChangedEvent("PLACEMENT", id));
 
         log.info("Placement deleted: id={}", id);
 
@@ -1,15 +1,14 @@
 package uz.ilmnajot.newsadsapp.service.impl;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,11 +17,14 @@ import uz.ilmnajot.newsadsapp.dto.UserDto;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.Role;
 import uz.ilmnajot.newsadsapp.entity.User;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.mapper.UserMapper;
 import uz.ilmnajot.newsadsapp.repository.RoleRepository;
 import uz.ilmnajot.newsadsapp.repository.UserRepository;
+import uz.ilmnajot.newsadsapp.security.JwtPrincipal;
 import uz.ilmnajot.newsadsapp.security.JwtProvider;
+import uz.ilmnajot.newsadsapp.security.TokenRevocationService;
 import uz.ilmnajot.newsadsapp.service.AuthService;
 import uz.ilmnajot.newsadsapp.util.UserUtil;
 
@@ -36,24 +38,33 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
-    private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtProvider tokenProvider;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final UserUtil userUtil;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     // login
     public ApiResponse login(UserDto.LoginDto dto) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(dto.getUsername(), dto.getPassword()));
+        // Unknown and disabled users are refused before any hashing work (the IP limit applies even earlier)
+        User user = this.userRepository.findByUsername(dto.getUsername())
+                .filter(User::isEnabled)
+                .orElseThrow(() -> new BadCredentialsException("Bad credentials"));
+        // On the bounded hashing pool, 503 when it is saturated
+        if (!this.passwordEncoder.matches(dto.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        // Hash from before the current algorithm or work factor
+        if (this.passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(this.passwordEncoder.encode(dto.getPassword()));
+            user = this.userRepository.save(user);
+        }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(dto.getUsername());
-        String accessToken = this.tokenProvider.generateAccessToken(userDetails);
-        String refreshToken = this.tokenProvider.generateRefreshToken(userDetails);
+        String accessToken = this.tokenProvider.generateAccessToken(user);
+        String refreshToken = this.tokenProvider.generateRefreshToken(user);
 
         JwtResponse jwtResponse = JwtResponse.builder()
                 .accessToken(accessToken)
@@ -71,12 +82,20 @@ public class AuthServiceImpl implements AuthService {
 
     // refreshToken
     public ApiResponse refreshToken(String refreshToken) {
-        String username = this.tokenProvider.getUsernameFromToken(refreshToken);
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-        if (!tokenProvider.validateToken(refreshToken, userDetails)) {
-            throw new RuntimeException("Invalid refresh token");
+        Claims claims;
+        try {
+            claims = this.tokenProvider.parseRefreshToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid refresh token");
         }
-        String newAccessToken = this.tokenProvider.generateAccessToken(userDetails);
+        // Access tokens are not checked against the database, this is where roles and deactivation catch up
+        User user = this.userRepository.findByUsername(claims.getSubject())
+                .filter(User::isEnabled)
+                .orElseThrow(() -> new BadRequestException("Invalid refresh token"));
+        if (this.tokenRevocationService.isRevoked(claims.getId(), user.getId(), claims.getIssuedAt().toInstant())) {
+            throw new BadRequestException("Invalid refresh token");
+        }
+        String newAccessToken = this.tokenProvider.generateAccessToken(user);
         JwtResponse jwtResponse = JwtResponse.builder()
                 .accessToken(newAccessToken)
                 .tokenType("Bearer")
@@ -91,6 +110,24 @@ public class AuthServiceImpl implements AuthService {
                 .build();
     }
 
+    // logout: the access token of the request and, when given, the refresh token
+    @Override
+    public void logout(String refreshToken) {
+        JwtPrincipal principal = this.userUtil.getPrincipal();
+        this.tokenRevocationService.revokeToken(principal.tokenId(), principal.expiresAt());
+        if (refreshToken == null) {
+            return;
+        }
+        try {
+            Claims claims = this.tokenProvider.parseRefreshToken(refreshToken);
+            if (principal.username().equals(claims.getSubject())) {
+                this.tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration().toInstant());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid or expired, nothing to revoke
+        }
+    }
+
     // registerUser
     @Transactional
     public ApiResponse registerUser(UserDto.AddUserDto dto) {
@@ -138,6 +175,8 @@ public class AuthServiceImpl implements AuthService {
             user.setRoles(roleSet);
         }
         user = this.userRepository.save(user);
+        // Username and roles are token claims
+        this.tokenRevocationService.revokeUser(userId);
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
                 .message("Credentials updated successfully")
@@ -165,6 +204,9 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setIsActive(status);
         user = this.userRepository.save(user);
+        if (!status) {
+            this.tokenRevocationService.revokeUser(userId);
+        }
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
                 .message("User status changed successfully")
@@ -177,17 +219,17 @@ public class AuthServiceImpl implements AuthService {
     public ApiResponse removeUser(UUID userId) {
         try {
             this.userRepository.deleteById(userId);
-
-            return ApiResponse.builder()
-                    .status(HttpStatus.OK)
-                    .message("User deleted successfully")
-                    .build();
         } catch (Exception e) {
             return ApiResponse.builder()
                     .status(HttpStatus.BAD_REQUEST)
                     .message("User can not be deleted")
                     .build();
         }
+        this.tokenRevocationService.revokeUser(userId);
+        return ApiResponse.builder()
+                .status(HttpStatus.OK)
+                .message("User deleted successfully")
+                .build();
     }
 
     // getAllRoles
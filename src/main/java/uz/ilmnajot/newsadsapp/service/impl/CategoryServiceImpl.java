@@ -1,6 +1,7 @@
 package uz.ilmnajot.newsadsapp.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,6 +11,7 @@ import uz.ilmnajot.newsadsapp.dto.CategoryWithLangDto;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.Category;
 import uz.ilmnajot.newsadsapp.entity.CategoryTranslation;
+import uz.ilmnajot.newsadsapp.event.CategoryChangedEvent;
 import uz.ilmnajot.newsadsapp.exception.CategorySlugExistsException;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.mapper.CategoryMapper;
@@ -31,6 +33,7 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryTranslationRepository categoryTranslationRepository;
     private final SlugGenerator slugGenerator;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * CREATE - Yangi kategoriya yaratish
@@ -93,6 +96,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         // Saqlash (cascade=ALL tufayli translations ham saqlanadi)
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId(), false));
 
         // Response DTO'ga mapping
         CategoryDto responseDto = this.categoryMapper.toDto(savedCategory);
@@ -318,6 +322,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         // Saqlash
         Category updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, true));
 
         CategoryDto responseDto = this.categoryMapper.toDto(updatedCategory);
 
@@ -341,6 +346,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setUpdatedAt(LocalDateTime.now());
 
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, true));
 
         String status = category.getIsActive() ? "activated" : "deactivated";
         return ApiResponse.builder()
@@ -369,6 +375,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         // O'chirish
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, true));
 
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
@@ -1,36 +1,41 @@
 package uz.ilmnajot.newsadsapp.service.impl;
 
-import io.minio.*;
-import io.minio.errors.MinioException;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectArgs;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.Media;
 import uz.ilmnajot.newsadsapp.entity.User;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
+import uz.ilmnajot.newsadsapp.mapper.MediaMapper;
 import uz.ilmnajot.newsadsapp.repository.MediaRepository;
-import uz.ilmnajot.newsadsapp.repository.UserRepository;
 import uz.ilmnajot.newsadsapp.service.MediaService;
+import uz.ilmnajot.newsadsapp.storage.MediaUploader;
 import uz.ilmnajot.newsadsapp.util.UserUtil;
 
 import java.io.IOException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.io.InputStream;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MediaServiceImpl implements MediaService {
 
+    private static final Pattern EXTENSION = Pattern.compile("(\\.[A-Za-z0-9]{1,10})?");
+
     private final MediaRepository mediaRepository;
     private final MinioClient minioClient;
-    private final UserRepository userRepository;
+    private final MediaUploader mediaUploader;
     private final UserUtil userUtil;
+    private final MediaMapper mediaMapper;
 
     @Value("${app.s3.bucket:media}")
     private String bucketName;
@@ -39,47 +44,44 @@ public class MediaServiceImpl implements MediaService {
     private String endpoint;
 
     @Override
-    // uploadMedia
+    // uploadMedia: multipart form, the file is in memory (spring.servlet.multipart.file-size-threshold)
     public ApiResponse uploadMedia(MultipartFile file) {
-        log.info("Uploading media...");
-        User currentUser = this.userUtil.getCurrentUser();
-        log.info("username: {}", currentUser.getUsername());
         try {
-            // Check if bucket exists, create if not
-            boolean found = minioClient.bucketExists(BucketExistsArgs
-                    .builder()
-                    .bucket(bucketName)
-                    .build());
-            if (!found) {
-                log.info("Bucket '{}' does not exist. Creating it...", bucketName);
-                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
-            }
+            return uploadMedia(file.getInputStream(), file.getOriginalFilename(), file.getContentType());
+        } catch (IOException e) {
+            log.error("Error uploading media", e);
+            return uploadFailed(e);
+        }
+    }
 
-            User user = userRepository.findByUsername(currentUser.getUsername())
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            String originalFilename = file.getOriginalFilename();
+    @Override
+    // uploadMedia: streamed into the bucket as it is read, any size up to app.s3.upload.max-size-mb
+    public ApiResponse uploadMedia(InputStream content, String originalFilename, String contentType) {
+        log.info("Uploading media...");
+        log.info("username: {}", this.userUtil.getPrincipal().username());
+        try {
+            User user = this.userUtil.getCurrentUserReference();
             //doc-uments.pdf
             String extension = originalFilename != null && originalFilename.contains(".") ?
                     originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-            //extension=>.pdf
+            //extension=>.pdf, the name comes from the client: anything else is dropped from the key
+            if (!EXTENSION.matcher(extension).matches()) {
+                extension = "";
+            }
             String storageKey = UUID.randomUUID() + extension;
+            if (contentType == null) {
+                contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            }
 
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(storageKey)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(file.getContentType())
-                            .build()
-            );
+            long size = this.mediaUploader.upload(storageKey, contentType, content);
 
             String url = endpoint + "/" + bucketName + "/" + storageKey;
 
             Media media = Media.builder()
                     .storageKey(storageKey)
                     .url(url)
-                    .mimeType(file.getContentType())
-                    .size(file.getSize())
+                    .mimeType(contentType)
+                    .size(size)
                     .owner(user)
                     .isPublic(true)
                     .build();
@@ -88,15 +90,11 @@ public class MediaServiceImpl implements MediaService {
             return ApiResponse.builder()
                     .status(HttpStatus.CREATED)
                     .message("Media uploaded successfully")
-                    .data(media)
+                    .data(this.mediaMapper.toDto(media))
                     .build();
-        } catch (MinioException | IOException | NoSuchAlgorithmException | InvalidKeyException e) {
+        } catch (IOException e) {
             log.error("Error uploading media", e);
-            return ApiResponse.builder()
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .message("Failed to upload media")
-                    .data(e.getMessage())
-                    .build();
+            return uploadFailed(e);
         }
     }
 
@@ -127,5 +125,12 @@ public class MediaServiceImpl implements MediaService {
                     .build();
         }
     }
-}
 
+    private ApiResponse uploadFailed(IOException e) {
+        return ApiResponse.builder()
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .message("Failed to upload media")
+                .data(e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package uz.ilmnajot.newsadsapp.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.search.NewsSearchEngine;
+import uz.ilmnajot.newsadsapp.service.NewsSearchService;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewsSearchServiceImpl implements NewsSearchService {
+
+    static final int MAX_PAGE_SIZE = 50;
+    // Deepest result served; keeps OFFSET (and Lucene's offset + limit top-N) small and far from int overflow
+    static final int MAX_OFFSET = 1000;
+
+    private final NewsSearchEngine newsSearchEngine;
+
+    @Override
+    // search
+    public ApiResponse search(NewsFilter filter, int page, int size) {
+        if (filter.getKeyword() == null) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page > MAX_OFFSET / size) {
+            throw new BadRequestException("Only the first " + MAX_OFFSET + " results can be paged through; "
+                    + "refine the query");
+        }
+
+        // One extra row tells whether there is a next page (no count over all matches)
+        List<NewsSearchHit> hits = newsSearchEngine.searchPublished(
+                filter, LocalDateTime.now(), page * size, size + 1);
+
+        if (hits.isEmpty()) {
+            return ApiResponse.builder()
+                    .status(HttpStatus.NOT_FOUND)
+                    .data(List.of())
+                    .build();
+        }
+
+        boolean hasNext = hits.size() > size;
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("hasNext", hasNext);
+
+        return ApiResponse.builder()
+                .status(HttpStatus.OK)
+                .message("Success")
+                .data(hasNext ? hits.subList(0, size) : hits)
+                .meta(meta)
+                .build();
+    }
+}
@@ -1,11 +1,11 @@
 package uz.ilmnajot.newsadsapp.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.ilmnajot.newsadsapp.dto.NewsCreateRequest;
@@ -14,8 +14,10 @@ import uz.ilmnajot.newsadsapp.dto.NewsResponse;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.*;
 import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.event.NewsChangedEvent;
 import uz.ilmnajot.newsadsapp.exception.BadRequestException;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
+import uz.ilmnajot.newsadsapp.filter.NewsCursor;
 import uz.ilmnajot.newsadsapp.filter.NewsFilter;
 import uz.ilmnajot.newsadsapp.mapper.NewsHistoryMapper;
 import uz.ilmnajot.newsadsapp.mapper.NewsMapper;
@@ -27,6 +29,7 @@ import uz.ilmnajot.newsadsapp.util.UserUtil;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -42,17 +45,17 @@ public class NewsServiceImpl implements NewsService {
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
     private final MediaRepository mediaRepository;
-    private final UserRepository userRepository;
     private final SlugGenerator slugGenerator;
     private final UserUtil userUtil;
     private final NewsMapper newsMapper;
     private final NewsHistoryMapper newsHistoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     //done
     @Transactional
     @Override
     public NewsResponse createNews(NewsCreateRequest request) {
-        User currentUser = this.userUtil.getCurrentUser();
+        User currentUser = this.userUtil.getCurrentUserReference();
         News news = News.builder()
                 .author(currentUser)
                 .status(NewsStatus.valueOf(request.getStatus().toUpperCase()))
@@ -109,7 +112,9 @@ public class NewsServiceImpl implements NewsService {
         }
         // Record history
         recordStatusChange(news, news.getStatus().name(), currentUser);
-        return this.newsMapper.toDto(newsRepository.save(news));
+        news = newsRepository.save(news);
+        eventPublisher.publishEvent(NewsChangedEvent.of(news));
+        return this.newsMapper.toDto(news);
     }
 
     @Override
@@ -126,6 +131,42 @@ public class NewsServiceImpl implements NewsService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    // getNewsFeed: keyset pagination on (publishAt, id), no offset and no count
+    public ApiResponse getNewsFeed(NewsFilter filter, String cursor, int size) {
+        NewsCursor after = NewsCursor.decode(cursor);
+
+        // One extra row tells whether there is a next page
+        List<News> news = new ArrayList<>(size + 1);
+        if (after.dated()) {
+            news.addAll(this.newsRepository.findBy(filter.and(after.datedAfter()), q -> q
+                    .sortBy(Sort.by(Sort.Direction.DESC, "publishAt", "id"))
+                    .limit(size + 1)
+                    .all()));
+        }
+        if (news.size() <= size) {
+            // Dated rows are exhausted, continue with the undated ones (NULLS LAST)
+            news.addAll(this.newsRepository.findBy(filter.and(after.undatedAfter()), q -> q
+                    .sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                    .limit(size + 1 - news.size())
+                    .all()));
+        }
+
+        boolean hasNext = news.size() > size;
+        List<News> content = hasNext ? news.subList(0, size) : news;
+
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("next", hasNext ? NewsCursor.of(content.get(content.size() - 1)).encode() : null);
+
+        return ApiResponse.builder()
+                .status(HttpStatus.OK)
+                .message("Success")
+                .data(this.newsMapper.toDto(content))
+                .meta(meta)
+                .build();
+    }
+
     @Override
     // getNewsById
     public NewsResponse getNewsById(Long id) {
@@ -150,10 +191,11 @@ public class NewsServiceImpl implements NewsService {
                 "from", oldStatus,
                 "to", newStatus
         );
-        User currentUser = getCurrentUser();
+        User currentUser = this.userUtil.getCurrentUserReference();
         this.recordStatusChange(news, oldStatus, newStatus, currentUser, diff);
         news.setStatus(newStatus);
         news = newsRepository.save(news);
+        eventPublisher.publishEvent(NewsChangedEvent.of(news));
         return this.newsMapper.toDto(news);
     }
 
@@ -180,7 +222,7 @@ public class NewsServiceImpl implements NewsService {
         News news = newsRepository.findByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("News not found"));
 
-        User currentUser = getCurrentUser();
+        User currentUser = this.userUtil.getCurrentUserReference();
 
         // History yozish
         Map<String, Object> diff = Map.of(
@@ -188,7 +230,7 @@ public class NewsServiceImpl implements NewsService {
                 "oldDeletedStatus", false,
                 "newDeletedStatus", true,
                 "timestamp", LocalDateTime.now().toString(),
-                "user", currentUser.getUsername()
+                "user", this.userUtil.getPrincipal().username()
         );
 
         this.recordNewsHistory(news, currentUser, "ACTIVE", "DELETED", diff);
@@ -197,6 +239,7 @@ public class NewsServiceImpl implements NewsService {
         news.setIsDeleted(true);
         news.setDeletedAt(LocalDateTime.now());
         newsRepository.save(news);
+        eventPublisher.publishEvent(NewsChangedEvent.of(news));
     }
 
     @Override
@@ -208,7 +251,7 @@ public class NewsServiceImpl implements NewsService {
         if (!news.getIsDeleted()) {
             throw new IllegalArgumentException("News is not deleted");
         }
-        User user = this.getCurrentUser();
+        User user = this.userUtil.getCurrentUserReference();
 
         Boolean oldDeletedStatus = news.getIsDeleted();
         news.setIsDeleted(false);
@@ -218,10 +261,11 @@ public class NewsServiceImpl implements NewsService {
                 "action", "restore",
                 "oldDeletedStatus", oldDeletedStatus,     // true
                 "newDeletedStatus", false,                 // false
-                "user", user.getUsername(),
+                "user", this.userUtil.getPrincipal().username(),
                 "timestamp", LocalDateTime.now().toString()
         );
         this.recordNewsHistory(news, user, news.getIsDeleted().toString(), news2.getIsDeleted().toString(), diff);
+        eventPublisher.publishEvent(NewsChangedEvent.of(news2));
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
                 .message("News restored successfully")
@@ -244,11 +288,13 @@ public class NewsServiceImpl implements NewsService {
     @Transactional
     // hardDeleteNews
     public ApiResponse hardDeleteNews(Long id) {
-        if (!newsRepository.existsById(id)) {
-            throw new ResourceNotFoundException("News not found");
-        }
+        News news = newsRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("News not found"));
+        // Captured before the delete, the listener needs the slugs/category/tags
+        NewsChangedEvent event = NewsChangedEvent.of(news);
         try {
             newsRepository.deleteById(id);
+            eventPublisher.publishEvent(event);
             return ApiResponse.builder()
                     .status(HttpStatus.NO_CONTENT)
                     .build();
@@ -284,13 +330,5 @@ public class NewsServiceImpl implements NewsService {
         newsHistoryRepository.save(history);
     }
 
-    // getCurrentUser
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
 }
 
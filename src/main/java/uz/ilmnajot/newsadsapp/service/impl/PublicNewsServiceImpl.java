@@ -3,35 +3,36 @@ package uz.ilmnajot.newsadsapp.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
 import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.Category;
-import uz.ilmnajot.newsadsapp.entity.News;
 import uz.ilmnajot.newsadsapp.entity.Tag;
-import uz.ilmnajot.newsadsapp.enums.NewsStatus;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
+import uz.ilmnajot.newsadsapp.filter.NewsCursor;
 import uz.ilmnajot.newsadsapp.filter.NewsFilter;
 import uz.ilmnajot.newsadsapp.mapper.CategoryMapper;
-import uz.ilmnajot.newsadsapp.mapper.NewsMapper;
 import uz.ilmnajot.newsadsapp.repository.CategoryRepository;
-import uz.ilmnajot.newsadsapp.repository.NewsRepository;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepository;
 import uz.ilmnajot.newsadsapp.repository.TagRepository;
+import uz.ilmnajot.newsadsapp.service.NewsDetailRenderer;
 import uz.ilmnajot.newsadsapp.service.PublicNewsService;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RequiredArgsConstructor
 @Service
 @Slf4j
 public class PublicNewsServiceImpl implements PublicNewsService {
-        private final NewsRepository newsRepository;
-        private final NewsMapper newsMapper;
+        private final PublicNewsViewRepository publicNewsViewRepository;
+        private final NewsDetailRenderer newsDetailRenderer;
         private final CategoryRepository categoryRepository;
         private final CategoryMapper categoryMapper;
         private final TagRepository tagRepository;
@@ -46,11 +47,14 @@ public class PublicNewsServiceImpl implements PublicNewsService {
         // "':tag:' + (#tag != null ? #tag : 'all')",
         // unless = "#result == null || #result.data == null || #result.data.isEmpty()"
         // )
+        // Date searches are not cached: they are not part of the key and are rarely repeated
         @Cacheable(value = "newsList", key = "'lang:' + (#filter.lang != null ? #filter.lang : 'uz') + " +
                         "':page:' + #pageable.pageNumber + " +
                         "':size:' + #pageable.pageSize + " +
                         "':cat:' + (#filter.categoryId != null ? #filter.categoryId : 'all') + " +
-                        "':tag:' + (#filter.tag != null ? #filter.tag : 'all')", sync = true)
+                        "':tag:' + (#filter.tag != null ? #filter.tag : 'all')",
+                        condition = "#filter.from == null && #filter.to == null",
+                        sync = true)
         @Transactional(readOnly = true)
         public ApiResponse getPublicNews(
                         NewsFilter filter, Pageable pageable) {
@@ -58,49 +62,77 @@ public class PublicNewsServiceImpl implements PublicNewsService {
                 log.info("Cache MISS - Fetching from DB with filter={}, page={}",
                                 filter, pageable.getPageNumber());
 
-                // 🔥 PUBLISHED + DATE constraint majburiy
-                filter.setStatus(NewsStatus.PUBLISHED);
-                filter.setDeleted(false);
-
-                Page<News> page = newsRepository.findAll(filter, pageable);
+                // Single-table reads from the read model; the order is fixed in the query
+                LocalDateTime now = LocalDateTime.now();
+                List<NewsPublicResponse> responses = publicNewsViewRepository.findPage(
+                                filter, now, pageable.getOffset(), pageable.getPageSize());
 
-                if (page.isEmpty()) {
+                if (responses.isEmpty()) {
                         return ApiResponse.builder()
                                         .status(HttpStatus.NOT_FOUND)
                                         .data(List.of())
                                         .build();
                 }
-                String lang = filter.getLang(); // 🔥 mapping uchun
 
-                List<NewsPublicResponse> responses = page.getContent().stream()
-                                .map(news -> newsMapper.toPublicDto(news, lang))
-                                .toList();
+                // A short first page is the whole result, no count needed
+                long total = pageable.getOffset() == 0 && responses.size() < pageable.getPageSize()
+                                ? responses.size()
+                                : publicNewsViewRepository.count(filter, now);
 
                 return ApiResponse.builder()
                                 .status(HttpStatus.OK)
                                 .message("Success")
                                 .data(responses)
-                                .pages(page.getTotalPages())
-                                .elements(page.getTotalElements())
+                                .pages((int) ((total + pageable.getPageSize() - 1) / pageable.getPageSize()))
+                                .elements(total)
                                 .build();
         }
 
-        // Get single news by slug
-        @Cacheable(value = "newsDetail", key = "'slug:' + #slug + ':lang:' + #lang", unless = "#result == null")
-        // getNewsBySlug
-        public ApiResponse getNewsBySlug(String slug, String lang) {
+        // Get public news feed with keyset pagination (no offset, no count)
+        // GET /api/v1/public/news?lang=uz&size=10&cursor=   -> meta.next is the cursor of the following page
+        // Shares the list tags ("cursor" takes the place of "page"), so the same evictions apply
+        @Cacheable(value = "newsList", key = "'lang:' + (#filter.lang != null ? #filter.lang : 'uz') + " +
+                        "':cursor:' + (#cursor != null ? #cursor : '') + " +
+                        "':size:' + #size + " +
+                        "':cat:' + (#filter.categoryId != null ? #filter.categoryId : 'all') + " +
+                        "':tag:' + (#filter.tag != null ? #filter.tag : 'all')",
+                        condition = "#filter.from == null && #filter.to == null",
+                        sync = true)
+        @Transactional(readOnly = true)
+        public ApiResponse getPublicNewsFeed(NewsFilter filter, String cursor, int size) {
 
-                log.info("Cache MISS - Fetching from DB: slug={}, lang={}", slug, lang);
-                LocalDateTime now = LocalDateTime.now();
-                News news = newsRepository.findPublicNewsBySlug(slug, lang, now)
-                                .orElseThrow(() -> new ResourceNotFoundException("News not found"));
+                log.info("Cache MISS - Fetching feed from DB with filter={}, cursor={}", filter, cursor);
+
+                PublicNewsViewRepository.FeedPage page = publicNewsViewRepository.findFeed(
+                                filter, LocalDateTime.now(), NewsCursor.decode(cursor), size);
+
+                Map<String, Object> meta = new HashMap<>();
+                meta.put("next", page.next() != null ? page.next().encode() : null);
 
                 return ApiResponse.builder()
                                 .status(HttpStatus.OK)
-                                .data(newsMapper.toPublicDto(news, lang))
+                                .message("Success")
+                                .data(page.news())
+                                .meta(meta)
                                 .build();
         }
 
+        // Get single news by slug: the pre-rendered response body (see NewsDetailRenderer)
+        // sync: needed for stale-while-revalidate; a missing article throws, so nothing null is cached
+        @Cacheable(value = "newsDetail", key = "'slug:' + #slug + ':lang:' + #lang", sync = true)
+        @Transactional(readOnly = true)
+        // getNewsBySlug
+        public NewsDetailBlob getNewsBySlug(String slug, String lang) {
+
+                log.info("Cache MISS - Fetching from DB: slug={}, lang={}", slug, lang);
+                LocalDateTime now = LocalDateTime.now();
+                return publicNewsViewRepository.findDetailBlob(slug, lang, now)
+                                // Not rendered yet (just refreshed on another node, or backfilled): render in memory
+                                .or(() -> publicNewsViewRepository.findBySlug(slug, lang, now)
+                                                .map(newsDetailRenderer::render))
+                                .orElseThrow(() -> new ResourceNotFoundException("News not found"));
+        }
+
         @Cacheable(value = "categories", key = "'lang:' + #lang", unless = "#result == null || #result.data.isEmpty()")
         @Transactional(readOnly = true)
         // getPublicCategories
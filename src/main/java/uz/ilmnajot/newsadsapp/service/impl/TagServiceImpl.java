@@ -1,6 +1,7 @@
 package uz.ilmnajot.newsadsapp.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Service;
 import uz.ilmnajot.newsadsapp.dto.TagDto;
 import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
 import uz.ilmnajot.newsadsapp.entity.Tag;
+import uz.ilmnajot.newsadsapp.event.TagChangedEvent;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.mapper.TagMapper;
 import uz.ilmnajot.newsadsapp.repository.TagRepository;
@@ -21,6 +23,7 @@ public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
     private final TagMapper tagMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -36,6 +39,7 @@ public class TagServiceImpl implements TagService {
         tag.setCode(dto.getCode());
         tag.setIsActive(true);
         this.tagRepository.save(tag);
+        this.eventPublisher.publishEvent(new TagChangedEvent(tag.getId(), false));
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
                 .message("Tag has been added")
@@ -67,6 +71,7 @@ public class TagServiceImpl implements TagService {
                 .orElseThrow(() -> new ResourceNotFoundException("Tag not found!"));
         tag.setIsActive(false);
         this.tagRepository.save(tag);
+        this.eventPublisher.publishEvent(new TagChangedEvent(tagId, true));
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
                 .message("Tag has been inActivated!")
@@ -80,6 +85,7 @@ public class TagServiceImpl implements TagService {
                 .orElseThrow(() -> new ResourceNotFoundException("Tag not found!"));
         this.tagMapper.toUpdate(tag, dto);
         this.tagRepository.save(tag);
+        this.eventPublisher.publishEvent(new TagChangedEvent(tagId, true));
         return ApiResponse.builder()
                 .status(HttpStatus.OK)
                 .message("Tag has been updated")
@@ -0,0 +1,186 @@
+package uz.ilmnajot.newsadsapp.storage;
+
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams media into the bucket without holding the whole object anywhere.
+ * <p>
+ * The stream is read part by part into buffers of {@link PartBufferPool}. Each full part goes out as an S3
+ * multipart part while the next one is read; up to {@code parallelParts} parts of one upload are in flight,
+ * then reading waits, so a slow store slows the client down instead of filling the heap. An object smaller
+ * than one part is sent with a single PUT. On any failure the multipart upload is aborted once its parts have
+ * finished, so neither buffers nor orphaned parts are left behind.
+ * <p>
+ * The bucket is checked (and created) once, at startup or, if the store was down then, on the first upload.
+ */
+@Slf4j
+public class MediaUploader {
+
+    private final S3MultipartClient client;
+    private final PartBufferPool buffers;
+    private final String bucket;
+    private final int parallelParts;
+    private final long maxSize;
+    private volatile boolean bucketReady;
+
+    public MediaUploader(S3MultipartClient client, PartBufferPool buffers, String bucket,
+                         int parallelParts, long maxSize) {
+        this.client = client;
+        this.buffers = buffers;
+        this.bucket = bucket;
+        this.parallelParts = parallelParts;
+        this.maxSize = maxSize;
+    }
+
+    // ensureBucket: a store that is down does not stop the startup, the first upload tries again
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureBucket() {
+        try {
+            if (await(client.ensureBucket(bucket))) {
+                log.info("Bucket '{}' did not exist and was created", bucket);
+            }
+            bucketReady = true;
+        } catch (IOException e) {
+            log.warn("Bucket '{}' could not be checked: {}", bucket, e.getMessage());
+        }
+    }
+
+    // upload: size of the stored object
+    public long upload(String object, String contentType, InputStream content) throws IOException {
+        if (!bucketReady) {
+            ensureBucket();
+        }
+        byte[] buffer = buffers.acquire();
+        int length;
+        boolean multipart = false;
+        try {
+            length = content.readNBytes(buffer, 0, buffers.partSize());
+            if (length == 0) {
+                throw new BadRequestException("File is empty");
+            }
+            if (length < buffers.partSize()) {
+                await(client.putSmall(bucket, object, contentType, buffer, length));
+                return length;
+            }
+            multipart = true;
+        } finally {
+            if (!multipart) {
+                buffers.release(buffer);
+            }
+        }
+        return uploadParts(object, contentType, content, buffer, length);
+    }
+
+    private long uploadParts(String object, String contentType, InputStream content,
+                             byte[] first, int firstLength) throws IOException {
+        String uploadId;
+        try {
+            uploadId = await(client.createUpload(bucket, object, contentType));
+        } catch (IOException e) {
+            buffers.release(first);
+            throw e;
+        }
+
+        Semaphore inFlight = new Semaphore(parallelParts);
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        byte[] buffer = first;
+        int length = firstLength;
+        long size = 0;
+        try {
+            while (length > 0) {
+                size += length;
+                if (size > maxSize) {
+                    throw new BadRequestException("File is larger than " + maxSize + " bytes");
+                }
+                acquire(inFlight);
+                byte[] data = buffer;
+                buffer = null;
+                parts.add(client.uploadPart(bucket, object, uploadId, parts.size() + 1, data, length)
+                        .whenComplete((part, error) -> {
+                            buffers.release(data);
+                            inFlight.release();
+                        }));
+                if (length < buffers.partSize()) {
+                    break;
+                }
+                failFast(parts);
+                buffer = buffers.acquire();
+                length = content.readNBytes(buffer, 0, buffers.partSize());
+            }
+
+            List<Part> uploaded = new ArrayList<>(parts.size());
+            for (CompletableFuture<Part> part : parts) {
+                uploaded.add(await(part));
+            }
+            await(client.complete(bucket, object, uploadId, uploaded));
+            return size;
+        } catch (IOException | RuntimeException e) {
+            abort(object, uploadId, parts);
+            throw e;
+        } finally {
+            if (buffer != null) {
+                buffers.release(buffer);
+            }
+        }
+    }
+
+    // abort: after the parts in flight, which would otherwise be stored after the abort
+    private void abort(String object, String uploadId, List<CompletableFuture<Part>> parts) {
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .handle((ignored, error) -> null)
+                .thenCompose(ignored -> client.abort(bucket, object, uploadId))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("Multipart upload {} of {} not aborted: {}", uploadId, object, error.getMessage());
+                    }
+                });
+    }
+
+    // failFast: stop reading the stream once a part has failed
+    private static void failFast(List<CompletableFuture<Part>> parts) throws IOException {
+        for (CompletableFuture<Part> part : parts) {
+            if (part.isCompletedExceptionally()) {
+                await(part);
+            }
+        }
+    }
+
+    private static void acquire(Semaphore semaphore) throws InterruptedIOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException completion && completion.getCause() != null
+                    ? completion.getCause() : e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Storage request failed: " + cause.getMessage(), cause);
+        }
+    }
+}
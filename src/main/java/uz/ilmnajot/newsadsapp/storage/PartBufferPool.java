@@ -0,0 +1,57 @@
+package uz.ilmnajot.newsadsapp.storage;
+
+import uz.ilmnajot.newsadsapp.exception.ServiceBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Part buffers shared by all uploads: at most {@code buffers} of {@code partSize} bytes exist, allocated on
+ * first use and reused afterwards. Upload memory is capped at {@code buffers * partSize} whatever the number
+ * of uploads; an upload that waits longer than {@code timeout} for a buffer fails with
+ * {@link ServiceBusyException} (503 + Retry-After).
+ */
+public class PartBufferPool {
+
+    private static final String BUSY = "Too many uploads in progress, try again shortly";
+
+    private final int partSize;
+    private final Duration timeout;
+    private final Semaphore available;
+    private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+
+    public PartBufferPool(int partSize, int buffers, Duration timeout) {
+        this.partSize = partSize;
+        this.timeout = timeout;
+        this.available = new Semaphore(buffers);
+    }
+
+    public byte[] acquire() {
+        try {
+            if (!available.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceBusyException(BUSY, 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY, 1);
+        }
+        byte[] buffer = free.poll();
+        return buffer != null ? buffer : new byte[partSize];
+    }
+
+    public void release(byte[] buffer) {
+        free.offer(buffer);
+        available.release();
+    }
+
+    public int partSize() {
+        return partSize;
+    }
+
+    // Buffers not held by an upload
+    public int available() {
+        return available.availablePermits();
+    }
+}
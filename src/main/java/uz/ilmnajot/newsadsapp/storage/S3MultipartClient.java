@@ -0,0 +1,91 @@
+package uz.ilmnajot.newsadsapp.storage;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.errors.MinioException;
+import io.minio.messages.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The S3 multipart calls of the MinIO async client, which keeps them protected.
+ * <p>
+ * Every call returns at once; request signing errors come back as a failed future like the S3 errors, so
+ * callers have one failure path. Part data is passed as {@code byte[]} + length: the SDK sends the buffer as
+ * it is, without copying it.
+ */
+public class S3MultipartClient extends MinioAsyncClient {
+
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    public S3MultipartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    // ensureBucket: true when the bucket had to be created
+    public CompletableFuture<Boolean> ensureBucket(String bucket) {
+        return call(() -> bucketExists(BucketExistsArgs.builder().bucket(bucket).build())
+                .thenCompose(exists -> exists
+                        ? CompletableFuture.completedFuture(false)
+                        : call(() -> makeBucket(MakeBucketArgs.builder().bucket(bucket).build()))
+                        .thenApply(created -> true)));
+    }
+
+    // putSmall: an object that fits in one part, single PUT
+    public CompletableFuture<ObjectWriteResponse> putSmall(String bucket, String object, String contentType,
+                                                          byte[] data, int length) {
+        return call(() -> putObject(PutObjectArgs.builder()
+                .bucket(bucket)
+                .object(object)
+                .stream(new ByteArrayInputStream(data, 0, length), length, -1)
+                .contentType(contentType)
+                .build()));
+    }
+
+    // createUpload: the upload id
+    public CompletableFuture<String> createUpload(String bucket, String object, String contentType) {
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put(CONTENT_TYPE, contentType);
+        return call(() -> createMultipartUploadAsync(bucket, null, object, headers, null)
+                .thenApply(response -> response.result().uploadId()));
+    }
+
+    public CompletableFuture<Part> uploadPart(String bucket, String object, String uploadId, int partNumber,
+                                              byte[] data, int length) {
+        return call(() -> uploadPartAsync(bucket, null, object, data, length, uploadId, partNumber, null, null)
+                .thenApply(response -> new Part(response.partNumber(), response.etag())));
+    }
+
+    public CompletableFuture<ObjectWriteResponse> complete(String bucket, String object, String uploadId,
+                                                           List<Part> parts) {
+        return call(() -> completeMultipartUploadAsync(bucket, null, object, uploadId,
+                parts.toArray(new Part[0]), null, null));
+    }
+
+    public CompletableFuture<Void> abort(String bucket, String object, String uploadId) {
+        return call(() -> abortMultipartUploadAsync(bucket, null, object, uploadId, null, null)
+                .thenApply(response -> null));
+    }
+
+    private static <T> CompletableFuture<T> call(Request<T> request) {
+        try {
+            return request.send();
+        } catch (MinioException | IOException | GeneralSecurityException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Request<T> {
+        CompletableFuture<T> send() throws MinioException, IOException, GeneralSecurityException;
+    }
+}
@@ -0,0 +1,131 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker/Vose alias table for weighted random selection.
+ * <p>
+ * Built once per candidate set in O(n), sampled in O(1) with a single random number.
+ * All arithmetic is done on integers, so the sampled distribution matches the weights exactly.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class AliasTable {
+
+    private final int size;
+    private final long totalWeight;
+    // column i returns i when coin < threshold[i], otherwise alias[i]
+    private final long[] threshold;
+    private final int[] alias;
+
+    private AliasTable(int size, long totalWeight, long[] threshold, int[] alias) {
+        this.size = size;
+        this.totalWeight = totalWeight;
+        this.threshold = threshold;
+        this.alias = alias;
+    }
+
+    // Build from weights; zero weights are allowed but never selected
+    public static AliasTable of(int[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one weight is required");
+        }
+
+        long total = 0;
+        for (int w : weights) {
+            if (w < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            total += w;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Total weight must be positive");
+        }
+
+        // Every column holds exactly 'total' units: scaled[i] = weights[i] * n
+        long[] scaled = new long[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (long) weights[i] * n;
+            if (scaled[i] < total) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        long[] threshold = new long[n];
+        int[] alias = new int[n];
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            threshold[less] = scaled[less];
+            alias[less] = more;
+
+            // 'more' donates what 'less' was missing
+            scaled[more] -= total - scaled[less];
+            if (scaled[more] < total) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            threshold[i] = total;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            // unreachable with exact integer arithmetic, kept as a safe guard
+            int i = small[--smallCount];
+            threshold[i] = total;
+            alias[i] = i;
+        }
+
+        return new AliasTable(n, total, threshold, alias);
+    }
+
+    // Sample an index using the calling thread's RNG
+    public int next() {
+        return next(ThreadLocalRandom.current());
+    }
+
+    // Sample an index with the given RNG
+    public int next(RandomGenerator random) {
+        if (size == 1) {
+            return 0;
+        }
+        // One draw gives both the column and the coin
+        long value = random.nextLong((long) size * totalWeight);
+        int column = (int) (value / totalWeight);
+        long coin = value % totalWeight;
+        return coin < threshold[column] ? column : alias[column];
+    }
+
+    // size
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Probability of index i expressed as a numerator over (size * totalWeight).
+     * Used to verify the table is exact: the result must equal weights[i] * size.
+     */
+    long probabilityNumerator(int i) {
+        long numerator = 0;
+        for (int column = 0; column < size; column++) {
+            if (column == i) {
+                numerator += threshold[column];
+            }
+            if (alias[column] == i) {
+                numerator += totalWeight - threshold[column];
+            }
+        }
+        return numerator;
+    }
+}
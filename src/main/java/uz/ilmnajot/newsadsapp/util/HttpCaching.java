@@ -0,0 +1,118 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conditional-request and CDN headers of the public endpoints.
+ * <p>
+ * Responses are {@code public} with a short browser max-age and a longer {@code s-maxage} for the
+ * CDN, which can purge them early by the {@code Surrogate-Key} values: {@code news} (every list
+ * page), {@code news-<id>}, {@code category-<id>}, {@code tag-<code>}, {@code categories} and
+ * {@code tags}.
+ */
+@Component
+public class HttpCaching {
+
+    public static final String SURROGATE_KEY = "Surrogate-Key";
+
+    private final CacheControl cacheControl;
+
+    public HttpCaching(@Value("${app.http.cache.max-age-seconds:30}") long maxAgeSeconds,
+                       @Value("${app.http.cache.s-maxage-seconds:60}") long sharedMaxAgeSeconds,
+                       @Value("${app.http.cache.stale-while-revalidate-seconds:30}") long staleSeconds) {
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .cachePublic()
+                .sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds))
+                .staleWhileRevalidate(Duration.ofSeconds(staleSeconds));
+    }
+
+    // 200 with the caching headers; etag and surrogateKey may be null
+    public ResponseEntity.BodyBuilder ok(String etag, String surrogateKey) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl);
+        if (surrogateKey != null && !surrogateKey.isEmpty()) {
+            response.header(SURROGATE_KEY, surrogateKey);
+        }
+        return etag != null ? response.eTag(etag) : response;
+    }
+
+    // 304 repeats the headers a 200 would carry for the same representation (the CDN keeps its surrogate keys)
+    public ResponseEntity.BodyBuilder notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl);
+    }
+
+    // Strong ETag from a version or hash
+    public static String etag(String value) {
+        return value != null ? "\"" + value + "\"" : null;
+    }
+
+    // Surrogate keys of one article
+    public static String newsKeys(Long newsId, Long categoryId, Collection<String> tags) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add("news-" + newsId);
+        addFilterKeys(keys, categoryId, tags);
+        return String.join(" ", keys);
+    }
+
+    // Surrogate keys of a list page: every list, the filter and each listed article
+    public static String listKeys(Long categoryId, String tag, Collection<Long> newsIds) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add("news");
+        addFilterKeys(keys, categoryId, tag != null ? List.of(tag) : List.of());
+        newsIds.forEach(id -> keys.add("news-" + id));
+        return String.join(" ", keys);
+    }
+
+    private static void addFilterKeys(Set<String> keys, Long categoryId, Collection<String> tags) {
+        if (categoryId != null) {
+            keys.add("category-" + categoryId);
+        }
+        if (tags != null) {
+            tags.forEach(tag -> keys.add("tag-" + tag));
+        }
+    }
+
+    // acceptsGzip: "gzip" or "*" listed without q=0
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            boolean refused = tokens.length > 1 && tokens[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            if (("gzip".equalsIgnoreCase(coding) || "*".equals(coding)) && !refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match uses the weak comparison: W/ prefixes are ignored
+    public static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
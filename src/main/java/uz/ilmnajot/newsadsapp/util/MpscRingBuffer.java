@@ -0,0 +1,93 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring buffer.
+ * <p>
+ * Producers claim a slot with one CAS and never block: when the buffer is full
+ * {@link #offer(Object)} returns false and the caller decides what to drop.
+ * Each slot carries a sequence number (Vyukov style) so the consumer only sees
+ * fully published elements. {@link #drain(Consumer, int)} must be called from one thread at a time.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    // sequence[i] == position     -> slot free for the producer of 'position'
+    // sequence[i] == position + 1 -> slot published for the consumer
+    private final AtomicLongArray sequence;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private long consumerPosition;
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30");
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequence = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    // Add an element; false if the buffer is full
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long position;
+        int index;
+        while (true) {
+            position = producerPosition.get();
+            index = (int) position & mask;
+            long diff = sequence.getAcquire(index) - position;
+            if (diff == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0: another producer took this position, retry with a fresh one
+        }
+        elements.setPlain(index, element);
+        sequence.setRelease(index, position + 1);
+        return true;
+    }
+
+    // Hand up to 'limit' elements to the consumer; returns how many were drained
+    public int drain(Consumer<? super E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) consumerPosition & mask;
+            if (sequence.getAcquire(index) != consumerPosition + 1) {
+                break; // empty, or the next producer has not finished publishing yet
+            }
+            E element = elements.getPlain(index);
+            elements.setPlain(index, null);
+            sequence.setRelease(index, consumerPosition + capacity);
+            consumerPosition++;
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    // Approximate number of queued elements
+    public int size() {
+        long size = producerPosition.get() - consumerPosition;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    // capacity
+    public int capacity() {
+        return capacity;
+    }
+}
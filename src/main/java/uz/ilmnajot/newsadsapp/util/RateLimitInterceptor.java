@@ -4,21 +4,27 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
-import uz.ilmnajot.newsadsapp.annotation.RateLimit;
 import uz.ilmnajot.newsadsapp.exception.RateLimitExceededException;
 import uz.ilmnajot.newsadsapp.service.RateLimitService;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RateLimitInterceptor implements HandlerInterceptor {
 
+    private static final String API_KEY_HEADER = "X-API-Key";
+
     private final RateLimitService rateLimitService;
+    private final RateLimitPolicyRegistry policyRegistry;
+    private final ClientIpResolver clientIpResolver;
 
     @Override
     public boolean preHandle(HttpServletRequest request, 
@@ -29,95 +35,54 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        HandlerMethod handlerMethod = (HandlerMethod) handler;
-        RateLimit rateLimit = handlerMethod.getMethodAnnotation(RateLimit.class);
-        
-        if (rateLimit == null) {
+        // Compiled at startup, no annotation lookup per request
+        RateLimitPolicy policy = policyRegistry.find((HandlerMethod) handler);
+
+        if (policy == null) {
             return true;  // No rate limit
         }
-        
-        // Get client identifier
-        String clientIp = getClientIp(request);
-        String endpoint = request.getRequestURI();
-        String key = clientIp + ":" + endpoint;
-        
-        // Convert duration to seconds
-        long durationSeconds = TimeUnit.SECONDS.convert(
-            rateLimit.duration(), 
-            rateLimit.timeUnit()
-        );
-        
-        // Check rate limit (using Redis)
-        boolean allowed = rateLimitService.isAllowed(
-            key,
-            rateLimit.limit(),
-            durationSeconds
-        );
-        
-        if (!allowed) {
-            // Get remaining and reset time
-            long remaining = rateLimitService.getRemainingRequests(
-                key, 
-                rateLimit.limit(), 
-                durationSeconds
-            );
-            
-            long resetTime = rateLimitService.getTimeUntilReset(key);
-            
-            log.warn("Rate limit exceeded: ip={}, endpoint={}, limit={}/{} seconds", 
-                clientIp, endpoint, rateLimit.limit(), durationSeconds);
-
-            // Set headers
-            response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimit.limit()));
-            response.setHeader("X-RateLimit-Remaining", "0");
-            response.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
-            response.setHeader("Retry-After", String.valueOf(resetTime));
+
+        // Client class: known API key, signed-in user, or IP
+        String client;
+        RateLimitPolicy.Limit limit;
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (apiKey != null && policy.apiKeys().containsKey(apiKey)) {
+            client = "key:" + apiKey;
+            limit = policy.apiKeys().get(apiKey);
+        } else if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            client = "user:" + authentication.getName();
+            limit = policy.authenticated();
+        } else {
+            client = "ip:" + clientIpResolver.resolve(request);
+            limit = policy.anonymous();
+        }
+        String key = client + ":" + policy.route();
+
+        RateLimitService.Decision decision = rateLimitService.tryAcquire(key, limit.limit(), limit.period());
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(seconds(decision.reset())));
+
+        if (!decision.allowed()) {
+            long retryAfter = seconds(decision.retryAfter());
+            log.warn("Rate limit exceeded: client={}, route={}, limit={}/{}",
+                client.startsWith("key:") ? "api-key" : client, policy.route(), limit.limit(), limit.period());
+
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
 
             throw new RateLimitExceededException(
-                rateLimit.message() + " Try again in " + resetTime + " seconds."
+                policy.message() + " Try again in " + retryAfter + " seconds."
             );
         }
-        
-        // Set rate limit headers
-        long remaining = rateLimitService.getRemainingRequests(
-            key,
-            rateLimit.limit(),
-            durationSeconds
-        );
-        
-        response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimit.limit()));
-        response.setHeader("X-RateLimit-Remaining", String.valueOf(remaining));
-        
+
         return true;
     }
 
-    /**
-     * Get client IP address (handles proxies)
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("X-Real-IP");
-        }
-        
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        
-        // If multiple IPs (proxy chain), take first one
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        
-        return ip;
+    // Whole seconds, rounded up
+    private static long seconds(Duration duration) {
+        return (duration.toMillis() + 999) / 1000;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Compiled rate limit of one handler: the {@link uz.ilmnajot.newsadsapp.annotation.RateLimit}
+ * defaults with the overrides applied.
+ *
+ * @param id            handler id used by the overrides, {@code <Controller>.<method>}
+ * @param route         route template, part of the bucket key (path variables do not multiply buckets)
+ * @param anonymous     limit per client IP
+ * @param authenticated limit per signed-in user
+ * @param apiKeys       limits per known API key (X-API-Key header)
+ */
+public record RateLimitPolicy(String id, String route, String message, Limit anonymous, Limit authenticated,
+                              Map<String, Limit> apiKeys) {
+
+    public record Limit(int limit, Duration period) {
+
+        // "<limit>/<duration>", e.g. "60/1m", "1000/PT1H"
+        public static Limit parse(String value) {
+            int slash = value.indexOf('/');
+            if (slash < 0) {
+                throw new IllegalArgumentException("Expected <limit>/<duration>: " + value);
+            }
+            int limit = Integer.parseInt(value.substring(0, slash).trim());
+            Duration period = DurationStyle.detectAndParse(value.substring(slash + 1).trim());
+            if (limit < 1 || period.isZero() || period.isNegative()) {
+                throw new IllegalArgumentException("Limit and duration must be positive: " + value);
+            }
+            return new Limit(limit, period);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import uz.ilmnajot.newsadsapp.annotation.RateLimit;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Rate limit policies, resolved once instead of per request.
+ * <p>
+ * At startup every handler with {@link RateLimit} is compiled into a {@link RateLimitPolicy} keyed by
+ * its handler method; the interceptor only does a map lookup. Buckets are keyed by the route template
+ * ({@code GET /api/v1/public/news/{slug}}), not by the raw URI.
+ * <p>
+ * Overrides come from {@code app.rate-limit.overrides-file}, a properties file that is re-read when it
+ * changes (checked every {@code app.rate-limit.overrides-check-ms}). Handler ids are
+ * {@code <Controller>.<method>}, {@code *} applies to every handler, a specific id wins over {@code *}:
+ * <pre>
+ * PublicNewsController.getPublicNews=120/1m
+ * PublicNewsController.getPublicNews.authenticated=600/1m
+ * *.api-key.partner-7f3a=10000/1h
+ * </pre>
+ * A file that does not parse is rejected as a whole and the previous policies stay in force.
+ */
+@Slf4j
+@Component
+public class RateLimitPolicyRegistry implements SmartInitializingSingleton {
+
+    private static final String ALL = "*";
+    private static final String AUTHENTICATED = ".authenticated";
+    private static final String API_KEY = ".api-key.";
+
+    private final ApplicationContext applicationContext;
+    private final Path overridesFile;
+
+    // Annotation values per handler, fixed after startup
+    private Map<Method, Defaults> handlers = Map.of();
+    private volatile Map<Method, RateLimitPolicy> policies = Map.of();
+    private FileTime overridesModified;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public RateLimitPolicyRegistry(ApplicationContext applicationContext,
+                                   @Value("${app.rate-limit.overrides-file:}") String overridesFile) {
+        this.applicationContext = applicationContext;
+        this.overridesFile = overridesFile.isBlank() ? null : Path.of(overridesFile);
+    }
+
+    // Before the web server starts: no request sees an empty registry
+    @Override
+    public void afterSingletonsInstantiated() {
+        RequestMappingHandlerMapping mapping = applicationContext.getBean(
+                "requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        Map<Method, Defaults> found = new HashMap<>();
+        mapping.getHandlerMethods().forEach((info, handlerMethod) -> {
+            RateLimit rateLimit = handlerMethod.getMethodAnnotation(RateLimit.class);
+            if (rateLimit != null) {
+                found.put(handlerMethod.getMethod(), new Defaults(id(handlerMethod), route(info),
+                        rateLimit.message(), new RateLimitPolicy.Limit(rateLimit.limit(),
+                        Duration.of(rateLimit.duration(), rateLimit.timeUnit().toChronoUnit()))));
+            }
+        });
+        handlers = Map.copyOf(found);
+        reloadIfChanged();
+        policies.values().forEach(policy -> log.info("Rate limit {} [{}]: {}", policy.id(), policy.route(),
+                policy.anonymous()));
+    }
+
+    // Policy of the handler, null when it is not rate limited
+    public RateLimitPolicy find(HandlerMethod handlerMethod) {
+        return policies.get(handlerMethod.getMethod());
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.overrides-check-ms:5000}")
+    public void reloadIfChanged() {
+        reloadLock.lock();
+        try {
+            FileTime modified = lastModified();
+            if (!policies.isEmpty() && Objects.equals(modified, overridesModified)) {
+                return;
+            }
+            try {
+                policies = compile(handlers, readOverrides(modified));
+                if (modified != null) {
+                    log.info("Rate limit overrides loaded from {}", overridesFile);
+                } else if (overridesModified != null) {
+                    log.info("Rate limit overrides file {} removed, annotation defaults apply", overridesFile);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Rate limit overrides in {} rejected, keeping the previous policies: {}",
+                        overridesFile, e.getMessage());
+                if (policies.isEmpty()) {
+                    policies = compile(handlers, new Properties());
+                }
+            }
+            // A rejected file is retried when it changes again
+            overridesModified = modified;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // Annotation defaults with the overrides applied
+    static Map<Method, RateLimitPolicy> compile(Map<Method, Defaults> handlers, Properties overrides) {
+        Map<String, RateLimitPolicy.Limit> limits = new HashMap<>();
+        for (String key : overrides.stringPropertyNames()) {
+            limits.put(key, RateLimitPolicy.Limit.parse(overrides.getProperty(key)));
+        }
+        Set<String> ids = handlers.values().stream().map(Defaults::id).collect(Collectors.toSet());
+        limits.keySet().stream()
+                .map(key -> key.split("\\.(?=authenticated$|api-key\\.)", 2)[0])
+                .filter(id -> !ALL.equals(id) && !ids.contains(id))
+                .forEach(id -> log.warn("Rate limit override for unknown handler {}", id));
+
+        Map<Method, RateLimitPolicy> compiled = new HashMap<>();
+        handlers.forEach((method, defaults) -> {
+            String id = defaults.id();
+            RateLimitPolicy.Limit anonymous = first(limits, id, "", defaults.limit());
+            RateLimitPolicy.Limit authenticated = first(limits, id, AUTHENTICATED, anonymous);
+            Map<String, RateLimitPolicy.Limit> apiKeys = new HashMap<>(apiKeys(limits, ALL));
+            apiKeys.putAll(apiKeys(limits, id));
+            compiled.put(method, new RateLimitPolicy(id, defaults.route(), defaults.message(),
+                    anonymous, authenticated, Map.copyOf(apiKeys)));
+        });
+        return Map.copyOf(compiled);
+    }
+
+    // id + suffix, else * + suffix, else fallback
+    private static RateLimitPolicy.Limit first(Map<String, RateLimitPolicy.Limit> limits, String id,
+                                               String suffix, RateLimitPolicy.Limit fallback) {
+        RateLimitPolicy.Limit limit = limits.get(id + suffix);
+        if (limit == null) {
+            limit = limits.get(ALL + suffix);
+        }
+        return limit != null ? limit : fallback;
+    }
+
+    private static Map<String, RateLimitPolicy.Limit> apiKeys(Map<String, RateLimitPolicy.Limit> limits, String id) {
+        String prefix = id + API_KEY;
+        Map<String, RateLimitPolicy.Limit> keys = new HashMap<>();
+        limits.forEach((key, limit) -> {
+            if (key.startsWith(prefix)) {
+                keys.put(key.substring(prefix.length()), limit);
+            }
+        });
+        return keys;
+    }
+
+    private Properties readOverrides(FileTime modified) throws IOException {
+        Properties properties = new Properties();
+        if (modified != null) {
+            try (Reader reader = Files.newBufferedReader(overridesFile)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    // null when there is no overrides file
+    private FileTime lastModified() {
+        if (overridesFile == null || !Files.isRegularFile(overridesFile)) {
+            return null;
+        }
+        try {
+            return Files.getLastModifiedTime(overridesFile);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // PublicNewsController.getPublicNews
+    private static String id(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+
+    // GET /api/v1/public/news/{slug}
+    private static String route(RequestMappingInfo info) {
+        String methods = info.getMethodsCondition().getMethods().stream()
+                .map(Enum::name)
+                .sorted()
+                .collect(Collectors.joining(","));
+        return (methods.isEmpty() ? ALL : methods) + " " + String.join("|", new TreeSet<>(info.getPatternValues()));
+    }
+
+    record Defaults(String id, String route, String message, RateLimitPolicy.Limit limit) {
+    }
+}
@@ -110,9 +110,9 @@ public class SlugGenerator {
     }
 
     /**
-     * Kirill harflarni lotin harflarga o'girish
+     * Kirill harflarni lotin harflarga o'girish (lower-case input; also used by the search index)
      */
-    private String transliterate(String text) {
+    public static String transliterate(String text) {
         StringBuilder result = new StringBuilder();
 
         for (char c : text.toCharArray()) {
@@ -5,6 +5,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import uz.ilmnajot.newsadsapp.entity.User;
+import uz.ilmnajot.newsadsapp.security.JwtPrincipal;
 
 import java.util.UUID;
 
@@ -18,6 +19,8 @@ public class UserSession {
         if (authentication != null) {
             Object principal = authentication.getPrincipal();
             log.info("Principal class {} : " , principal.getClass().getName());
+            if (principal instanceof JwtPrincipal jwtPrincipal)
+                return jwtPrincipal.id();
             if (principal instanceof User user)
                 return user.getId();
         }
@@ -2,25 +2,45 @@ package uz.ilmnajot.newsadsapp.util;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import uz.ilmnajot.newsadsapp.entity.User;
 import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
 import uz.ilmnajot.newsadsapp.repository.UserRepository;
+import uz.ilmnajot.newsadsapp.security.JwtPrincipal;
+
+/**
+ * The authenticated user of the current request.
+ * <p>
+ * {@link uz.ilmnajot.newsadsapp.security.JwtFilter} puts a {@link JwtPrincipal} (id, username, roles) into the
+ * security context of the request, so most callers need no query at all: {@link #getPrincipal()} for the
+ * id/username/roles and {@link #getCurrentUserReference()} to set an association ({@code author},
+ * {@code changedBy}). Only {@link #getCurrentUser()} reads the users table.
+ */
 @RequiredArgsConstructor
 @Component
 @Slf4j
 public class UserUtil {
     private final UserRepository userRepository;
-    // getCurrentUser
-    public User getCurrentUser(){
-        String username = SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getName();
-        log.info("Current user: {}", username);
-        log.info("User: {}", this.userRepository.findByUsername(username));
-        return this.userRepository.findByUsername(username)
-                .orElseThrow(()->new ResourceNotFoundException("User not found"));
+
+    // getPrincipal
+    public JwtPrincipal getPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        throw new ResourceNotFoundException("User not found");
+    }
+
+    // getCurrentUserReference: uninitialized proxy, no select unless a non-id attribute is read
+    public User getCurrentUserReference() {
+        return this.userRepository.getReferenceById(getPrincipal().id());
+    }
+
+    // getCurrentUser: loaded entity, one select
+    public User getCurrentUser() {
+        return this.userRepository.findById(getPrincipal().id())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 }
@@ -1,4 +0,0 @@
-insert into roles (created_by, updated_by, created_at, updated_at, name, deleted)
-VALUES (null,null,null,null,'USER',false),
-         (null,null,null,null,'ADMIN',false),
-            (null,null,null,null,'OWNER',false);
\ No newline at end of file
@@ -0,0 +1,4 @@
+insert into roles (created_by, updated_by, created_at, updated_at, name, deleted)
+select null, null, null, null, r.name, false
+from (VALUES ('USER'), ('ADMIN'), ('OWNER')) as r(name)
+where not exists (select 1 from roles where roles.name = r.name);
@@ -0,0 +1,13 @@
+-- Per-minute impression/click counters, written in batches by the ad event pipeline
+CREATE TABLE ads_stat_minute
+(
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    campaign_id  BIGINT                      NOT NULL,
+    creative_id  BIGINT                      NOT NULL,
+    placement_id BIGINT                      NOT NULL,
+    impressions  BIGINT                      NOT NULL DEFAULT 0,
+    clicks       BIGINT                      NOT NULL DEFAULT 0,
+    CONSTRAINT pk_ads_stat_minute PRIMARY KEY (bucket_start, campaign_id, creative_id, placement_id)
+);
+
+CREATE INDEX idx_ads_stat_minute_campaign ON ads_stat_minute (campaign_id, bucket_start);
@@ -0,0 +1,9 @@
+-- Keyset pagination of the news feeds: ORDER BY publish_at DESC, id DESC with "publish_at <= cursor"
+-- Public feed: only live rows, so the partial index stays small
+CREATE INDEX IF NOT EXISTS idx_news_public_feed
+    ON news (publish_at DESC, id DESC)
+    WHERE status = 'PUBLISHED' AND is_deleted = false;
+
+-- Admin feed: any status, deleted rows included
+CREATE INDEX IF NOT EXISTS idx_news_publish_at_id
+    ON news (publish_at DESC, id DESC);
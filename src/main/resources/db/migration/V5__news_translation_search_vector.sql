@@ -0,0 +1,51 @@
+-- Full-text search over news translations
+-- One tsvector per translation row, built with the text search configuration of the row's language
+-- (Postgres ships no Uzbek stemmer, so uz uses 'simple': lower-casing without stemming or stop words)
+
+CREATE OR REPLACE FUNCTION news_search_config(lang TEXT) RETURNS regconfig
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE
+AS
+$$
+SELECT CASE lang
+           WHEN 'ru' THEN 'pg_catalog.russian'::regconfig
+           WHEN 'en' THEN 'pg_catalog.english'::regconfig
+           ELSE 'pg_catalog.simple'::regconfig
+           END
+$$;
+
+ALTER TABLE news_translation
+    ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Title weighs more than the summary, the summary more than the body
+CREATE OR REPLACE FUNCTION news_translation_search_vector_update() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    NEW.search_vector :=
+            setweight(to_tsvector(news_search_config(NEW.lang), coalesce(NEW.title, '')), 'A') ||
+            setweight(to_tsvector(news_search_config(NEW.lang), coalesce(NEW.summary, '')), 'B') ||
+            setweight(to_tsvector(news_search_config(NEW.lang), coalesce(NEW.content, '')), 'C');
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_news_translation_search_vector ON news_translation;
+CREATE TRIGGER trg_news_translation_search_vector
+    BEFORE INSERT OR UPDATE OF lang, title, summary, content
+    ON news_translation
+    FOR EACH ROW
+EXECUTE FUNCTION news_translation_search_vector_update();
+
+-- Backfill rows written before the trigger existed
+UPDATE news_translation
+SET search_vector =
+        setweight(to_tsvector(news_search_config(lang), coalesce(title, '')), 'A') ||
+        setweight(to_tsvector(news_search_config(lang), coalesce(summary, '')), 'B') ||
+        setweight(to_tsvector(news_search_config(lang), coalesce(content, '')), 'C')
+WHERE search_vector IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_news_translation_search_vector
+    ON news_translation USING GIN (search_vector);
@@ -0,0 +1,47 @@
+-- Secondary indexes for the query paths of NewsRepository and AdsAssignmentRepository.
+-- Already covered by V1 constraints: news_translation (slug, lang) and (news_id, lang), news_tag (news_id, tag_id),
+-- tag (code), ads_placement (code). HotQueryIndexUsageTest EXPLAINs every repository query against these.
+
+-- Public list (offset and keyset) orders by publish_at DESC NULLS LAST; the V4 index sorted NULLS FIRST,
+-- so the offset list had to sort every live row. The keyset queries now use the same order.
+DROP INDEX IF EXISTS idx_news_public_feed;
+CREATE INDEX IF NOT EXISTS idx_news_public_feed
+    ON news (publish_at DESC NULLS LAST, id DESC)
+    WHERE status = 'PUBLISHED' AND is_deleted = false;
+
+-- Status queues: scheduler (REVIEW due for publishing, PUBLISHED reached in a window) and admin lists by status
+CREATE INDEX IF NOT EXISTS idx_news_status_publish_at
+    ON news (status, publish_at DESC)
+    WHERE is_deleted = false;
+
+-- Scheduler unpublishing: only the few rows with an end date are indexed
+CREATE INDEX IF NOT EXISTS idx_news_status_unpublish_at
+    ON news (status, unpublish_at)
+    WHERE is_deleted = false AND unpublish_at IS NOT NULL;
+
+-- Category and author filters (also the FK side of category/users deletes)
+CREATE INDEX IF NOT EXISTS idx_news_category_id
+    ON news (category_id)
+    WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_news_author_id
+    ON news (author_id);
+
+-- Tag filter: the primary key starts with news_id, lookups by tag need the reverse order
+CREATE INDEX IF NOT EXISTS idx_news_tag_tag_id_news_id
+    ON news_tag (tag_id, news_id);
+
+-- Status history of one article
+CREATE INDEX IF NOT EXISTS idx_news_history_news_id
+    ON news_history (news_id);
+
+-- Assignments of a placement / campaign; lang_filter and category_filter are evaluated in memory
+-- by the decision engine, so they get no GIN index until a query filters on them in SQL
+CREATE INDEX IF NOT EXISTS idx_ads_assignment_placement_id
+    ON ads_assignment (placement_id);
+
+CREATE INDEX IF NOT EXISTS idx_ads_assignment_campaign_id
+    ON ads_assignment (campaign_id);
+
+CREATE INDEX IF NOT EXISTS idx_ads_creative_campaign_id
+    ON ads_creative (campaign_id);
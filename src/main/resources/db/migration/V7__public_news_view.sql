@@ -0,0 +1,60 @@
+-- Read model of the public news API: one row per (news, lang) of every PUBLISHED, not deleted article,
+-- with the category translation and tag codes already joined in. Maintained by PublicNewsViewUpdater
+-- inside the writing transaction. The publish window (publish_at / unpublish_at) is still checked at
+-- read time, the row only exists while the status allows it.
+
+CREATE TABLE public_news_view
+(
+    news_id          BIGINT       NOT NULL,
+    lang             VARCHAR(5)   NOT NULL,
+    title            VARCHAR(500) NOT NULL,
+    slug             VARCHAR(500) NOT NULL,
+    summary          TEXT,
+    content          TEXT,
+    meta_title       VARCHAR(255),
+    meta_description TEXT,
+    cover_url        VARCHAR(1000),
+    category_id      BIGINT,
+    category_title   VARCHAR(255),
+    category_slug    VARCHAR(255),
+    tags             TEXT[]       NOT NULL DEFAULT '{}',
+    is_featured      BOOLEAN,
+    publish_at       TIMESTAMP WITHOUT TIME ZONE,
+    unpublish_at     TIMESTAMP WITHOUT TIME ZONE,
+    published_at     TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_public_news_view PRIMARY KEY (news_id, lang),
+    CONSTRAINT fk_public_news_view_on_news FOREIGN KEY (news_id) REFERENCES news (id) ON DELETE CASCADE
+);
+
+-- Detail page
+CREATE UNIQUE INDEX uk_public_news_view_slug_lang
+    ON public_news_view (slug, lang);
+
+-- List and keyset feed: ORDER BY publish_at DESC NULLS LAST, news_id DESC within one language
+CREATE INDEX idx_public_news_view_feed
+    ON public_news_view (lang, publish_at DESC NULLS LAST, news_id DESC);
+
+CREATE INDEX idx_public_news_view_category_feed
+    ON public_news_view (category_id, lang, publish_at DESC NULLS LAST, news_id DESC);
+
+-- Tag filter: tags @> ARRAY[code]
+CREATE INDEX idx_public_news_view_tags
+    ON public_news_view USING GIN (tags);
+
+INSERT INTO public_news_view (news_id, lang, title, slug, summary, content, meta_title, meta_description,
+                              cover_url, category_id, category_title, category_slug, tags, is_featured,
+                              publish_at, unpublish_at, published_at)
+SELECT n.id, t.lang, t.title, t.slug, t.summary, t.content, t.meta_title, t.meta_description,
+       m.url, n.category_id, ct.title, ct.slug,
+       ARRAY(SELECT tg.code FROM news_tag ntg JOIN tag tg ON tg.id = ntg.tag_id
+             WHERE ntg.news_id = n.id ORDER BY tg.code),
+       n.is_featured, n.publish_at, n.unpublish_at, COALESCE(n.publish_at, n.created_at)
+FROM news n
+         JOIN news_translation t ON t.news_id = n.id
+         LEFT JOIN media m ON m.id = n.cover_media_id
+         LEFT JOIN category_translation ct ON ct.category_id = n.category_id AND ct.lang = t.lang
+WHERE n.status = 'PUBLISHED'
+  AND n.is_deleted = false;
+
+-- The public queries no longer read news directly
+DROP INDEX IF EXISTS idx_news_public_feed;
@@ -0,0 +1,12 @@
+-- Pre-rendered detail responses: the exact JSON body of GET /api/v1/public/news/{slug} per (news, lang),
+-- plus its gzip encoding and a content hash used as the ETag. Written by NewsDetailRenderer right after
+-- the row is (re)derived; a refresh resets them to NULL.
+ALTER TABLE public_news_view
+    ADD COLUMN IF NOT EXISTS detail_json BYTEA,
+    ADD COLUMN IF NOT EXISTS detail_gzip BYTEA,
+    ADD COLUMN IF NOT EXISTS detail_etag VARCHAR(64);
+
+-- Rows still waiting for their blobs (small: only between a refresh and its render, or after a backfill)
+CREATE INDEX IF NOT EXISTS idx_public_news_view_unrendered
+    ON public_news_view (news_id)
+    WHERE detail_etag IS NULL;
@@ -0,0 +1,113 @@
+package uz.ilmnajot.newsadsapp.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import uz.ilmnajot.newsadsapp.entity.Role;
+import uz.ilmnajot.newsadsapp.entity.User;
+import uz.ilmnajot.newsadsapp.security.JwtFilter;
+import uz.ilmnajot.newsadsapp.security.JwtProvider;
+import uz.ilmnajot.newsadsapp.security.TokenRevocationService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * CPU cost of authenticating one admin request in {@link JwtFilter}.
+ * <p>
+ * {@code claims}: the filter as it is, one verification, the revocation Bloom filter lookup and the
+ * authentication built from the claims.
+ * {@code threeParses}: the token work of the previous filter, which derived the key and built a parser
+ * for each of its three parses. It does not include the two users queries that filter also made, those
+ * cost a database round-trip each.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uz.ilmnajot.newsadsapp.benchmark.JwtFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET =
+            "wgZLShDJ98aQVgQFtdQ0+sYrV5zqK6+fJiOLtU1YZKxYEdUghMFq93sdUNhU+aWoJlD80I5gKn+Rz8UhDZQhzA==";
+
+    private JwtFilter jwtFilter;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProvider jwtProvider = new JwtProvider(SECRET, 3_600_000L, 2_592_000_000L);
+        jwtFilter = new JwtFilter(jwtProvider,
+                new TokenRevocationService(mock(StringRedisTemplate.class), 3_600_000L, 100_000));
+        User user = User.builder()
+                .username("editor")
+                .isActive(true)
+                .roles(Set.of(Role.builder().name("EDITOR").build(), Role.builder().name("ADMIN").build()))
+                .build();
+        user.setId(UUID.randomUUID());
+        token = jwtProvider.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Authentication claims() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/admin/news");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Object threeParses() {
+        String username = parse().getSubject();
+        boolean valid = username.equals(parse().getSubject()) && parse().getExpiration().getTime() > 0;
+        return valid ? username : null;
+    }
+
+    private Claims parse() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
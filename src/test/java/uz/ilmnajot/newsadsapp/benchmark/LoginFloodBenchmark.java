@@ -0,0 +1,107 @@
+package uz.ilmnajot.newsadsapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import uz.ilmnajot.newsadsapp.exception.ServiceBusyException;
+import uz.ilmnajot.newsadsapp.security.BoundedPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of public request work while 16 threads flood the login with password checks.
+ * <p>
+ * {@code inline}: bcrypt on the request threads, as before. {@code bounded}: the same checks through
+ * {@link BoundedPasswordEncoder} with the default pool size (half the cores). Compare the {@code publicNews}
+ * percentiles of the two; with the bounded pool they should stay close to an idle node, while
+ * {@code login} calls above the queue are refused. Needs a machine with several cores to mean anything.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uz.ilmnajot.newsadsapp.benchmark.LoginFloodBenchmark
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginFloodBenchmark {
+
+    @Param({"inline", "bounded"})
+    public String hashing;
+
+    private PasswordEncoder encoder;
+    private String hash;
+    private ObjectMapper objectMapper;
+    private List<Map<String, Object>> page;
+
+    @Setup
+    public void setup() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(10);
+        hash = bcrypt.encode("secret");
+        encoder = "bounded".equals(hashing)
+                ? new BoundedPasswordEncoder(bcrypt, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                32, Duration.ofSeconds(5))
+                : bcrypt;
+        objectMapper = new ObjectMapper();
+        page = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            page.add(Map.of("id", i, "slug", "news-" + i, "title", "Title of the news article " + i,
+                    "summary", "A short summary of the article, a sentence or two long. ".repeat(3)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (encoder instanceof BoundedPasswordEncoder bounded) {
+            bounded.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(16)
+    public boolean login() {
+        try {
+            return encoder.matches("wrong", hash);
+        } catch (ServiceBusyException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(2)
+    public byte[] publicNews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginFloodBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
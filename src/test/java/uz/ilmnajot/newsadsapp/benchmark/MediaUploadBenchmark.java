@@ -0,0 +1,158 @@
+package uz.ilmnajot.newsadsapp.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.minio.BucketExistsArgs;
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uz.ilmnajot.newsadsapp.storage.MediaUploader;
+import uz.ilmnajot.newsadsapp.storage.PartBufferPool;
+import uz.ilmnajot.newsadsapp.storage.S3MultipartClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload of one video to an S3 stand-in that answers like MinIO behind a link of {@code MB_PER_SECOND} per
+ * connection with {@code LATENCY_MILLIS} per request (an in-process HTTP server, there is no MinIO here).
+ * <p>
+ * {@code sequential}: the previous path, a bucket check and a {@code putObject} of the whole file, whose
+ * parts the SDK sends one after another (not counted: the temp file the multipart resolver wrote first).
+ * {@code streaming}: {@link MediaUploader} with the default settings, 8 MB parts, 4 in flight.
+ * Throughput is {@code size / time}.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uz.ilmnajot.newsadsapp.benchmark.MediaUploadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class MediaUploadBenchmark {
+
+    private static final String BUCKET = "media";
+    private static final int MEGABYTE = 1024 * 1024;
+    private static final long MB_PER_SECOND = 100;
+    private static final long LATENCY_MILLIS = 5;
+
+    @Param({"sequential", "streaming"})
+    public String upload;
+
+    @Param({"64"})
+    public int sizeMb;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private MinioClient minioClient;
+    private MediaUploader uploader;
+    private byte[] video;
+
+    @Setup
+    public void setup() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", MediaUploadBenchmark::handle);
+        server.setExecutor(serverThreads);
+        server.start();
+        String endpoint = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        minioClient = MinioClient.builder().endpoint(endpoint).region("us-east-1")
+                .credentials("minioadmin", "minioadmin").build();
+        S3MultipartClient client = new S3MultipartClient(MinioAsyncClient.builder().endpoint(endpoint)
+                .region("us-east-1").credentials("minioadmin", "minioadmin").build());
+        uploader = new MediaUploader(client, new PartBufferPool(8 * MEGABYTE, 16, Duration.ofSeconds(2)),
+                BUCKET, 4, 2048L * MEGABYTE);
+        video = new byte[sizeMb * MEGABYTE];
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public long upload() throws Exception {
+        String object = UUID.randomUUID() + ".mp4";
+        if ("streaming".equals(upload)) {
+            return uploader.upload(object, "video/mp4", new ByteArrayInputStream(video));
+        }
+        minioClient.bucketExists(BucketExistsArgs.builder().bucket(BUCKET).build());
+        minioClient.putObject(PutObjectArgs.builder().bucket(BUCKET).object(object)
+                .stream(new ByteArrayInputStream(video), video.length, -1).contentType("video/mp4").build());
+        return video.length;
+    }
+
+    // The S3 calls the two paths make: HEAD bucket, PUT object, create / upload part / complete
+    private static void handle(HttpExchange exchange) throws IOException {
+        long received = drain(exchange.getRequestBody());
+        try {
+            Thread.sleep(LATENCY_MILLIS + received * 1000 / (MB_PER_SECOND * MEGABYTE));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String query = exchange.getRequestURI().getQuery();
+        String path = exchange.getRequestURI().getPath();
+        String body = "";
+        if ("POST".equals(exchange.getRequestMethod()) && query != null && query.startsWith("uploads")) {
+            body = "<InitiateMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                    + "<Bucket>" + BUCKET + "</Bucket><Key>" + path + "</Key><UploadId>" + UUID.randomUUID()
+                    + "</UploadId></InitiateMultipartUploadResult>";
+        } else if ("POST".equals(exchange.getRequestMethod())) {
+            body = "<CompleteMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                    + "<Location>" + path + "</Location><Bucket>" + BUCKET + "</Bucket><Key>" + path
+                    + "</Key><ETag>\"etag\"</ETag></CompleteMultipartUploadResult>";
+        }
+        exchange.getResponseHeaders().add("ETag", "\"etag\"");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(200, -1);
+        } else {
+            exchange.sendResponseHeaders(200, bytes.length == 0 ? -1 : bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        byte[] chunk = new byte[64 * 1024];
+        long total = 0;
+        for (int n; (n = in.read(chunk)) > 0; ) {
+            total += n;
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MediaUploadBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,187 @@
+package uz.ilmnajot.newsadsapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword search latency on a large translation corpus: the old LIKE '%kw%' scan
+ * against the tsvector/GIN query. SampleTime mode reports p50/p90/p99 per benchmark.
+ * <p>
+ * Needs a Postgres with the app migrations applied (news_search_config and the search_vector trigger).
+ * The corpus is generated once into bench_news_translation and reused by later runs.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uz.ilmnajot.newsadsapp.benchmark.NewsSearchBenchmark
+ * -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/news -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class NewsSearchBenchmark {
+
+    // Synthetic words w0..w19999 with a skewed distribution: low numbers are common, high numbers are rare
+    private static final String SEED_SQL = """
+            INSERT INTO bench_news_translation (news_id, lang, title, slug, summary, content)
+            SELECT g,
+                   (ARRAY['uz', 'ru', 'en'])[1 + g % 3],
+                   bench_words(8),
+                   'bench-' || g,
+                   bench_words(30),
+                   bench_words(120)
+            FROM generate_series(1, ?) AS g
+            """;
+
+    private static final String LIKE_SQL = """
+            SELECT id, title FROM bench_news_translation
+            WHERE lang = ?
+              AND (lower(title) LIKE ? OR lower(summary) LIKE ? OR lower(content) LIKE ?)
+            LIMIT 20
+            """;
+
+    private static final String FULL_TEXT_SQL = """
+            SELECT id, title, ts_rank_cd(search_vector, q) AS score
+            FROM bench_news_translation, websearch_to_tsquery(news_search_config(?), ?) AS q
+            WHERE lang = ? AND search_vector @@ q
+            ORDER BY score DESC, id DESC
+            LIMIT 20
+            """;
+
+    @Param({"1000000"})
+    public int rows;
+
+    // common, medium and rare term
+    @Param({"w3", "w400", "w15000"})
+    public String term;
+
+    private Connection connection;
+    private PreparedStatement like;
+    private PreparedStatement fullText;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/news_ads"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+        seed();
+        like = connection.prepareStatement(LIKE_SQL);
+        fullText = connection.prepareStatement(FULL_TEXT_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void likeScan(Blackhole blackhole) throws SQLException {
+        // The old NewsFilter keyword predicate
+        String pattern = "%" + term + "%";
+        like.setString(1, "ru");
+        like.setString(2, pattern);
+        like.setString(3, pattern);
+        like.setString(4, pattern);
+        consume(like, blackhole);
+    }
+
+    @Benchmark
+    public void fullText(Blackhole blackhole) throws SQLException {
+        fullText.setString(1, "ru");
+        fullText.setString(2, term);
+        fullText.setString(3, "ru");
+        consume(fullText, blackhole);
+    }
+
+    // consume
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    // Build the corpus once; the trigger from the V5 migration fills search_vector
+    private void seed() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS bench_news_translation
+                    (
+                        id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        news_id       BIGINT       NOT NULL,
+                        lang          VARCHAR(5)   NOT NULL,
+                        title         VARCHAR(500) NOT NULL,
+                        slug          VARCHAR(500) NOT NULL,
+                        summary       TEXT,
+                        content       TEXT,
+                        search_vector tsvector
+                    )
+                    """);
+            try (ResultSet rs = st.executeQuery("SELECT count(*) FROM bench_news_translation")) {
+                rs.next();
+                if (rs.getLong(1) >= rows) {
+                    return;
+                }
+            }
+            st.execute("TRUNCATE bench_news_translation");
+            st.execute("""
+                    CREATE OR REPLACE FUNCTION bench_words(n INT) RETURNS TEXT LANGUAGE sql VOLATILE AS $$
+                        SELECT string_agg('w' || floor(power(random(), 3) * 20000)::INT, ' ')
+                        FROM generate_series(1, n)
+                    $$
+                    """);
+            st.execute("""
+                    CREATE OR REPLACE TRIGGER trg_bench_news_translation_search_vector
+                        BEFORE INSERT OR UPDATE ON bench_news_translation
+                        FOR EACH ROW EXECUTE FUNCTION news_translation_search_vector_update()
+                    """);
+            try (PreparedStatement insert = connection.prepareStatement(SEED_SQL)) {
+                insert.setInt(1, rows);
+                insert.executeUpdate();
+            }
+            st.execute("CREATE INDEX IF NOT EXISTS idx_bench_news_translation_search_vector"
+                    + " ON bench_news_translation USING GIN (search_vector)");
+            st.execute("ANALYZE bench_news_translation");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // Forked JVMs do not see the -D options given to Maven
+        new Runner(new OptionsBuilder()
+                .include(NewsSearchBenchmark.class.getSimpleName())
+                .jvmArgsAppend(
+                        "-Dbench.jdbc.url=" + System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/news_ads"),
+                        "-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user", "postgres"),
+                        "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password", "postgres"))
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,75 @@
+package uz.ilmnajot.newsadsapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import uz.ilmnajot.newsadsapp.service.RateLimitService;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Request-path cost of the local rate limiting tier (no Redis involved) over a spread of clients.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uz.ilmnajot.newsadsapp.benchmark.RateLimitBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimitBenchmark {
+
+    @Param({"100", "100000"})
+    public int clients;
+
+    private RateLimitService rateLimitService;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        rateLimitService = new RateLimitService(mock(StringRedisTemplate.class), 200, 100_000);
+        SplittableRandom random = new SplittableRandom(1);
+        keys = new String[4096];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "10.0." + random.nextInt(clients) + ":/api/v1/public/news";
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public boolean tryAcquire(Cursor cursor) {
+        String key = keys[cursor.next++ & (keys.length - 1)];
+        return rateLimitService.tryAcquire(key, 60, Duration.ofMinutes(1)).allowed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,105 @@
+package uz.ilmnajot.newsadsapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent-request capacity of the request threads, platform vs virtual, at the same heap.
+ * <p>
+ * One operation is a burst of {@code requests} simultaneous requests, each blocked for 20 ms on I/O (the
+ * database and Redis round-trips of a news page) and then serializing the page. {@code platform}: Tomcat's
+ * default of 200 request threads, the rest of the burst waits in the queue. {@code virtual}: a virtual
+ * thread per request, as with {@code spring.threads.virtual.enabled}. Requests per second is
+ * {@code requests / time}; both run with a 256 MB heap.
+ * <p>
+ * The I/O is a sleep: the benchmark measures how many requests can wait at once, not the database.
+ * In the application the Hikari pool (profile {@code virtual}) is the next limit.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uz.ilmnajot.newsadsapp.benchmark.VirtualThreadCapacityBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms256m", "-Xmx256m"})
+public class VirtualThreadCapacityBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long IO_MILLIS = 20;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "2000", "10000"})
+    public int requests;
+
+    private ExecutorService executor;
+    private ObjectMapper objectMapper;
+    private List<Map<String, Object>> page;
+
+    @Setup
+    public void setup() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        objectMapper = new ObjectMapper();
+        page = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            page.add(Map.of("id", i, "slug", "news-" + i, "title", "Title of the news article " + i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public long burst() throws Exception {
+        List<Future<byte[]>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(executor.submit(this::request));
+        }
+        long bytes = 0;
+        for (Future<byte[]> response : responses) {
+            bytes += response.get().length;
+        }
+        return bytes;
+    }
+
+    private byte[] request() throws Exception {
+        Thread.sleep(IO_MILLIS);
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadCapacityBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
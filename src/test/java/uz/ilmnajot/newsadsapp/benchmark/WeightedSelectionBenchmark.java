@@ -0,0 +1,83 @@
+package uz.ilmnajot.newsadsapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uz.ilmnajot.newsadsapp.util.AliasTable;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Old ad rotation (new Random per request + linear scan over the weights)
+ * against the alias table with the per-thread RNG.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=uz.ilmnajot.newsadsapp.benchmark.WeightedSelectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class WeightedSelectionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int candidates;
+
+    private int[] weights;
+    private int totalWeight;
+    private AliasTable aliasTable;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        weights = new int[candidates];
+        totalWeight = 0;
+        for (int i = 0; i < candidates; i++) {
+            weights[i] = 1 + random.nextInt(200);
+            totalWeight += weights[i];
+        }
+        aliasTable = AliasTable.of(weights);
+    }
+
+    @Benchmark
+    public int linearScanWithNewRandom() {
+        int randomWeight = new Random().nextInt(totalWeight);
+        int current = 0;
+        for (int i = 0; i < weights.length; i++) {
+            current += weights[i];
+            if (randomWeight < current) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Benchmark
+    public int aliasTable() {
+        return aliasTable.next();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WeightedSelectionBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,103 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CacheRefreshCoordinatorRedisTest {
+
+    private static final String LOCK = "cache:refresh:newsList:uz:1:0";
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final CacheRefreshCoordinator coordinator =
+            new CacheRefreshCoordinator(redisTemplate, "node-a", Duration.ofMillis(200), 1);
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.shutdown();
+    }
+
+    @Test
+    void finishedRefreshReleasesItsLock() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+
+        coordinator.refreshAsync("newsList", "uz:1:0", done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitLockValue(null);
+    }
+
+    @Test
+    void refreshOutlivingItsLockLeavesTheNextOwnersLock() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch taken = new CountDownLatch(1);
+        coordinator.refreshAsync("newsList", "uz:1:0", () -> {
+            started.countDown();
+            try {
+                taken.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The lock of node-a expires while it is still refreshing and node-b takes it
+        Thread.sleep(300);
+        assertThat(redisTemplate.opsForValue().setIfAbsent(LOCK, "node-b", Duration.ofSeconds(10))).isTrue();
+        taken.countDown();
+        Thread.sleep(200);
+
+        assertThat(redisTemplate.opsForValue().get(LOCK)).isEqualTo("node-b");
+    }
+
+    private void awaitLockValue(String expected) throws InterruptedException {
+        for (int i = 0; i < 50 && !Objects.equals(redisTemplate.opsForValue().get(LOCK), expected); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(redisTemplate.opsForValue().get(LOCK)).isEqualTo(expected);
+    }
+}
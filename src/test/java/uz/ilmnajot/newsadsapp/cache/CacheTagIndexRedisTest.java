@@ -0,0 +1,98 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CacheTagIndexRedisTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final CacheTagIndex index = new CacheTagIndex(redisTemplate,
+            Map.of("newsList", (Function<String, String>) key -> key.substring(0, key.lastIndexOf(':'))),
+            Duration.ofHours(1));
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    void drainReturnsTheTaggedKeysAndRemovesTheSet() {
+        index.register("newsList", "uz:1:0");
+        index.register("newsList", "uz:1:1");
+        index.register("newsList", "ru:1:0");
+
+        assertThat(index.drain("newsList", "uz:1")).containsExactlyInAnyOrder("uz:1:0", "uz:1:1");
+        assertThat(redisTemplate.hasKey("cache:tags:newsList:uz:1")).isFalse();
+        assertThat(index.drain("newsList", "uz:1")).isEmpty();
+        assertThat(index.drain("newsList", "ru:1")).containsExactly("ru:1:0");
+    }
+
+    @Test
+    void keysTaggedDuringADrainAreNeverLost() throws InterruptedException {
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(1);
+        int[] written = {0};
+        writer.execute(() -> {
+            while (running.get()) {
+                index.register("newsList", "uz:1:" + written[0]++);
+            }
+            done.countDown();
+        });
+        Set<String> drained = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            drained.addAll(index.drain("newsList", "uz:1"));
+        }
+        running.set(false);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.shutdown();
+        drained.addAll(index.drain("newsList", "uz:1"));
+
+        assertThat(drained).hasSize(written[0]);
+    }
+}
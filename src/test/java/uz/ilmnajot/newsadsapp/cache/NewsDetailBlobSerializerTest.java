@@ -0,0 +1,54 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NewsDetailBlobSerializerTest {
+
+    private final NewsDetailBlobSerializer serializer = new NewsDetailBlobSerializer();
+    private final byte[] json = "{\"status\":\"OK\",\"data\":{\"title\":\"Сборная\"}}".getBytes(StandardCharsets.UTF_8);
+    private final byte[] gzip = {31, -117, 8, 0, 1, 2, 3};
+    private final NewsDetailBlob blob = new NewsDetailBlob("abc", "news-1 category-2", json, gzip);
+
+    @Test
+    void envelopeRoundTripsWithTheBytesStoredRaw() {
+        byte[] stored = serializer.serialize(new CacheEnvelope(blob, 1_700_000_000_000L, 12));
+
+        CacheEnvelope read = (CacheEnvelope) serializer.deserialize(stored);
+
+        assertThat(read.getRefreshAt()).isEqualTo(1_700_000_000_000L);
+        assertThat(read.getComputeMillis()).isEqualTo(12);
+        NewsDetailBlob value = (NewsDetailBlob) read.getValue();
+        assertThat(value.etag()).isEqualTo("abc");
+        assertThat(value.surrogateKey()).isEqualTo("news-1 category-2");
+        assertThat(value.json()).isEqualTo(json);
+        assertThat(value.gzip()).isEqualTo(gzip);
+        // 17 bytes of header and 4 length prefixes on top of the payload, no base64
+        assertThat(stored).hasSize(17 + 4 * 4 + 3 + 17 + json.length + gzip.length);
+    }
+
+    @Test
+    void blobWithoutEnvelopeRoundTrips() {
+        NewsDetailBlob read = (NewsDetailBlob) serializer.deserialize(serializer.serialize(blob));
+
+        assertThat(read.json()).isEqualTo(json);
+        assertThat(serializer.serialize(null)).isNull();
+        assertThat(serializer.deserialize(null)).isNull();
+    }
+
+    @Test
+    void entryOfTheJsonSerializerIsAMiss() {
+        assertThat(serializer.deserialize("{\"@class\":\"...\"}".getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+
+    @Test
+    void otherValuesAreRejected() {
+        assertThatThrownBy(() -> serializer.serialize("text")).isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,38 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import uz.ilmnajot.newsadsapp.service.PublicNewsService;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PublicCacheRefreshersTest {
+
+    private final PublicNewsService publicNewsService = mock(PublicNewsService.class);
+    private final PublicCacheRefreshers refreshers = new PublicCacheRefreshers(mock(CacheManager.class), publicNewsService);
+
+    @Test
+    void listKeysCallTheMethodTheyWereCachedFor() {
+        refreshers.reloadList("lang:ru:page:2:size:10:cat:5:tag:all");
+        refreshers.reloadList("lang:uz:cursor:MjAyNXwx:size:7:cat:all:tag:sport");
+
+        verify(publicNewsService).getPublicNews(
+                argThat(f -> "ru".equals(f.getLang()) && f.getCategoryId() == 5L && f.getTag() == null),
+                eq(PageRequest.of(2, 10, Sort.by("publishAt").descending())));
+        verify(publicNewsService).getPublicNewsFeed(
+                argThat(f -> "uz".equals(f.getLang()) && f.getCategoryId() == null && "sport".equals(f.getTag())),
+                eq("MjAyNXwx"), eq(7));
+    }
+
+    @Test
+    void detailKeyCallsGetNewsBySlug() {
+        refreshers.reloadDetail("slug:a-b-c:lang:uz");
+
+        verify(publicNewsService).getNewsBySlug("a-b-c", "uz");
+    }
+}
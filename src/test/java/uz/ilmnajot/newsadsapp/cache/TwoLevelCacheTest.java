@@ -0,0 +1,127 @@
+package uz.ilmnajot.newsadsapp.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remote;
+    private CacheInvalidationPublisher publisher;
+    private SimpleMeterRegistry registry;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("tags", false);
+        publisher = mock(CacheInvalidationPublisher.class);
+        registry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache("tags", Caffeine.newBuilder().maximumSize(100).build(), remote, publisher, null, registry);
+    }
+
+    @Test
+    void loaderRunsOnceAndLaterReadsStayInL1() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("value", cache.get("k", () -> {
+                loads.incrementAndGet();
+                return "value";
+            }));
+        }
+        remote.clear(); // L1 must not need L2 anymore
+
+        assertEquals("value", cache.get("k").get());
+        assertEquals(1, loads.get());
+        assertEquals(3.0, count("l1", "hit"));
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "miss"));
+    }
+
+    @Test
+    void l2HitFillsL1() {
+        remote.put("k", "value");
+
+        assertEquals("value", cache.get("k").get());
+        assertEquals("value", cache.get("k").get());
+        assertEquals(1.0, count("l2", "hit"));
+        assertEquals(1.0, count("l1", "hit"));
+    }
+
+    @Test
+    void evictClearsBothTiersAndBroadcasts() {
+        cache.put(42L, "value");
+        cache.evict(42L);
+
+        assertNull(cache.get(42L));
+        assertNull(remote.get(42L));
+        verify(publisher).publishEvict("tags", "42");
+    }
+
+    @Test
+    void remoteInvalidationOnlyTouchesL1() {
+        cache.put("k", "value");
+        remote.put("k", "newer");
+
+        cache.evictLocal("k");
+
+        assertEquals("newer", cache.get("k").get());
+    }
+
+    @Test
+    void staleValueIsServedWhileTheRefresherReloadsInBackground() {
+        CacheRefreshCoordinator coordinator = mock(CacheRefreshCoordinator.class);
+        Runnable[] scheduled = new Runnable[1];
+        doAnswer(invocation -> scheduled[0] = invocation.getArgument(2))
+                .when(coordinator).refreshAsync(eq("newsList"), eq("k"), any());
+        TwoLevelCache swr = refreshedCache(coordinator);
+        AtomicInteger version = new AtomicInteger(1);
+        // What the proxy does on a new call: hand the cache a loader of its own invocation
+        swr.setRefresher(key -> swr.get(key, () -> "v" + version.get()));
+
+        assertEquals("v1", swr.get("k", () -> "v1"));
+        verify(coordinator, never()).refreshAsync(any(), any(), any()); // just loaded, not stale
+        version.set(2);
+        // due for refresh: the old value comes back at once, the request's loader is not kept
+        assertEquals("v1", swr.get("k", () -> "from the request"));
+
+        scheduled[0].run();
+        assertEquals("v2", swr.get("k").get());
+        assertEquals("v2", ((CacheEnvelope) remote.get("k").get()).getValue());
+        verify(publisher).publishEvict("newsList", "k");
+    }
+
+    @Test
+    void withoutARefresherStaleValuesAreNotRefreshedEarly() {
+        CacheRefreshCoordinator coordinator = mock(CacheRefreshCoordinator.class);
+        TwoLevelCache swr = refreshedCache(coordinator);
+
+        swr.get("k", () -> "v1");
+        assertEquals("v1", swr.get("k", () -> "v2"));
+
+        verify(coordinator, never()).refreshAsync(any(), any(), any());
+    }
+
+    private TwoLevelCache refreshedCache(CacheRefreshCoordinator coordinator) {
+        return new TwoLevelCache("newsList", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                publisher, null, new TwoLevelCacheManager.RefreshSpec(Duration.ZERO, Duration.ofMinutes(1), 1.0),
+                coordinator, registry);
+    }
+
+    private double count(String tier, String result) {
+        return registry.get("cache.tier.gets").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,67 @@
+package uz.ilmnajot.newsadsapp.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import uz.ilmnajot.newsadsapp.exception.GlobalException;
+import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
+import uz.ilmnajot.newsadsapp.service.AdTrackingService;
+import uz.ilmnajot.newsadsapp.service.AdsAssignmentService;
+
+import java.net.URI;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PublicAdsControllerTest {
+
+    private final AdTrackingService adTrackingService = mock(AdTrackingService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new PublicAdsController(mock(AdsAssignmentService.class), adTrackingService))
+                .setControllerAdvice(new GlobalException())
+                .build();
+    }
+
+    @Test
+    void clickRedirectsToTheLandingUrl() throws Exception {
+        when(adTrackingService.recordClick(7L, "t1")).thenReturn(URI.create("https://example.com/offer?id=1"));
+
+        mockMvc.perform(get("/api/v1/public/ads/7/click").param("token", "t1"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://example.com/offer?id=1"));
+    }
+
+    @Test
+    void unusableAdIsNotFound() throws Exception {
+        when(adTrackingService.recordClick(7L, "t1")).thenThrow(new ResourceNotFoundException("Ad not found"));
+
+        mockMvc.perform(get("/api/v1/public/ads/7/click").param("token", "t1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void impressionPassesTheToken() throws Exception {
+        mockMvc.perform(get("/api/v1/public/ads/7/impression").param("token", "t1"))
+                .andExpect(status().isNoContent());
+
+        verify(adTrackingService).recordImpression(7L, "t1");
+    }
+
+    @Test
+    void eventsWithoutATokenAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/public/ads/7/impression"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/public/ads/7/click"))
+                .andExpect(status().isBadRequest());
+
+        verify(adTrackingService, never()).recordImpression(any(), any());
+        verify(adTrackingService, never()).recordClick(any(), any());
+    }
+}
@@ -0,0 +1,140 @@
+package uz.ilmnajot.newsadsapp.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import uz.ilmnajot.newsadsapp.cache.ContentGenerations;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+import uz.ilmnajot.newsadsapp.service.NewsSearchService;
+import uz.ilmnajot.newsadsapp.service.PublicNewsService;
+import uz.ilmnajot.newsadsapp.util.HttpCaching;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PublicNewsControllerTest {
+
+    private final PublicNewsService publicNewsService = mock(PublicNewsService.class);
+    private final NewsSearchService newsSearchService = mock(NewsSearchService.class);
+    private final ContentGenerations contentGenerations = mock(ContentGenerations.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        PublicNewsController controller = new PublicNewsController(publicNewsService,
+                newsSearchService, contentGenerations, new HttpCaching(30, 60, 30));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void matchingListVersionIsAnsweredWithoutTheService() throws Exception {
+        when(contentGenerations.current(ContentGenerations.NEWS)).thenReturn("17");
+
+        mockMvc.perform(get("/api/v1/public/news").header(HttpHeaders.IF_NONE_MATCH, "\"n17\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"n17\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL,
+                        "max-age=30, public, s-maxage=60, stale-while-revalidate=30"));
+
+        verifyNoInteractions(publicNewsService);
+    }
+
+    @Test
+    void listCarriesVersionAndSurrogateKeys() throws Exception {
+        when(contentGenerations.current(ContentGenerations.NEWS)).thenReturn("18");
+        when(publicNewsService.getPublicNews(any(), any())).thenReturn(ApiResponse.builder()
+                .status(HttpStatus.OK)
+                .data(List.of(NewsPublicResponse.builder().id(5L).build(),
+                        NewsPublicResponse.builder().id(9L).build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/public/news?categoryId=3&tag=sport")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"n17\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"n18\""))
+                .andExpect(header().string(HttpCaching.SURROGATE_KEY,
+                        "news category-3 tag-sport news-5 news-9"));
+
+        verify(contentGenerations, never()).initialise(any());
+    }
+
+    @Test
+    void feedSizeIsClampedToOneToFifty() throws Exception {
+        when(publicNewsService.getPublicNewsFeed(any(), any(), anyInt()))
+                .thenReturn(ApiResponse.builder().status(HttpStatus.OK).data(List.of()).build());
+
+        mockMvc.perform(get("/api/v1/public/news?cursor=&size=100000")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/public/news?cursor=&size=0")).andExpect(status().isOk());
+
+        verify(publicNewsService).getPublicNewsFeed(any(), eq(""), eq(50));
+        verify(publicNewsService).getPublicNewsFeed(any(), eq(""), eq(1));
+    }
+
+    @Test
+    void keywordListIsAFullTextSearch() throws Exception {
+        when(contentGenerations.current(ContentGenerations.NEWS)).thenReturn("18");
+        when(newsSearchService.search(any(), eq(1), eq(10))).thenReturn(ApiResponse.builder()
+                .status(HttpStatus.OK)
+                .data(List.of(NewsSearchHit.builder().newsId(5L).build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/public/news?keyword=futbol&page=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpCaching.SURROGATE_KEY, "news news-5"));
+
+        verify(newsSearchService).search(argThat(filter -> "futbol".equals(filter.getKeyword())), eq(1), eq(10));
+        verifyNoInteractions(publicNewsService);
+    }
+
+    @Test
+    void keywordWithCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/public/news?keyword=futbol&cursor="))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(publicNewsService, newsSearchService);
+    }
+
+    @Test
+    void detailWithoutVersionFallsBackToTheContentHash() throws Exception {
+        byte[] json = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+        when(contentGenerations.current(anyString(), anyString())).thenReturn(null);
+        when(publicNewsService.getNewsBySlug("slug", "uz"))
+                .thenReturn(new NewsDetailBlob("abc", "news-1 category-2", json, new byte[]{1, 2}));
+
+        mockMvc.perform(get("/api/v1/public/news/slug").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-gz\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpCaching.SURROGATE_KEY, "news-1 category-2"))
+                .andExpect(content().bytes(new byte[]{1, 2}));
+
+        verify(contentGenerations).initialise(ContentGenerations.detail("uz", "slug"), ContentGenerations.NEWS_META);
+    }
+
+    @Test
+    void detailVersionIsPerEncoding() throws Exception {
+        when(contentGenerations.current(ContentGenerations.detail("uz", "slug"), ContentGenerations.NEWS_META))
+                .thenReturn("4.7");
+
+        mockMvc.perform(get("/api/v1/public/news/slug").header(HttpHeaders.IF_NONE_MATCH, "W/\"d4.7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"d4.7\""));
+
+        verifyNoInteractions(publicNewsService);
+    }
+}
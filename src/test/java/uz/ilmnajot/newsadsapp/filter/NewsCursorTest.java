@@ -0,0 +1,50 @@
+package uz.ilmnajot.newsadsapp.filter;
+
+import org.junit.jupiter.api.Test;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NewsCursorTest {
+
+    @Test
+    void roundTripsDatedCursor() {
+        NewsCursor cursor = new NewsCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_000_000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(NewsCursor.decode(encoded)).isEqualTo(cursor);
+        assertThat(cursor.dated()).isTrue();
+        assertThat(cursor.undatedIdBound()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void roundTripsUndatedCursor() {
+        NewsCursor cursor = new NewsCursor(null, 7L);
+
+        NewsCursor decoded = NewsCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.dated()).isFalse();
+        assertThat(decoded.undatedIdBound()).isEqualTo(7L);
+    }
+
+    @Test
+    void blankCursorStartsFromTheTop() {
+        assertThat(NewsCursor.decode(null)).isEqualTo(NewsCursor.START);
+        assertThat(NewsCursor.decode("  ")).isEqualTo(NewsCursor.START);
+        assertThat(NewsCursor.START.dated()).isTrue();
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThatThrownBy(() -> NewsCursor.decode("not a cursor"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> NewsCursor.decode("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,238 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.filter.NewsCursor;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.repository.RecordingDataSource.Bind;
+import uz.ilmnajot.newsadsapp.repository.RecordingDataSource.Recorded;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uz.ilmnajot.newsadsapp.repository.RecordingDataSource.RECORDED;
+import static uz.ilmnajot.newsadsapp.repository.RecordingDataSource.unwrap;
+
+/**
+ * Plan regression test for the repository queries: seeds a production-like volume, runs every query
+ * method of {@link NewsRepository}, {@link AdsAssignmentRepository} and {@link PublicNewsViewRepository}
+ * with realistic arguments,
+ * records the SQL and bind values Hibernate sends and EXPLAINs them with the same values.
+ * <p>
+ * A Seq Scan on one of the large tables fails the test. COUNT queries of the offset pages are exempt,
+ * they visit every matching row by definition.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PublicNewsViewRepositoryImpl.class, RecordingDataSource.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class HotQueryIndexUsageTest {
+
+    // Tables that grow with the content; everything else stays small enough for a Seq Scan to be right
+    private static final Set<String> LARGE_TABLES = Set.of(
+            "news", "news_translation", "news_tag", "ads_assignment", "public_news_view");
+
+    // Loads every servable assignment by design (the decision engine snapshot)
+    private static final Set<String> FULL_READS = Set.of("findServableAssignments");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private AdsAssignmentRepository adsAssignmentRepository;
+
+    @Autowired
+    private PublicNewsViewRepository publicNewsViewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void repositoryQueriesDoNotSeqScanLargeTables() throws Exception {
+        seed();
+
+        LocalDateTime now = LocalDateTime.now();
+        Pageable newest = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "publishAt"));
+        NewsCursor start = NewsCursor.START;
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findAllNonDeleted", () -> newsRepository.findAllNonDeleted(newest));
+        // findByAuthorId is not run: it binds a Long to the UUID author id
+        queries.put("findByCategoryId", () -> newsRepository.findByCategoryId(7L, newest));
+        queries.put("findByStatus", () -> newsRepository.findByStatus(NewsStatus.REVIEW, newest));
+        queries.put("findByTagCode", () -> newsRepository.findByTagCode("tag-7", newest));
+        queries.put("findPublishedNews", () -> newsRepository.findPublishedNews(NewsStatus.PUBLISHED, now, newest));
+        queries.put("findPublishedNewsByLang",
+                () -> newsRepository.findPublishedNewsByLang(NewsStatus.PUBLISHED, "ru", now, newest));
+        queries.put("findNewsToPublish", () -> newsRepository.findNewsToPublish(NewsStatus.REVIEW, now));
+        queries.put("findNewsToUnpublish", () -> newsRepository.findNewsToUnpublish(NewsStatus.PUBLISHED, now));
+        queries.put("findNewsPublishAtBetween",
+                () -> newsRepository.findNewsPublishAtBetween(NewsStatus.PUBLISHED, now.minusMinutes(1), now));
+        queries.put("findByIdAndIsDeletedFalse", () -> newsRepository.findByIdAndIsDeletedFalse(42L));
+        queries.put("findIndexableNewsIdsAfter", () -> newsRepository.findIndexableNewsIdsAfter(25_000L, Limit.of(500)));
+        queries.put("findNewsByIds", () -> newsRepository.findNewsByIds(
+                LongStream.rangeClosed(1, 20).boxed().toList()));
+        queries.put("view.findPage", () -> publicNewsViewRepository.findPage(filter("ru", null, null), now, 0, 20));
+        queries.put("view.findPage(category)",
+                () -> publicNewsViewRepository.findPage(filter("ru", 7L, null), now, 0, 20));
+        queries.put("view.findPage(tag)",
+                () -> publicNewsViewRepository.findPage(filter("ru", null, "tag-7"), now, 0, 20));
+        queries.put("view.findFeed", () -> publicNewsViewRepository.findFeed(filter("ru", null, null), now, start, 20));
+        queries.put("view.findFeed(undated)", () -> publicNewsViewRepository.findFeed(
+                filter("ru", null, null), now, new NewsCursor(null, Long.MAX_VALUE), 20));
+        queries.put("view.findBySlug", () -> publicNewsViewRepository.findBySlug("news-43-ru", "ru", now));
+        queries.put("findActiveAssignmentsByPlacement",
+                () -> adsAssignmentRepository.findActiveAssignmentsByPlacement("slot-7", now));
+        queries.put("findServableAssignments", () -> adsAssignmentRepository.findServableAssignments(now));
+        queries.put("findByPlacementId", () -> adsAssignmentRepository.findByPlacementId(7L));
+        queries.put("findByCampaignId", () -> adsAssignmentRepository.findByCampaignId(7L));
+        queries.put("findActiveAssignmentsForPlacement",
+                () -> adsAssignmentRepository.findActiveAssignmentsForPlacement("slot-7"));
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            RECORDED.clear();
+            query.getValue().run();
+            assertThat(RECORDED).as(query.getKey()).isNotEmpty();
+            if (FULL_READS.contains(query.getKey())) {
+                continue;
+            }
+            for (Recorded statement : List.copyOf(RECORDED)) {
+                for (String table : seqScans(statement)) {
+                    violations.add(query.getKey() + ": Seq Scan on " + table + " in " + statement.sql());
+                }
+            }
+        }
+
+        assertThat(violations).isEmpty();
+    }
+
+    // Relations read by a Seq Scan in the plan of the statement, bound with the recorded values
+    private List<String> seqScans(Recorded statement) throws Exception {
+        if (statement.sql().regionMatches(true, 0, "select count(", 0, 13)) {
+            return List.of();
+        }
+        try (Connection connection = unwrap(dataSource).getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (Bind bind : statement.binds()) {
+                bind.method().invoke(explain, bind.args());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                List<String> tables = new ArrayList<>();
+                collectSeqScans(objectMapper.readTree(rs.getString(1)).get(0).get("Plan"), tables);
+                return tables;
+            }
+        }
+    }
+
+    // collectSeqScans
+    private static void collectSeqScans(JsonNode plan, List<String> tables) {
+        if ("Seq Scan".equals(plan.path("Node Type").asText())
+                && LARGE_TABLES.contains(plan.path("Relation Name").asText())) {
+            tables.add(plan.path("Relation Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectSeqScans(child, tables);
+        }
+    }
+
+    // Production-like proportions: most news published, three languages, two tags each, many ads per placement
+    private void seed() {
+        jdbcTemplate.execute("""
+                INSERT INTO users (id, username, email, full_name, password_hash, is_active)
+                SELECT ('00000000-0000-0000-0000-' || lpad(g::text, 12, '0'))::uuid,
+                       'user' || g, 'user' || g || '@example.com', 'User ' || g, 'x', true
+                FROM generate_series(1, 20) g;
+
+                INSERT INTO category (id, is_active) SELECT g, true FROM generate_series(1, 50) g;
+                INSERT INTO tag (id, code, is_active) SELECT g, 'tag-' || g, true FROM generate_series(1, 500) g;
+
+                INSERT INTO news (id, author_id, category_id, status, is_featured, is_deleted, publish_at, unpublish_at)
+                SELECT g,
+                       ('00000000-0000-0000-0000-' || lpad((1 + g % 20)::text, 12, '0'))::uuid,
+                       1 + g % 50,
+                       CASE WHEN g % 100 = 0 THEN 'REVIEW' WHEN g % 10 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END,
+                       false,
+                       g % 47 = 0,
+                       CASE WHEN g % 97 = 0 THEN NULL ELSE localtimestamp - g * interval '17 minutes' END,
+                       CASE WHEN g % 501 = 0 THEN localtimestamp - interval '1 hour' END
+                FROM generate_series(1, 50000) g;
+
+                INSERT INTO news_translation (news_id, lang, title, slug, summary, content)
+                SELECT n.id, l.lang, 'Title ' || n.id, 'news-' || n.id || '-' || l.lang, 'Summary', 'Content'
+                FROM news n CROSS JOIN (VALUES ('uz'), ('ru'), ('en')) AS l(lang)
+                WHERE l.lang = 'uz' OR n.id % 3 <> 0;
+
+                INSERT INTO news_tag (news_id, tag_id)
+                SELECT id, 1 + id % 500 FROM news
+                UNION ALL
+                SELECT id, 1 + (id * 7 + 3) % 500 FROM news;
+
+                INSERT INTO ads_placement (id, code, title, is_active)
+                SELECT g, 'slot-' || g, 'Slot ' || g, true FROM generate_series(1, 200) g;
+
+                INSERT INTO ads_campaign (id, name, advertiser, status)
+                SELECT g, 'Campaign ' || g, 'Advertiser ' || g % 50,
+                       CASE WHEN g % 5 = 0 THEN 'PAUSED' ELSE 'ACTIVE' END
+                FROM generate_series(1, 1000) g;
+
+                INSERT INTO ads_creative (id, campaign_id, type, landing_url, is_active)
+                SELECT g, 1 + g % 1000, 'HTML', 'https://example.com/' || g, true FROM generate_series(1, 2000) g;
+
+                INSERT INTO ads_assignment (placement_id, campaign_id, creative_id, weight, is_active)
+                SELECT 1 + g % 200, 1 + g % 1000, 1 + g % 2000, 1, g % 4 <> 0 FROM generate_series(1, 20000) g;
+                """);
+        publicNewsViewRepository.refreshAll();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // filter
+    private static NewsFilter filter(String lang, Long categoryId, String tag) {
+        NewsFilter filter = new NewsFilter();
+        filter.setLang(lang);
+        filter.setCategoryId(categoryId);
+        filter.setTag(tag);
+        return filter;
+    }
+}
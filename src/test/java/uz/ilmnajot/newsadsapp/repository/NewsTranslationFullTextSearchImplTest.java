@@ -0,0 +1,24 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsTranslationFullTextSearchImplTest {
+
+    @Test
+    void onlyTheSelectionsStayMarkup() {
+        // What ts_headline returns for a summary with an editor-typed "<script>" and a stray "<"
+        String headline = "&lt;script&gt;alert(1)&lt;/script&gt; <mark>Stadion</mark> a < b "
+                + "&lt;img src=x onerror=alert(2)&gt; Tom &amp; Jerry";
+
+        assertThat(NewsTranslationFullTextSearchImpl.safeSnippet(headline)).isEqualTo(
+                "&lt;script&gt;alert(1)&lt;/script&gt; <mark>Stadion</mark> a &lt; b "
+                        + "&lt;img src=x onerror=alert(2)&gt; Tom &amp; Jerry");
+    }
+
+    @Test
+    void missingHeadlineStaysNull() {
+        assertThat(NewsTranslationFullTextSearchImpl.safeSnippet(null)).isNull();
+    }
+}
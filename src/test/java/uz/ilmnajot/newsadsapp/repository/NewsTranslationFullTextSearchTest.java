@@ -0,0 +1,157 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
+import uz.ilmnajot.newsadsapp.entity.Tag;
+import uz.ilmnajot.newsadsapp.entity.User;
+import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the real migrations, so the search_vector trigger and GIN index from V5 are exercised
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class NewsTranslationFullTextSearchTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NewsTranslationRepository newsTranslationRepository;
+
+    private User author;
+    private Tag sport;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setFullName("Author");
+        author.setPassword("x");
+        entityManager.persist(author);
+
+        sport = new Tag();
+        sport.setCode("sport");
+        entityManager.persist(sport);
+
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        news(author, NewsStatus.PUBLISHED, yesterday, Set.of(sport), "ru",
+                "Сборная выиграла матч", "Итоги вечера", "Команда уверенно провела игру.");
+        news(author, NewsStatus.PUBLISHED, yesterday.minusHours(1), Set.of(), "ru",
+                "Погода на выходные", "Прогноз", "После дождя состоится перенесённый матч.");
+        news(author, NewsStatus.DRAFT, yesterday, Set.of(), "ru",
+                "Черновик про матч", null, null);
+        news(author, NewsStatus.PUBLISHED, yesterday, Set.of(), "uz",
+                "Termiz futbol jamoasi", "Yangi mavsum", "Futbol mavsumi boshlandi.");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void stemsRanksAndHighlights() {
+        List<NewsSearchHit> hits = search("ru", "матчи", null);
+
+        // Russian stemming: "матчи" finds "матч"; the draft is not public
+        assertThat(hits).extracting(NewsSearchHit::getTitle)
+                .containsExactly("Сборная выиграла матч", "Погода на выходные");
+        // A title hit outranks a body hit
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+        assertThat(hits.get(1).getSnippet()).contains("<mark>матч</mark>");
+    }
+
+    @Test
+    void snippetCarriesNoMarkupFromTheArticle() {
+        news(author, NewsStatus.PUBLISHED,
+                LocalDateTime.now().minusDays(1), Set.of(), "uz", "Xavfli maqola",
+                "<script>alert(1)</script> Stadion <img src=x onerror=alert(2)> yangiliklari",
+                "<p>Tom &amp; Jerry &lt;b&gt;</p>");
+        entityManager.flush();
+
+        String snippet = search("uz", "stadion", null).get(0).getSnippet();
+
+        assertThat(snippet).contains("<mark>Stadion</mark>")
+                .doesNotContain("<script", "<img", "onerror=", "<p>", "<b>");
+        assertThat(snippet.replace("<mark>", "").replace("</mark>", "")).doesNotContain("<");
+    }
+
+    @Test
+    void filtersByLangAndTag() {
+        assertThat(search("uz", "futbol", null)).extracting(NewsSearchHit::getTitle)
+                .containsExactly("Termiz futbol jamoasi");
+        assertThat(search("ru", "futbol", null)).isEmpty();
+        assertThat(search("ru", "матч", "sport")).extracting(NewsSearchHit::getTitle)
+                .containsExactly("Сборная выиграла матч");
+    }
+
+    @Test
+    void triggerKeepsVectorInSyncOnUpdate() {
+        NewsTranslation translation = entityManager
+                .createQuery("SELECT t FROM NewsTranslation t WHERE t.title = :title", NewsTranslation.class)
+                .setParameter("title", "Погода на выходные")
+                .getSingleResult();
+        translation.setContent("Ожидается солнце.");
+        entityManager.flush();
+
+        assertThat(search("ru", "матч", null)).extracting(NewsSearchHit::getTitle)
+                .containsExactly("Сборная выиграла матч");
+        assertThat(search("ru", "солнце", null)).hasSize(1);
+    }
+
+    // search
+    private List<NewsSearchHit> search(String lang, String q, String tag) {
+        NewsFilter filter = new NewsFilter();
+        filter.setLang(lang);
+        filter.setKeyword(q);
+        filter.setTag(tag);
+        return newsTranslationRepository.searchPublished(filter, LocalDateTime.now(), 0, 10);
+    }
+
+    // news
+    private void news(User author, NewsStatus status, LocalDateTime publishAt, Set<Tag> tags,
+                      String lang, String title, String summary, String content) {
+        News news = new News();
+        news.setAuthor(author);
+        news.setStatus(status);
+        news.setIsDeleted(false);
+        news.setIsFeatured(false);
+        news.setPublishAt(publishAt);
+        news.setTags(tags);
+        news.setTranslations(new ArrayList<>());
+        NewsTranslation translation = new NewsTranslation();
+        translation.setNews(news);
+        translation.setLang(lang);
+        translation.setTitle(title);
+        translation.setSlug(title.toLowerCase().replace(' ', '-'));
+        translation.setSummary(summary);
+        translation.setContent(content);
+        news.getTranslations().add(translation);
+        entityManager.persist(news);
+    }
+}
@@ -0,0 +1,100 @@
+package uz.ilmnajot.newsadsapp.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * DataSource proxy for tests: records every SELECT prepared on the pool, whoever prepares it (Hibernate,
+ * JdbcTemplate), together with its parameter setter calls. Import {@link Config} to install it.
+ */
+public final class RecordingDataSource {
+
+    public static final List<Recorded> RECORDED = new CopyOnWriteArrayList<>();
+
+    private RecordingDataSource() {
+    }
+
+    // The recording proxy wraps the pool; statements sent to the pool directly are not recorded
+    public static DataSource unwrap(DataSource dataSource) {
+        return Proxy.isProxyClass(dataSource.getClass())
+                && Proxy.getInvocationHandler(dataSource) instanceof RecordingHandler handler
+                ? (DataSource) handler.target : dataSource;
+    }
+
+    public record Bind(Method method, Object[] args) {
+    }
+
+    public record Recorded(String sql, List<Bind> binds) {
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource, null) : bean;
+                }
+            };
+        }
+    }
+
+    // proxy
+    private static Object proxy(Class<?> type, Object target, Recorded recorded) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new RecordingHandler(target, recorded));
+    }
+
+    private static final class RecordingHandler implements InvocationHandler {
+
+        private final Object target;
+        private final Recorded recorded;
+
+        RecordingHandler(Object target, Recorded recorded) {
+            this.target = target;
+            this.recorded = recorded;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection, null);
+            }
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                String sql = (String) args[0];
+                if (!sql.regionMatches(true, 0, "select", 0, 6)) {
+                    return statement;
+                }
+                Recorded statementRecord = new Recorded(sql, new ArrayList<>());
+                RECORDED.add(statementRecord);
+                return proxy(PreparedStatement.class, statement, statementRecord);
+            }
+            // Parameter setters are setXxx(index, value, ...); setFetchSize and friends take one argument
+            if (recorded != null && method.getName().startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                recorded.binds().add(new Bind(method, args.clone()));
+            }
+            return result;
+        }
+    }
+}
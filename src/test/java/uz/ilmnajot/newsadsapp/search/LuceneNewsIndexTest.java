@@ -0,0 +1,185 @@
+package uz.ilmnajot.newsadsapp.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uz.ilmnajot.newsadsapp.dto.NewsSearchHit;
+import uz.ilmnajot.newsadsapp.entity.Category;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
+import uz.ilmnajot.newsadsapp.entity.Tag;
+import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuceneNewsIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private LuceneNewsIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new LuceneNewsIndex(dir, 1000);
+        index.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void latinQueryFindsCyrillicUzbekAndBack() {
+        index.replace(news(1L, NOW.minusDays(1), "uz", "Ўзбекистон терма жамоаси ғалаба қозонди", "Хабар"));
+        index.replace(news(2L, NOW.minusDays(1), "uz", "O'zbekiston iqtisodiyoti", "Yangi xabar"));
+        index.refresh();
+
+        assertThat(ids(search("uz", "ozbekiston"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(search("uz", "Ўзбекистон"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(search("uz", "oʻzbekiston"))).containsExactlyInAnyOrder(1L, 2L);
+        // х / x
+        assertThat(ids(search("uz", "xabar"))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void russianIsStemmedAndHighlighted() {
+        index.replace(news(1L, NOW.minusDays(1), "ru", "Сборная выиграла матч", "Команда провела игру"));
+        index.replace(news(2L, NOW.minusDays(2), "ru", "Погода", "Перенесённые матчи состоятся позже"));
+        index.refresh();
+
+        List<NewsSearchHit> hits = search("ru", "матчи");
+
+        // title boost puts the title match first
+        assertThat(ids(hits)).containsExactly(1L, 2L);
+        assertThat(hits.get(1).getSnippet()).contains("<mark>матчи</mark>");
+        assertThat(hits.get(0).getSlug()).isEqualTo("slug-1-ru");
+        assertThat(hits.get(0).getCategoryId()).isEqualTo(10L);
+        assertThat(ids(search("ru", "match"))).containsExactly(1L, 2L);
+        assertThat(search("uz", "матч")).isEmpty();
+    }
+
+    @Test
+    void snippetCarriesNoMarkupFromTheArticle() {
+        News news = news(1L, NOW.minusDays(1), "uz", "Xavfli maqola", "<p>Tom &amp; Jerry &lt;b&gt;</p>");
+        news.getTranslations().get(0)
+                .setSummary("<script>alert(1)</script> Stadion <img src=x onerror=alert(2)> yangiliklari");
+        index.replace(news);
+        index.refresh();
+
+        String snippet = search("uz", "stadion").get(0).getSnippet();
+
+        assertThat(snippet).contains("<mark>Stadion</mark>")
+                .doesNotContain("<script", "<img", "onerror", "<p>", "<b>");
+        assertThat(snippet.replace("<mark>", "").replace("</mark>", "")).doesNotContain("<");
+        // Tags are not indexed as words
+        assertThat(search("uz", "onerror")).isEmpty();
+    }
+
+    @Test
+    void appliesPublishWindowCategoryTagAndDateFilters() {
+        News scheduled = news(1L, NOW.plusHours(1), "en", "Election results", "");
+        News expired = news(2L, NOW.minusDays(3), "en", "Election debate", "");
+        expired.setUnpublishAt(NOW.minusDays(1));
+        News other = news(3L, NOW.minusDays(2), "en", "Election day", "");
+        other.getCategory().setId(20L);
+        other.setTags(Set.of());
+        News undated = news(4L, null, "en", "Election guide", "");
+        List.of(scheduled, expired, other, undated, news(5L, NOW.minusDays(5), "en", "Elections", ""))
+                .forEach(index::replace);
+        index.refresh();
+
+        assertThat(ids(search("en", "election"))).containsExactlyInAnyOrder(3L, 4L, 5L);
+
+        NewsFilter byCategory = filter("en", "election");
+        byCategory.setCategoryId(10L);
+        assertThat(ids(index.searchPublished(byCategory, NOW, 0, 10))).containsExactlyInAnyOrder(4L, 5L);
+
+        NewsFilter byTag = filter("en", "election");
+        byTag.setTag("politics");
+        assertThat(ids(index.searchPublished(byTag, NOW, 0, 10))).containsExactlyInAnyOrder(4L, 5L);
+
+        NewsFilter byDate = filter("en", "election");
+        byDate.setFrom(NOW.minusDays(3).toLocalDate());
+        byDate.setTo(LocalDate.from(NOW));
+        assertThat(ids(index.searchPublished(byDate, NOW, 0, 10))).containsExactly(3L);
+    }
+
+    @Test
+    void unpublishedNewsIsRemovedAndRebuildDropsStaleDocuments() {
+        index.replace(news(1L, NOW.minusDays(1), "en", "Budget news", ""));
+        index.replace(news(2L, NOW.minusDays(1), "en", "Budget plan", ""));
+        index.refresh();
+        assertThat(ids(search("en", "budget"))).containsExactlyInAnyOrder(1L, 2L);
+
+        News archived = news(1L, NOW.minusDays(1), "en", "Budget news", "");
+        archived.setStatus(NewsStatus.ARCHIVED);
+        index.replace(archived);
+        index.refresh();
+        assertThat(ids(search("en", "budget"))).containsExactly(2L);
+
+        // a rebuild that no longer sees news 2 drops it
+        long generation = index.startGeneration();
+        index.replace(news(3L, NOW.minusDays(1), "en", "Budget vote", ""));
+        index.deleteOlderThan(generation);
+        index.refresh();
+        assertThat(ids(search("en", "budget"))).containsExactly(3L);
+    }
+
+    // search
+    private List<NewsSearchHit> search(String lang, String q) {
+        return index.searchPublished(filter(lang, q), NOW, 0, 10);
+    }
+
+    // filter
+    private static NewsFilter filter(String lang, String q) {
+        NewsFilter filter = new NewsFilter();
+        filter.setLang(lang);
+        filter.setKeyword(q);
+        return filter;
+    }
+
+    // ids
+    private static List<Long> ids(List<NewsSearchHit> hits) {
+        return hits.stream().map(NewsSearchHit::getNewsId).toList();
+    }
+
+    // news
+    private static News news(Long id, LocalDateTime publishAt, String lang, String title, String content) {
+        Category category = new Category();
+        category.setId(10L);
+        Tag tag = new Tag();
+        tag.setCode("politics");
+
+        News news = new News();
+        news.setId(id);
+        news.setStatus(NewsStatus.PUBLISHED);
+        news.setIsDeleted(false);
+        news.setPublishAt(publishAt);
+        news.setCategory(category);
+        news.setTags(Set.of(tag));
+        news.setTranslations(new ArrayList<>());
+
+        NewsTranslation translation = new NewsTranslation();
+        translation.setNews(news);
+        translation.setLang(lang);
+        translation.setTitle(title);
+        translation.setSlug("slug-" + id + "-" + lang);
+        translation.setContent(content);
+        news.getTranslations().add(translation);
+        return news;
+    }
+}
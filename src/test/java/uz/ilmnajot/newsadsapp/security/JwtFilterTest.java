@@ -0,0 +1,91 @@
+package uz.ilmnajot.newsadsapp.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import uz.ilmnajot.newsadsapp.entity.Role;
+import uz.ilmnajot.newsadsapp.entity.User;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtFilterTest {
+
+    static final String SECRET = "wgZLShDJ98aQVgQFtdQ0+sYrV5zqK6+fJiOLtU1YZKxYEdUghMFq93sdUNhU+aWoJlD80I5gKn+Rz8UhDZQhzA==";
+
+    private final JwtProvider jwtProvider = new JwtProvider(SECRET, 3_600_000L, 2_592_000_000L);
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private final JwtFilter jwtFilter = new JwtFilter(jwtProvider, tokenRevocationService);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void accessTokenIsAuthenticatedFromItsClaims() throws Exception {
+        User user = user();
+
+        Authentication authentication = filter(jwtProvider.generateAccessToken(user));
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("editor");
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(JwtPrincipal.class,
+                principal -> assertThat(principal.id()).isEqualTo(user.getId()));
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_EDITOR");
+    }
+
+    @Test
+    void refreshTokenIsNotAnAccessToken() throws Exception {
+        assertThat(filter(jwtProvider.generateRefreshToken(user()))).isNull();
+    }
+
+    @Test
+    void tamperedOrForeignTokensStayAnonymous() throws Exception {
+        String token = jwtProvider.generateAccessToken(user());
+        JwtProvider other = new JwtProvider(SECRET.replace('w', 'x'), 3_600_000L, 2_592_000_000L);
+
+        assertThat(filter(token.substring(0, token.length() - 2) + "AA")).isNull();
+        assertThat(filter(other.generateAccessToken(user()))).isNull();
+        assertThat(filter("not-a-jwt")).isNull();
+    }
+
+    @Test
+    void revokedTokenStaysAnonymous() throws Exception {
+        String token = jwtProvider.generateAccessToken(user());
+        when(tokenRevocationService.isRevoked(any(JwtPrincipal.class))).thenReturn(true);
+
+        assertThat(filter(token)).isNull();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/admin/news");
+        request.addHeader(SecurityConstants.AUTHORIZATION_HEADER, SecurityConstants.BEARER_PREFIX + token);
+        MockFilterChain chain = new MockFilterChain();
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(chain.getRequest()).isNotNull();
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    static User user() {
+        User user = User.builder()
+                .username("editor")
+                .isActive(true)
+                .roles(Set.of(Role.builder().name("EDITOR").build(), Role.builder().name("ADMIN").build()))
+                .build();
+        user.setId(UUID.fromString("5f0c6a4e-8d53-4c4e-9a8e-0d6f1b7f2c11"));
+        return user;
+    }
+}
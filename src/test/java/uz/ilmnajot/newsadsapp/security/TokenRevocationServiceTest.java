@@ -0,0 +1,97 @@
+package uz.ilmnajot.newsadsapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private static final UUID USER_ID = UUID.fromString("5f0c6a4e-8d53-4c4e-9a8e-0d6f1b7f2c11");
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final TokenRevocationService service = new TokenRevocationService(redisTemplate, 3_600_000L, 1000);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+    }
+
+    @Test
+    void tokensNotInTheFilterAreNotCheckedInRedis() {
+        assertThat(service.isRevoked("a", USER_ID, Instant.now())).isFalse();
+
+        verifyNoInteractions(values);
+    }
+
+    @Test
+    void revokedTokenIsConfirmedByRedis() {
+        service.onMessage(message("j:a"), null);
+        when(values.multiGet(List.of("revoked:jti:a", "revoked:user:" + USER_ID))).thenReturn(Arrays.asList("1", null));
+
+        assertThat(service.isRevoked("a", USER_ID, Instant.now())).isTrue();
+    }
+
+    @Test
+    void userRevocationCoversTokensIssuedUntilThen() {
+        service.revokeUser(USER_ID);
+        verify(values).set(eq("revoked:user:" + USER_ID), anyString(), eq(Duration.ofHours(1).plusSeconds(1)));
+        verify(redisTemplate).convertAndSend(TokenRevocationService.CHANNEL, "u:" + USER_ID);
+        Instant revokedAt = Instant.parse("2026-01-01T10:00:00Z");
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(null, Long.toString(revokedAt.toEpochMilli())));
+
+        assertThat(service.isRevoked("a", USER_ID, revokedAt.minusSeconds(60))).isTrue();
+        assertThat(service.isRevoked("b", USER_ID, revokedAt.plusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void bloomPositiveCountsAsRevokedWhenRedisIsDown() {
+        service.onMessage(message("j:a"), null);
+        when(values.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(service.isRevoked("a", USER_ID, Instant.now())).isTrue();
+        assertThat(service.isRevoked("b", null, Instant.now())).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildLoadsTheEntriesFromRedis() {
+        Iterator<String> keys = List.of("revoked:jti:a", "revoked:user:" + USER_ID).iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).then(invocation -> keys.hasNext());
+        when(cursor.next()).then(invocation -> keys.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList("1", null));
+
+        service.rebuild();
+
+        assertThat(service.isRevoked("a", null, Instant.now())).isTrue();
+        verify(values).multiGet(anyList());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TokenRevocationService.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,151 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.ilmnajot.newsadsapp.enums.AdEventType;
+import uz.ilmnajot.newsadsapp.event.AdCapsChangedEvent;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AdCapTrackerTest {
+
+    private static final long CAMPAIGN = 7L;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    // Counter values of the pipelined INCRBYs, shared by "all nodes"
+    private final Map<String, Long> redis = new HashMap<>();
+    private AdCapTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new AdCapTracker(redisTemplate, eventPublisher);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .then(invocation -> fakeRedis(invocation.getArgument(0)));
+        tracker.updateCaps(Map.of(CAMPAIGN, new Integer[]{5, null}));
+    }
+
+    @Test
+    void syncPushesLocalCountsAndReadsTheClusterTotal() {
+        redis.put(key(LocalDate.now()), 2L); // counted by another node
+        record(2);
+
+        tracker.sync();
+
+        assertThat(redis.get(key(LocalDate.now()))).isEqualTo(4L);
+        assertThat(tracker.cappedCampaigns()).isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void reachedCapIsPublishedOnce() {
+        record(5);
+
+        tracker.sync();
+        tracker.sync();
+
+        assertThat(tracker.cappedCampaigns()).containsExactly(CAMPAIGN);
+        verify(eventPublisher, times(1)).publishEvent(any(AdCapsChangedEvent.class));
+    }
+
+    @Test
+    void redisFailureKeepsTheCountsForTheNextSync() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .then(invocation -> fakeRedis(invocation.getArgument(0)));
+        record(3);
+        tracker.sync();
+        record(1);
+
+        tracker.sync();
+
+        assertThat(redis.get(key(LocalDate.now()))).isEqualTo(4L);
+    }
+
+    @Test
+    void capIsEnforcedOnLocalCountsWhileRedisIsDown() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        record(3);
+        tracker.sync();
+        assertThat(tracker.cappedCampaigns()).isEmpty();
+        record(2);
+
+        tracker.sync();
+
+        assertThat(tracker.cappedCampaigns()).containsExactly(CAMPAIGN);
+        assertThat(redis).isEmpty();
+    }
+
+    @Test
+    void countsFromBeforeMidnightGoToTheDayThatEnded() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        ReflectionTestUtils.setField(tracker, "day", yesterday);
+        redis.put(key(yesterday), 4L);
+        record(3);
+
+        tracker.sync();
+
+        assertThat(redis.get(key(yesterday))).isEqualTo(7L);
+        assertThat(redis.get(key(LocalDate.now()))).isZero();
+        assertThat(tracker.cappedCampaigns()).isEmpty();
+    }
+
+    @Test
+    void updateCapsReturnsTheCappedSetWithoutPublishing() {
+        record(5);
+        tracker.sync();
+        reset(eventPublisher);
+
+        Set<Long> capped = tracker.updateCaps(Map.of(CAMPAIGN, new Integer[]{10, null}));
+
+        assertThat(capped).isEmpty();
+        assertThat(tracker.cappedCampaigns()).isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // Pipelined replies: the new total of each INCRBY, then the EXPIRE result
+    @SuppressWarnings("unchecked")
+    private List<Object> fakeRedis(Object callback) {
+        List<Object> replies = new ArrayList<>();
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        when(connection.incrBy(anyString(), anyLong())).then(call -> {
+            replies.add(redis.merge(call.getArgument(0), call.getArgument(1), Long::sum));
+            return null;
+        });
+        when(connection.expire(anyString(), anyLong())).then(call -> {
+            replies.add(true);
+            return null;
+        });
+        ((RedisCallback<Object>) callback).doInRedis(connection);
+        return replies;
+    }
+
+    private void record(int impressions) {
+        for (int i = 0; i < impressions; i++) {
+            tracker.record(CAMPAIGN, AdEventType.IMPRESSION);
+        }
+    }
+
+    private static String key(LocalDate day) {
+        return "ads:cap:" + day.format(DateTimeFormatter.BASIC_ISO_DATE) + ":" + CAMPAIGN + ":imp";
+    }
+}
@@ -0,0 +1,173 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.ilmnajot.newsadsapp.dto.AdsAssignmentDto;
+import uz.ilmnajot.newsadsapp.entity.AdsAssignment;
+import uz.ilmnajot.newsadsapp.entity.AdsCampaign;
+import uz.ilmnajot.newsadsapp.entity.AdsCreative;
+import uz.ilmnajot.newsadsapp.entity.AdsPlacement;
+import uz.ilmnajot.newsadsapp.enums.AdsComStatus;
+import uz.ilmnajot.newsadsapp.event.AdCapsChangedEvent;
+import uz.ilmnajot.newsadsapp.mapper.AdsAssignmentMapper;
+import uz.ilmnajot.newsadsapp.repository.AdsAssignmentRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AdDecisionEngineTest {
+
+    private static final String TOP = "top";
+
+    private final AdsAssignmentRepository repository = mock(AdsAssignmentRepository.class);
+    private final AdCapTracker capTracker = mock(AdCapTracker.class);
+    private final AdsPlacement placement = AdsPlacement.builder().code(TOP).title("Top").isActive(true).build();
+    private final List<AdsAssignment> assignments = new ArrayList<>();
+    private AdDecisionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        placement.setId(1L);
+        engine = new AdDecisionEngine(repository, new AdsAssignmentMapper(), capTracker);
+        ReflectionTestUtils.setField(engine, "maxAgeMillis", 3_600_000L);
+        // Same end-date filter as the query; start dates are the engine's job
+        when(repository.findServableAssignments(any())).then(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            return assignments.stream()
+                    .filter(a -> a.getEndAt() == null || a.getEndAt().isAfter(now))
+                    .toList();
+        });
+    }
+
+    @Test
+    void langAndCategoryFiltersSelectTheMatchingBucket() {
+        assignments.add(assignment(1, 10, List.of("uz"), List.of(1L)));
+        assignments.add(assignment(2, 20, null, null));
+        assignments.add(assignment(3, 30, List.of("ru"), null));
+        engine.rebuild();
+
+        assertThat(served("uz", 1L)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(served("ru", 1L)).containsExactlyInAnyOrder(2L, 3L);
+        // Category nobody filters on: only the unfiltered ones of the language
+        assertThat(served("uz", 2L)).containsExactly(2L);
+        // Language nobody filters on
+        assertThat(served("en", 1L)).containsExactly(2L);
+        assertThat(served(null, null)).containsExactly(2L);
+    }
+
+    @Test
+    void missingCategoryMatchesEveryCategoryFilter() {
+        assignments.add(assignment(1, 10, List.of("uz"), List.of(1L)));
+        assignments.add(assignment(2, 20, null, List.of(2L)));
+        engine.rebuild();
+
+        assertThat(served("uz", null)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(served("ru", null)).containsExactly(2L);
+        assertThat(served("ru", 1L)).isEmpty();
+    }
+
+    @Test
+    void unknownPlacementAndZeroWeightServeNothing() {
+        AdsAssignment disabled = assignment(1, 10, null, null);
+        disabled.setWeight(0);
+        assignments.add(disabled);
+        engine.rebuild();
+
+        assertThat(engine.select(TOP, "uz", 1L)).isNull();
+        assertThat(engine.select("sidebar", "uz", 1L)).isNull();
+    }
+
+    @Test
+    void cappedCampaignsAreLeftOutUntilTheCapsChange() {
+        assignments.add(assignment(1, 10, null, null));
+        assignments.add(assignment(2, 20, null, null));
+        when(capTracker.updateCaps(any())).thenReturn(Set.of(10L));
+        engine.rebuild();
+
+        assertThat(served("uz", 1L)).containsExactly(2L);
+
+        when(capTracker.cappedCampaigns()).thenReturn(Set.of(20L));
+        engine.onCapsChanged(new AdCapsChangedEvent(Set.of(20L)));
+        assertThat(served("uz", 1L)).containsExactly(1L);
+
+        when(capTracker.cappedCampaigns()).thenReturn(Set.of(10L, 20L));
+        engine.onCapsChanged(new AdCapsChangedEvent(Set.of(10L, 20L)));
+        assertThat(engine.select(TOP, "uz", 1L)).isNull();
+        // Re-indexed from the loaded candidates
+        verify(repository, times(1)).findServableAssignments(any());
+    }
+
+    @Test
+    void startAndEndBoundariesTriggerARebuild() throws InterruptedException {
+        LocalDateTime soon = LocalDateTime.now().plusNanos(300_000_000);
+        AdsAssignment starting = assignment(1, 10, null, null);
+        starting.setStartAt(soon);
+        AdsAssignment ending = assignment(2, 20, null, null);
+        ending.setEndAt(soon);
+        assignments.add(starting);
+        assignments.add(ending);
+        engine.rebuild();
+
+        assertThat(served("uz", 1L)).containsExactly(2L);
+        assertThat(engine.findServed(1L)).isNull();
+        assertThat(engine.findServed(2L).landingUrl()).isEqualTo("https://example.com/2");
+
+        engine.refreshIfStale();
+        verify(repository, times(1)).findServableAssignments(any());
+
+        Thread.sleep(400);
+        engine.refreshIfStale();
+
+        verify(repository, times(2)).findServableAssignments(any());
+        assertThat(served("uz", 1L)).containsExactly(1L);
+        assertThat(engine.findServed(2L)).isNull();
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousSnapshot() {
+        assignments.add(assignment(1, 10, null, null));
+        engine.rebuild();
+        when(repository.findServableAssignments(any())).thenThrow(new IllegalStateException("database down"));
+
+        engine.rebuild();
+
+        assertThat(served("uz", 1L)).containsExactly(1L);
+    }
+
+    // Assignments drawn in enough selections to see every member of the bucket
+    private Set<Long> served(String lang, Long categoryId) {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            AdsAssignmentDto dto = engine.select(TOP, lang, categoryId);
+            if (dto != null) {
+                ids.add(dto.getId());
+            }
+        }
+        return ids;
+    }
+
+    private AdsAssignment assignment(long id, long campaignId, List<String> langs, List<Long> categories) {
+        AdsCampaign campaign = AdsCampaign.builder().name("campaign " + campaignId).status(AdsComStatus.ACTIVE).build();
+        campaign.setId(campaignId);
+        AdsCreative creative = AdsCreative.builder().campaign(campaign).landingUrl("https://example.com/" + id).build();
+        creative.setId(id);
+        AdsAssignment assignment = AdsAssignment.builder()
+                .placement(placement)
+                .campaign(campaign)
+                .creative(creative)
+                .weight(100)
+                .langFilter(langs)
+                .categoryFilter(categories)
+                .build();
+        assignment.setId(id);
+        return assignment;
+    }
+}
@@ -0,0 +1,106 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import uz.ilmnajot.newsadsapp.enums.AdEventType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AdEventTokensTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    // Keys claimed in Redis, shared by "all nodes"
+    private final Set<String> redis = new HashSet<>();
+    private AdEventTokens tokens;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(anyString(), eq("1"), any(Duration.class)))
+                .then(invocation -> redis.add(invocation.getArgument(0)));
+        tokens = tokens(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void tokenCountsOncePerEventType() {
+        String token = tokens.issue(7L);
+
+        assertThat(tokens.claim(7L, token, AdEventType.IMPRESSION)).isTrue();
+        assertThat(tokens.claim(7L, token, AdEventType.IMPRESSION)).isFalse();
+        assertThat(tokens.claim(7L, token, AdEventType.CLICK)).isTrue();
+        assertThat(tokens.claim(7L, token, AdEventType.CLICK)).isFalse();
+    }
+
+    @Test
+    void tokenUsedOnAnotherNodeIsNotCountedAgain() {
+        String token = tokens.issue(7L);
+        assertThat(tokens.claim(7L, token, AdEventType.IMPRESSION)).isTrue();
+
+        AdEventTokens otherNode = tokens(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThat(otherNode.claim(7L, token, AdEventType.IMPRESSION)).isFalse();
+    }
+
+    @Test
+    void eachServedAdGetsItsOwnToken() {
+        assertThat(tokens.issue(7L)).isNotEqualTo(tokens.issue(7L));
+    }
+
+    @Test
+    void foreignTamperedAndMissingTokensAreRejected() {
+        String token = tokens.issue(7L);
+        String[] parts = token.split("\\.");
+
+        assertThat(tokens.claim(8L, token, AdEventType.IMPRESSION)).isFalse();
+        assertThat(tokens.claim(8L, "8." + parts[1] + "." + parts[2] + "." + parts[3], AdEventType.IMPRESSION))
+                .isFalse();
+        assertThat(tokens.claim(7L, parts[0] + "." + (NOW.getEpochSecond() + 60) + "." + parts[2] + "." + parts[3],
+                AdEventType.IMPRESSION)).isFalse();
+        assertThat(tokens.claim(7L, "7.x.y.z", AdEventType.IMPRESSION)).isFalse();
+        assertThat(tokens.claim(7L, null, AdEventType.IMPRESSION)).isFalse();
+        assertThat(new AdEventTokens(redisTemplate, "other-secret", Duration.ofMinutes(15), 1000,
+                Clock.fixed(NOW, ZoneOffset.UTC)).claim(7L, token, AdEventType.IMPRESSION)).isFalse();
+        verifyNoInteractions(values);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = tokens.issue(7L);
+
+        AdEventTokens later = tokens(Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        assertThat(later.claim(7L, token, AdEventType.IMPRESSION)).isFalse();
+    }
+
+    @Test
+    void localClaimsStillHoldWhileRedisIsDown() {
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        String token = tokens.issue(7L);
+
+        assertThat(tokens.claim(7L, token, AdEventType.IMPRESSION)).isTrue();
+        assertThat(tokens.claim(7L, token, AdEventType.IMPRESSION)).isFalse();
+    }
+
+    private AdEventTokens tokens(Clock clock) {
+        return new AdEventTokens(redisTemplate, "secret", Duration.ofMinutes(15), 1000, clock);
+    }
+}
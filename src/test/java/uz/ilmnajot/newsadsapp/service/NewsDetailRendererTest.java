@@ -0,0 +1,60 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class NewsDetailRendererTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final NewsDetailRenderer renderer =
+            new NewsDetailRenderer(mock(PublicNewsViewRepository.class), objectMapper);
+
+    @Test
+    void gzipDecodesToTheJsonBody() throws IOException {
+        NewsDetailBlob blob = renderer.render(news("Title"));
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(blob.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(blob.json());
+        }
+        assertThat(objectMapper.readTree(blob.json()).path("data").path("title").asText()).isEqualTo("Title");
+        assertThat(objectMapper.readTree(blob.json()).path("status").asText()).isEqualTo("OK");
+    }
+
+    @Test
+    void etagFollowsTheContent() {
+        NewsDetailBlob first = renderer.render(news("Title"));
+        NewsDetailBlob same = renderer.render(news("Title"));
+        NewsDetailBlob edited = renderer.render(news("Edited"));
+
+        assertThat(first.etag()).hasSize(32).isEqualTo(same.etag());
+        assertThat(edited.etag()).isNotEqualTo(first.etag());
+    }
+
+    // news
+    private static NewsPublicResponse news(String title) {
+        return NewsPublicResponse.builder()
+                .id(1L)
+                .title(title)
+                .slug("slug")
+                .tags(Set.of("sport"))
+                .publishedAt(LocalDateTime.of(2026, 1, 1, 10, 0))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+// Cluster tier: two nodes sharing one Redis
+class RateLimitServiceRedisTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    void nodesShareOneBudgetAfterSync() {
+        RateLimitService first = new RateLimitService(redisTemplate, 200, 100_000);
+        RateLimitService second = new RateLimitService(redisTemplate, 200, 100_000);
+        for (int i = 0; i < 8; i++) {
+            assertThat(first.tryAcquire("client", 10, Duration.ofHours(1)).allowed()).isTrue();
+        }
+        // Known to the second node once both synced
+        second.tryAcquire("client", 10, Duration.ofHours(1));
+        first.sync();
+        second.sync();
+
+        assertThat(second.tryAcquire("client", 10, Duration.ofHours(1)).allowed()).isTrue();
+        assertThat(second.tryAcquire("client", 10, Duration.ofHours(1)).allowed()).isFalse();
+        assertThat(redisTemplate.opsForZSet().size("rate_limit:nodes")).isEqualTo(2);
+    }
+
+    @Test
+    void clusterKeyHoldsOneValueThatExpiresWhenFull() {
+        RateLimitService node = new RateLimitService(redisTemplate, 200, 100_000);
+        node.tryAcquire("client", 10, Duration.ofSeconds(10));
+        node.sync();
+
+        assertThat(redisTemplate.type("rate_limit:client").code()).isEqualTo("string");
+        assertThat(redisTemplate.getExpire("rate_limit:client")).isBetween(0L, 1L);
+    }
+}
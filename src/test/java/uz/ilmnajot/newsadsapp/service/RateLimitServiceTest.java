@@ -0,0 +1,115 @@
+package uz.ilmnajot.newsadsapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Local tier only: Redis is a mock
+class RateLimitServiceTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RateLimitService rateLimitService = new RateLimitService(redisTemplate, 200, 100_000);
+
+    @Test
+    void concurrentRequestsOnOneNodeNeverExceedTheLimit() throws Exception {
+        // One request refills every 36 s, nothing comes back while the test runs
+        int limit = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 32; thread++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 25; i++) {
+                    if (rateLimitService.tryAcquire("client", limit, Duration.ofHours(1)).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(allowed.get()).isEqualTo(limit);
+    }
+
+    @Test
+    void decisionReportsRemainingAndRetryAfter() {
+        RateLimitService.Decision first = rateLimitService.tryAcquire("client", 3, Duration.ofMinutes(1));
+        rateLimitService.tryAcquire("client", 3, Duration.ofMinutes(1));
+        RateLimitService.Decision third = rateLimitService.tryAcquire("client", 3, Duration.ofMinutes(1));
+        RateLimitService.Decision denied = rateLimitService.tryAcquire("client", 3, Duration.ofMinutes(1));
+
+        assertThat(first.allowed()).isTrue();
+        assertThat(first.remaining()).isEqualTo(2);
+        assertThat(third.remaining()).isZero();
+        assertThat(third.reset()).isBetween(Duration.ofSeconds(59), Duration.ofMinutes(1));
+        assertThat(denied.allowed()).isFalse();
+        // The first of the three requests comes back after period / limit
+        assertThat(denied.retryAfter()).isBetween(Duration.ofSeconds(19), Duration.ofSeconds(20));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void otherNodesTakesAreMergedOnSync() {
+        rateLimitService.tryAcquire("client", 10, Duration.ofMinutes(1));
+        // Cluster bucket: the other nodes emptied it
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(3L, Duration.ofMinutes(1).toNanos() / 1_000));
+
+        rateLimitService.sync();
+
+        assertThat(rateLimitService.tryAcquire("client", 10, Duration.ofMinutes(1)).allowed()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisDownFallsBackToTheLocalShare() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(2L))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        rateLimitService.sync();
+        rateLimitService.sync();
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (rateLimitService.tryAcquire("client", 10, Duration.ofMinutes(1)).allowed()) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(5);
+    }
+
+    @Test
+    void bucketMapIsBounded() {
+        RateLimitService bounded = new RateLimitService(redisTemplate, 200, 100);
+
+        for (int i = 0; i < 10_000; i++) {
+            bounded.tryAcquire("ip:10.0." + (i / 256) + "." + (i % 256), 10, Duration.ofMinutes(1));
+        }
+
+        assertThat(bounded.bucketCount()).isLessThanOrEqualTo(100);
+    }
+}
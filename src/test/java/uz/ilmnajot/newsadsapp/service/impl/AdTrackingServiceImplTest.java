@@ -0,0 +1,73 @@
+package uz.ilmnajot.newsadsapp.service.impl;
+
+import org.junit.jupiter.api.Test;
+import uz.ilmnajot.newsadsapp.enums.AdEventType;
+import uz.ilmnajot.newsadsapp.exception.ResourceNotFoundException;
+import uz.ilmnajot.newsadsapp.service.AdCapTracker;
+import uz.ilmnajot.newsadsapp.service.AdDecisionEngine;
+import uz.ilmnajot.newsadsapp.service.AdEventPipeline;
+import uz.ilmnajot.newsadsapp.service.AdEventTokens;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AdTrackingServiceImplTest {
+
+    private final AdDecisionEngine engine = mock(AdDecisionEngine.class);
+    private final AdEventPipeline pipeline = mock(AdEventPipeline.class);
+    private final AdCapTracker capTracker = mock(AdCapTracker.class);
+    private final AdEventTokens tokens = mock(AdEventTokens.class);
+    private final AdTrackingServiceImpl service = new AdTrackingServiceImpl(engine, pipeline, capTracker, tokens);
+
+    @Test
+    void clickWithAValidTokenIsCounted() {
+        AdDecisionEngine.ServedAd ad = served("https://example.com/offer?id=1");
+        when(tokens.claim(7L, "t1", AdEventType.CLICK)).thenReturn(true);
+
+        assertThat(service.recordClick(7L, "t1")).isEqualTo(URI.create("https://example.com/offer?id=1"));
+
+        verify(pipeline).record(ad, AdEventType.CLICK);
+        verify(capTracker).record(10L, AdEventType.CLICK);
+    }
+
+    @Test
+    void clickWithoutAValidTokenRedirectsUncounted() {
+        served("https://example.com/offer?id=1");
+
+        assertThat(service.recordClick(7L, "forged")).isEqualTo(URI.create("https://example.com/offer?id=1"));
+
+        verifyNoInteractions(pipeline, capTracker);
+    }
+
+    @Test
+    void malformedLandingUrlIsNotFoundAndNotCounted() {
+        served("https://example.com/a b|c");
+
+        assertThatThrownBy(() -> service.recordClick(7L, "t1")).isInstanceOf(ResourceNotFoundException.class);
+
+        verifyNoInteractions(tokens, pipeline, capTracker);
+    }
+
+    @Test
+    void impressionIsCountedOnlyWithAValidToken() {
+        AdDecisionEngine.ServedAd ad = served("https://example.com");
+        when(tokens.claim(7L, "t1", AdEventType.IMPRESSION)).thenReturn(true);
+
+        service.recordImpression(7L, "t1");
+        service.recordImpression(7L, "forged");
+
+        verify(pipeline, times(1)).record(ad, AdEventType.IMPRESSION);
+        verify(capTracker, times(1)).record(anyLong(), any());
+    }
+
+    private AdDecisionEngine.ServedAd served(String landingUrl) {
+        AdDecisionEngine.ServedAd ad = new AdDecisionEngine.ServedAd(7L, 10L, 20L, 1L, landingUrl);
+        when(engine.findServed(7L)).thenReturn(ad);
+        return ad;
+    }
+}
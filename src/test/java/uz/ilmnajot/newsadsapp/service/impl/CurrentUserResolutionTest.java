@@ -0,0 +1,110 @@
+package uz.ilmnajot.newsadsapp.service.impl;
+
+import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.ilmnajot.newsadsapp.entity.Media;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.entity.NewsHistory;
+import uz.ilmnajot.newsadsapp.entity.User;
+import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.mapper.MediaMapper;
+import uz.ilmnajot.newsadsapp.mapper.NewsHistoryMapper;
+import uz.ilmnajot.newsadsapp.mapper.NewsMapper;
+import uz.ilmnajot.newsadsapp.repository.*;
+import uz.ilmnajot.newsadsapp.security.JwtPrincipal;
+import uz.ilmnajot.newsadsapp.storage.MediaUploader;
+import uz.ilmnajot.newsadsapp.util.SlugGenerator;
+import uz.ilmnajot.newsadsapp.util.UserUtil;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Admin writes take the acting user from the token: a reference by id, never a users select
+class CurrentUserResolutionTest {
+
+    private static final UUID USER_ID = UUID.fromString("5f0c6a4e-8d53-4c4e-9a8e-0d6f1b7f2c11");
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final NewsRepository newsRepository = mock(NewsRepository.class);
+    private final NewsHistoryRepository newsHistoryRepository = mock(NewsHistoryRepository.class);
+    private final MediaRepository mediaRepository = mock(MediaRepository.class);
+    private final UserUtil userUtil = new UserUtil(userRepository);
+    private final User reference = new User();
+
+    private NewsServiceImpl newsService;
+    private MediaServiceImpl mediaService;
+
+    @BeforeEach
+    void setUp() {
+        JwtPrincipal principal = new JwtPrincipal(USER_ID, "editor", List.of(new SimpleGrantedAuthority("ROLE_EDITOR")),
+                "jti", Instant.now(), Instant.now().plusSeconds(3600));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.authorities()));
+        reference.setId(USER_ID);
+        when(userRepository.getReferenceById(USER_ID)).thenReturn(reference);
+        when(newsRepository.save(any(News.class))).then(invocation -> invocation.getArgument(0));
+        when(mediaRepository.save(any(Media.class))).then(invocation -> invocation.getArgument(0));
+
+        newsService = new NewsServiceImpl(newsRepository, mock(NewsTranslationRepository.class),
+                newsHistoryRepository, mock(CategoryRepository.class), mock(TagRepository.class), mediaRepository,
+                mock(SlugGenerator.class), userUtil, mock(NewsMapper.class), mock(NewsHistoryMapper.class),
+                mock(ApplicationEventPublisher.class));
+        mediaService = new MediaServiceImpl(mediaRepository, mock(MinioClient.class), mock(MediaUploader.class),
+                userUtil, new MediaMapper());
+        ReflectionTestUtils.setField(mediaService, "bucketName", "media");
+        ReflectionTestUtils.setField(mediaService, "endpoint", "http://localhost:9000");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void newsWritesRecordTheActingUserWithoutQueryingUsers() {
+        News news = News.builder().status(NewsStatus.DRAFT).isDeleted(false).build();
+        news.setId(1L);
+        when(newsRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(news));
+        when(newsRepository.findById(1L)).thenReturn(Optional.of(news));
+
+        newsService.updateNewsStatus(1L, NewsStatus.PUBLISHED);
+        newsService.softDeleteNews(1L);
+        newsService.restoreNews(1L);
+
+        ArgumentCaptor<NewsHistory> history = ArgumentCaptor.forClass(NewsHistory.class);
+        verify(newsHistoryRepository, times(3)).save(history.capture());
+        assertThat(history.getAllValues()).allSatisfy(entry -> assertThat(entry.getChangedBy()).isSameAs(reference));
+        assertThat(history.getAllValues().get(1).getDiffJson()).containsEntry("user", "editor");
+        verify(userRepository, times(3)).getReferenceById(USER_ID);
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void uploadedMediaIsOwnedByTheActingUserWithoutQueryingUsers() {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+
+        Object data = mediaService.uploadMedia(file).getData();
+
+        ArgumentCaptor<Media> media = ArgumentCaptor.forClass(Media.class);
+        verify(mediaRepository).save(media.capture());
+        assertThat(media.getValue().getOwner()).isSameAs(reference);
+        assertThat(data).hasFieldOrPropertyWithValue("ownerId", USER_ID);
+        verify(userRepository).getReferenceById(USER_ID);
+        verifyNoMoreInteractions(userRepository);
+    }
+}
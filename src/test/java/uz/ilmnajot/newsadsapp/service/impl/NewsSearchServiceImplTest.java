@@ -0,0 +1,45 @@
+package uz.ilmnajot.newsadsapp.service.impl;
+
+import org.junit.jupiter.api.Test;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.search.NewsSearchEngine;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NewsSearchServiceImplTest {
+
+    private final NewsSearchEngine engine = mock(NewsSearchEngine.class);
+    private final NewsSearchServiceImpl service = new NewsSearchServiceImpl(engine);
+
+    @Test
+    void lastPageWithinTheOffsetLimitIsSearched() {
+        when(engine.searchPublished(any(), any(), anyInt(), anyInt())).thenReturn(List.of());
+
+        service.search(filter(), NewsSearchServiceImpl.MAX_OFFSET / 50, 50);
+
+        verify(engine).searchPublished(any(), any(), eq(NewsSearchServiceImpl.MAX_OFFSET), eq(51));
+    }
+
+    @Test
+    void deeperPagesAndOverflowingOffsetsAreBadRequests() {
+        assertThatThrownBy(() -> service.search(filter(), NewsSearchServiceImpl.MAX_OFFSET / 50 + 1, 50))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search(filter(), Integer.MAX_VALUE / 20, 50))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(engine);
+    }
+
+    private static NewsFilter filter() {
+        NewsFilter filter = new NewsFilter();
+        filter.setKeyword("sport");
+        return filter;
+    }
+}
@@ -0,0 +1,155 @@
+package uz.ilmnajot.newsadsapp.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uz.ilmnajot.newsadsapp.dto.NewsCreateRequest;
+import uz.ilmnajot.newsadsapp.dto.NewsResponse;
+import uz.ilmnajot.newsadsapp.entity.Category;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
+import uz.ilmnajot.newsadsapp.entity.User;
+import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.mapper.NewsHistoryMapper;
+import uz.ilmnajot.newsadsapp.mapper.NewsMapper;
+import uz.ilmnajot.newsadsapp.security.JwtPrincipal;
+import uz.ilmnajot.newsadsapp.util.SlugGenerator;
+import uz.ilmnajot.newsadsapp.util.UserUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Admin news writes against the real schema: the acting user costs no users select, the only one left
+// is NewsMapper.toDto reading the author's name from the proxy
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({NewsServiceImpl.class, UserUtil.class, SlugGenerator.class, NewsMapper.class, NewsHistoryMapper.class})
+class NewsUserQueryCountTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NewsServiceImpl newsService;
+
+    private Category category;
+    private News draft;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User author = new User();
+        author.setUsername("editor");
+        author.setEmail("editor@example.com");
+        author.setFullName("Editor");
+        author.setPassword("x");
+        entityManager.persist(author);
+
+        category = new Category();
+        category.setTranslations(new ArrayList<>());
+        entityManager.persist(category);
+
+        draft = new News();
+        draft.setAuthor(author);
+        draft.setCategory(category);
+        draft.setStatus(NewsStatus.DRAFT);
+        draft.setIsDeleted(false);
+        draft.setIsFeatured(false);
+        draft.setTags(Set.of());
+        draft.setTranslations(new ArrayList<>());
+        NewsTranslation translation = new NewsTranslation();
+        translation.setNews(draft);
+        translation.setLang("uz");
+        translation.setTitle("Draft");
+        translation.setSlug("draft");
+        draft.getTranslations().add(translation);
+        entityManager.persist(draft);
+
+        // Nothing of the user stays in the persistence context, every access below has to go to the database
+        entityManager.flush();
+        entityManager.clear();
+
+        JwtPrincipal principal = new JwtPrincipal(author.getId(), "editor", List.of(), "jti",
+                Instant.now(), Instant.now().plusSeconds(3600));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.authorities()));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createNewsSelectsTheUserOnlyForTheAuthorName() {
+        NewsCreateRequest.NewsTranslationRequest uz = new NewsCreateRequest.NewsTranslationRequest();
+        uz.setTitle("Yangi maqola");
+        uz.setContent("<p>Matn</p>");
+        NewsCreateRequest request = new NewsCreateRequest();
+        request.setCategoryId(category.getId());
+        request.setStatus("draft");
+        request.setTranslations(Map.of("uz", uz));
+
+        NewsResponse response = newsService.createNews(request);
+
+        assertThat(response.getAuthorName()).isEqualTo("Editor");
+        assertThat(userSelects()).isEqualTo(1);
+    }
+
+    @Test
+    void statusChangeSelectsTheUserOnlyForTheAuthorName() {
+        NewsResponse response = newsService.updateNewsStatus(draft.getId(), NewsStatus.PUBLISHED);
+
+        assertThat(response.getAuthorName()).isEqualTo("Editor");
+        assertThat(userSelects()).isEqualTo(1);
+    }
+
+    @Test
+    void writesWithoutAResponseSelectNoUser() {
+        newsService.softDeleteNews(draft.getId());
+        newsService.restoreNews(draft.getId());
+        entityManager.flush();
+
+        assertThat(userSelects()).isZero();
+    }
+
+    // userSelects: users rows read by queries, lookups and proxy initialization
+    private long userSelects() {
+        return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+}
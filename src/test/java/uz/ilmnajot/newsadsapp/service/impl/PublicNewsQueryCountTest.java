@@ -0,0 +1,227 @@
+package uz.ilmnajot.newsadsapp.service.impl;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uz.ilmnajot.newsadsapp.dto.NewsDetailBlob;
+import uz.ilmnajot.newsadsapp.dto.NewsPublicResponse;
+import uz.ilmnajot.newsadsapp.dto.common.ApiResponse;
+import uz.ilmnajot.newsadsapp.entity.Category;
+import uz.ilmnajot.newsadsapp.entity.CategoryTranslation;
+import uz.ilmnajot.newsadsapp.entity.News;
+import uz.ilmnajot.newsadsapp.entity.NewsTranslation;
+import uz.ilmnajot.newsadsapp.entity.Tag;
+import uz.ilmnajot.newsadsapp.entity.User;
+import uz.ilmnajot.newsadsapp.enums.NewsStatus;
+import uz.ilmnajot.newsadsapp.filter.NewsFilter;
+import uz.ilmnajot.newsadsapp.mapper.CategoryMapper;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepository;
+import uz.ilmnajot.newsadsapp.repository.PublicNewsViewRepositoryImpl;
+import uz.ilmnajot.newsadsapp.repository.RecordingDataSource;
+import uz.ilmnajot.newsadsapp.service.NewsDetailRenderer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uz.ilmnajot.newsadsapp.repository.RecordingDataSource.RECORDED;
+
+// The public list is served from public_news_view alone with the same statements for any page size
+// (counted on the DataSource: the JDBC reads never pass through Hibernate), and the keyset feed must
+// walk every row exactly once
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({PublicNewsServiceImpl.class, PublicNewsViewRepositoryImpl.class, NewsDetailRenderer.class, CategoryMapper.class,
+        RecordingDataSource.Config.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class PublicNewsQueryCountTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PublicNewsServiceImpl publicNewsService;
+
+    @Autowired
+    private PublicNewsViewRepository publicNewsViewRepository;
+
+    @Autowired
+    private NewsDetailRenderer newsDetailRenderer;
+
+    @BeforeEach
+    void setUp() {
+        User author = new User();
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setFullName("Author");
+        author.setPassword("x");
+        entityManager.persist(author);
+
+        List<Category> categories = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            Category category = new Category();
+            category.setTranslations(new ArrayList<>());
+            for (String lang : List.of("uz", "ru")) {
+                CategoryTranslation translation = new CategoryTranslation();
+                translation.setCategory(category);
+                translation.setLang(lang);
+                translation.setTitle("Category " + c + " " + lang);
+                translation.setSlug("category-" + c + "-" + lang);
+                category.getTranslations().add(translation);
+            }
+            entityManager.persist(category);
+            categories.add(category);
+        }
+
+        Tag sport = new Tag();
+        sport.setCode("sport");
+        entityManager.persist(sport);
+        Tag world = new Tag();
+        world.setCode("world");
+        entityManager.persist(world);
+
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 30; i++) {
+            News news = new News();
+            news.setAuthor(author);
+            news.setCategory(categories.get(i % categories.size()));
+            news.setStatus(NewsStatus.PUBLISHED);
+            news.setIsDeleted(false);
+            news.setIsFeatured(false);
+            news.setPublishAt(base.plusMinutes(i));
+            news.setTags(Set.of(sport, world));
+            news.setTranslations(new ArrayList<>());
+            for (String lang : List.of("uz", "ru")) {
+                NewsTranslation translation = new NewsTranslation();
+                translation.setNews(news);
+                translation.setLang(lang);
+                translation.setTitle("News " + i + " " + lang);
+                translation.setSlug("news-" + i + "-" + lang);
+                news.getTranslations().add(translation);
+            }
+            entityManager.persist(news);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        // Entities persisted directly publish no events, so the read model is built by hand
+        publicNewsViewRepository.refreshAll();
+    }
+
+    @Test
+    void publicListRunsPageAndCountForEveryPageSize() {
+        assertThat(statementsFor(5)).hasSize(2).allMatch(sql -> sql.contains("public_news_view"));
+        assertThat(statementsFor(20)).hasSize(2).allMatch(sql -> sql.contains("public_news_view"));
+    }
+
+    @Test
+    void pageIsOrderedByPublishTimeNewestFirst() {
+        List<NewsPublicResponse> data = page(10);
+
+        assertThat(data).hasSize(10);
+        assertThat(data).extracting(NewsPublicResponse::getPublishedAt)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(data.get(0).getTitle()).isEqualTo("News 29 uz");
+        assertThat(data.get(0).getCategoryTitle()).isNotNull();
+        assertThat(data.get(0).getTags()).containsExactlyInAnyOrder("sport", "world");
+    }
+
+    @Test
+    void detailIsServedFromTheRenderedBlob() {
+        NewsDetailBlob onTheFly = publicNewsService.getNewsBySlug("news-3-ru", "ru");
+
+        assertThat(newsDetailRenderer.renderPending(Integer.MAX_VALUE)).isEqualTo(60);
+        NewsDetailBlob stored = publicNewsViewRepository.findDetailBlob("news-3-ru", "ru", LocalDateTime.now())
+                .orElseThrow();
+
+        assertThat(stored.etag()).isEqualTo(onTheFly.etag());
+        assertThat(new String(stored.json(), StandardCharsets.UTF_8))
+                .startsWith("{\"status\":\"OK\"")
+                .contains("\"title\":\"News 3 ru\"");
+        assertThat(publicNewsService.getNewsBySlug("news-3-ru", "ru").json()).isEqualTo(stored.json());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void feedWalksEveryRowOnceAcrossDatedAndUndatedZones() {
+        User author = entityManager.createQuery("SELECT u FROM User u", User.class).getSingleResult();
+        for (int i = 0; i < 3; i++) {
+            News undated = new News();
+            undated.setAuthor(author);
+            undated.setStatus(NewsStatus.PUBLISHED);
+            undated.setIsDeleted(false);
+            undated.setIsFeatured(false);
+            undated.setTags(Set.of());
+            undated.setTranslations(new ArrayList<>());
+            NewsTranslation translation = new NewsTranslation();
+            translation.setNews(undated);
+            translation.setLang("uz");
+            translation.setTitle("Undated " + i);
+            translation.setSlug("undated-" + i);
+            undated.getTranslations().add(translation);
+            entityManager.persist(undated);
+        }
+        entityManager.flush();
+        publicNewsViewRepository.refreshAll();
+
+        List<String> titles = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            entityManager.clear();
+            NewsFilter filter = new NewsFilter();
+            filter.setLang("uz");
+            ApiResponse response = publicNewsService.getPublicNewsFeed(filter, cursor, 7);
+            ((List<NewsPublicResponse>) response.getData()).forEach(n -> titles.add(n.getTitle()));
+            cursor = (String) response.getMeta().get("next");
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(5);
+        assertThat(titles).hasSize(33).doesNotHaveDuplicates();
+        assertThat(titles.get(0)).isEqualTo("News 29 uz");
+        assertThat(titles.get(29)).isEqualTo("News 0 uz");
+        assertThat(titles.subList(30, 33)).containsExactly("Undated 2", "Undated 1", "Undated 0");
+    }
+
+    // SQL of the statements one full first page runs
+    private List<String> statementsFor(int size) {
+        entityManager.clear();
+        RECORDED.clear();
+        assertThat(page(size)).hasSize(size);
+        return RECORDED.stream().map(RecordingDataSource.Recorded::sql).toList();
+    }
+
+    // page
+    @SuppressWarnings("unchecked")
+    private List<NewsPublicResponse> page(int size) {
+        NewsFilter filter = new NewsFilter();
+        filter.setLang("uz");
+        ApiResponse response = publicNewsService.getPublicNews(
+                filter, PageRequest.of(0, size, Sort.by("publishAt").descending()));
+        return (List<NewsPublicResponse>) response.getData();
+    }
+}
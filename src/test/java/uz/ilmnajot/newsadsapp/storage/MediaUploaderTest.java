@@ -0,0 +1,92 @@
+package uz.ilmnajot.newsadsapp.storage;
+
+import io.minio.messages.Part;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.ilmnajot.newsadsapp.exception.BadRequestException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MediaUploaderTest {
+
+    private static final int PART_SIZE = 1024;
+    private static final int BUFFERS = 4;
+
+    private final S3MultipartClient client = mock(S3MultipartClient.class);
+    private final PartBufferPool buffers = new PartBufferPool(PART_SIZE, BUFFERS, Duration.ofMillis(200));
+    private MediaUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        uploader = new MediaUploader(client, buffers, "media", 2, 10L * PART_SIZE);
+        when(client.ensureBucket("media")).thenReturn(CompletableFuture.completedFuture(false));
+        when(client.putSmall(any(), any(), any(), any(), anyInt())).thenReturn(CompletableFuture.completedFuture(null));
+        when(client.createUpload("media", "video.mp4", "video/mp4")).thenReturn(CompletableFuture.completedFuture("u1"));
+        when(client.uploadPart(eq("media"), eq("video.mp4"), eq("u1"), anyInt(), any(), anyInt()))
+                .then(invocation -> CompletableFuture.completedFuture(
+                        new Part(invocation.getArgument(3), "etag-" + invocation.getArgument(3))));
+        when(client.complete(any(), any(), any(), anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        when(client.abort(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void smallFileIsOneRequestAndTheBucketIsCheckedOnce() throws IOException {
+        assertThat(uploader.upload("a.jpg", "image/jpeg", new ByteArrayInputStream(new byte[100]))).isEqualTo(100);
+        uploader.upload("b.jpg", "image/jpeg", new ByteArrayInputStream(new byte[100]));
+
+        verify(client, times(1)).ensureBucket("media");
+        verify(client).putSmall(eq("media"), eq("a.jpg"), eq("image/jpeg"), any(), eq(100));
+        verify(client, never()).createUpload(any(), any(), any());
+        assertThat(buffers.available()).isEqualTo(BUFFERS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void largeFileIsSplitIntoPartsInOrder() throws IOException {
+        long size = uploader.upload("video.mp4", "video/mp4", new ByteArrayInputStream(new byte[3 * PART_SIZE + 10]));
+
+        assertThat(size).isEqualTo(3 * PART_SIZE + 10);
+        verify(client, times(3)).uploadPart(any(), any(), any(), anyInt(), any(), eq(PART_SIZE));
+        verify(client).uploadPart(any(), any(), any(), eq(4), any(), eq(10));
+        verify(client).complete(eq("media"), eq("video.mp4"), eq("u1"), argThat(parts ->
+                ((List<Part>) parts).stream().map(Part::partNumber).toList().equals(List.of(1, 2, 3, 4))));
+        assertThat(buffers.available()).isEqualTo(BUFFERS);
+    }
+
+    @Test
+    void failedPartAbortsTheUploadAndReturnsTheBuffers() {
+        when(client.uploadPart(any(), any(), any(), eq(2), any(), anyInt()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+
+        assertThatThrownBy(() -> uploader.upload("video.mp4", "video/mp4",
+                new ByteArrayInputStream(new byte[5 * PART_SIZE])))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+
+        verify(client).abort("media", "video.mp4", "u1");
+        verify(client, never()).complete(any(), any(), any(), anyList());
+        assertThat(buffers.available()).isEqualTo(BUFFERS);
+    }
+
+    @Test
+    void tooLargeFileIsRejected() {
+        assertThatThrownBy(() -> uploader.upload("video.mp4", "video/mp4",
+                new ByteArrayInputStream(new byte[11 * PART_SIZE])))
+                .isInstanceOf(BadRequestException.class);
+
+        verify(client).abort("media", "video.mp4", "u1");
+        assertThat(buffers.available()).isEqualTo(BUFFERS);
+    }
+}
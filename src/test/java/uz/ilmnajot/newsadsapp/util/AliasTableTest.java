@@ -0,0 +1,70 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AliasTableTest {
+
+    @Test
+    void tableReproducesWeightsExactly() {
+        int[] weights = {100, 1, 0, 37, 250, 100, 3, 9999};
+        AliasTable table = AliasTable.of(weights);
+
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals((long) weights[i] * weights.length, table.probabilityNumerator(i), "index " + i);
+        }
+    }
+
+    @Test
+    void samplesFollowWeights() {
+        int[] weights = {100, 50, 25, 10, 5, 200, 1, 75, 33, 1};
+        long total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+
+        AliasTable table = AliasTable.of(weights);
+        SplittableRandom random = new SplittableRandom(42);
+        int draws = 1_000_000;
+        long[] observed = new long[weights.length];
+        for (int i = 0; i < draws; i++) {
+            observed[table.next(random)]++;
+        }
+
+        double chiSquare = 0;
+        for (int i = 0; i < weights.length; i++) {
+            double expected = (double) draws * weights[i] / total;
+            double diff = observed[i] - expected;
+            chiSquare += diff * diff / expected;
+        }
+
+        // Wilson-Hilferty approximation of the chi-square critical value at p = 0.001
+        int df = weights.length - 1;
+        double z = 3.090;
+        double a = 2.0 / (9.0 * df);
+        double critical = df * Math.pow(1 - a + z * Math.sqrt(a), 3);
+        assertTrue(chiSquare < critical, "chi-square " + chiSquare + " >= " + critical);
+    }
+
+    @Test
+    void zeroWeightIsNeverSelected() {
+        AliasTable table = AliasTable.of(new int[]{0, 5, 0, 5});
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            int index = table.next(random);
+            assertTrue(index == 1 || index == 3);
+        }
+    }
+
+    @Test
+    void rejectsInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new int[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new int[]{1, -1}));
+    }
+}
@@ -0,0 +1,56 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", " ::1"));
+
+    @Test
+    void headersOfAnUntrustedPeerAreIgnored() {
+        assertThat(resolver.resolve(request("203.0.113.7", "1.2.3.4", "5.6.7.8"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void forwardedForIsReadFromTheRightPastOurProxies() {
+        // The client put 1.2.3.4 in itself, 198.51.100.9 is what our edge proxy saw
+        assertThat(resolver.resolve(request("10.0.0.2", "1.2.3.4, 198.51.100.9, 10.0.0.1", null)))
+                .isEqualTo("198.51.100.9");
+        assertThat(resolver.resolve(request("::1", "198.51.100.9", null))).isEqualTo("198.51.100.9");
+    }
+
+    @Test
+    void realIpIsUsedWithoutForwardedFor() {
+        assertThat(resolver.resolve(request("10.0.0.2", null, "198.51.100.9"))).isEqualTo("198.51.100.9");
+        assertThat(resolver.resolve(request("10.0.0.2", null, null))).isEqualTo("10.0.0.2");
+    }
+
+    @Test
+    void noTrustedProxiesMeansTheRemoteAddress() {
+        ClientIpResolver direct = new ClientIpResolver(List.of());
+
+        assertThat(direct.resolve(request("10.0.0.2", "1.2.3.4", null))).isEqualTo("10.0.0.2");
+    }
+
+    @Test
+    void nonAddressHopIsTheClient() {
+        assertThat(resolver.resolve(request("10.0.0.2", "unknown", null))).isEqualTo("unknown");
+    }
+
+    private static MockHttpServletRequest request(String remote, String forwardedFor, String realIp) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remote);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        if (realIp != null) {
+            request.addHeader("X-Real-IP", realIp);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+    @Test
+    void rejectsWhenFullAndAcceptsAfterDrain() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drain(drained::add, 2));
+        assertEquals(List.of(0, 1), drained);
+        assertTrue(buffer.offer(5));
+        assertEquals(3, buffer.drain(drained::add, 10));
+        assertEquals(List.of(0, 1, 2, 3, 5), drained);
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(4096);
+        CountDownLatch done = new CountDownLatch(producers);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+            thread.start();
+        }
+
+        long[] nextExpected = new long[producers];
+        long[] received = {0};
+        while (running.get()) {
+            if (done.getCount() == 0 && buffer.size() == 0) {
+                running.set(false);
+            }
+            buffer.drain(element -> {
+                // per-producer FIFO order
+                assertEquals(nextExpected[(int) element[0]]++, element[1]);
+                received[0]++;
+            }, 256);
+        }
+
+        assertEquals((long) producers * perProducer, received[0]);
+    }
+}
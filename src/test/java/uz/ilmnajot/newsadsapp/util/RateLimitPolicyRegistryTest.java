@@ -0,0 +1,115 @@
+package uz.ilmnajot.newsadsapp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import uz.ilmnajot.newsadsapp.annotation.RateLimit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitPolicyRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    private Path overrides;
+    private HandlerMethod bySlug;
+    private HandlerMethod unlimited;
+    private RateLimitPolicyRegistry registry;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        overrides = dir.resolve("rate-limits.properties");
+        Handlers handlers = new Handlers();
+        bySlug = new HandlerMethod(handlers, Handlers.class.getMethod("bySlug", String.class));
+        unlimited = new HandlerMethod(handlers, Handlers.class.getMethod("unlimited"));
+
+        RequestMappingHandlerMapping mapping = mock(RequestMappingHandlerMapping.class);
+        when(mapping.getHandlerMethods()).thenReturn(Map.of(
+                RequestMappingInfo.paths("/api/v1/things/{slug}").methods(RequestMethod.GET).build(), bySlug,
+                RequestMappingInfo.paths("/api/v1/things").build(), unlimited));
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class)).thenReturn(mapping);
+        registry = new RateLimitPolicyRegistry(context, overrides.toString());
+    }
+
+    @Test
+    void annotationDefaultsAreCompiledPerRouteTemplate() {
+        registry.afterSingletonsInstantiated();
+
+        RateLimitPolicy policy = registry.find(bySlug);
+        assertThat(policy.id()).isEqualTo("Handlers.bySlug");
+        assertThat(policy.route()).isEqualTo("GET /api/v1/things/{slug}");
+        assertThat(policy.anonymous()).isEqualTo(new RateLimitPolicy.Limit(60, Duration.ofMinutes(1)));
+        assertThat(policy.authenticated()).isEqualTo(policy.anonymous());
+        assertThat(policy.message()).isEqualTo("Slow down");
+        assertThat(registry.find(unlimited)).isNull();
+    }
+
+    @Test
+    void overridesApplyPerClientClassAndReload() throws IOException {
+        write("""
+                Handlers.bySlug=120/1m
+                *.authenticated=600/1m
+                *.api-key.partner=10000/1h
+                Handlers.bySlug.api-key.partner=20000/1h
+                """, 1);
+        registry.afterSingletonsInstantiated();
+
+        RateLimitPolicy policy = registry.find(bySlug);
+        assertThat(policy.anonymous()).isEqualTo(new RateLimitPolicy.Limit(120, Duration.ofMinutes(1)));
+        assertThat(policy.authenticated()).isEqualTo(new RateLimitPolicy.Limit(600, Duration.ofMinutes(1)));
+        assertThat(policy.apiKeys()).containsEntry("partner", new RateLimitPolicy.Limit(20000, Duration.ofHours(1)));
+
+        write("Handlers.bySlug=30/10s\n", 2);
+        registry.reloadIfChanged();
+
+        assertThat(registry.find(bySlug).anonymous()).isEqualTo(new RateLimitPolicy.Limit(30, Duration.ofSeconds(10)));
+        assertThat(registry.find(bySlug).apiKeys()).isEmpty();
+    }
+
+    @Test
+    void invalidFileKeepsThePreviousPolicies() throws IOException {
+        write("Handlers.bySlug=120/1m\n", 1);
+        registry.afterSingletonsInstantiated();
+
+        write("Handlers.bySlug=lots\n", 2);
+        registry.reloadIfChanged();
+
+        assertThat(registry.find(bySlug).anonymous().limit()).isEqualTo(120);
+    }
+
+    // Distinct modification times, the file system clock may be coarse
+    private void write(String content, int generation) throws IOException {
+        Files.writeString(overrides, content);
+        Files.setLastModifiedTime(overrides, FileTime.from(Instant.ofEpochSecond(1_700_000_000L + generation)));
+    }
+
+    static class Handlers {
+
+        @RateLimit(limit = 60, duration = 1, timeUnit = TimeUnit.MINUTES, message = "Slow down")
+        public String bySlug(String slug) {
+            return slug;
+        }
+
+        public String unlimited() {
+            return "";
+        }
+    }
+}